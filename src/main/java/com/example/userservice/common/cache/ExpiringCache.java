@@ -0,0 +1,80 @@
+package com.example.userservice.common.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Small in-process cache whose entries expire a fixed time after they were loaded.
+ * When it grows past its maximum size it is simply emptied, which is enough for caches
+ * that hold a handful of hot keys.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public ExpiringCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get a cached value, loading it if it is missing or expired.
+     *
+     * @param key The key
+     * @param loader Loads the value on a miss
+     * @return The cached or freshly loaded value
+     */
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry.value;
+        }
+        V value = loader.get();
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(key, new Entry<>(value, now));
+        return value;
+    }
+
+    /**
+     * Get a cached value without loading it.
+     *
+     * @param key The key
+     * @return The value, or null if it is missing or expired
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && System.nanoTime() - entry.loadedAt < ttlNanos ? entry.value : null;
+    }
+
+    /**
+     * Store a value.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Remove every entry.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.example.userservice.common.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to latency, following the gradient approach: the limit grows while
+ * request latency stays close to its long-term average and shrinks as soon as latency climbs above it,
+ * which is the earliest sign that the backend has started queueing.
+ * <p>
+ * Acquiring and releasing a permit are lock-free; only the limit update after each request is synchronized.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 1.0 / 600;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Try to take a permit.
+     *
+     * @return true if the request may proceed and must later call {@link #release(long, boolean)}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a permit and feed the request's latency into the limit.
+     *
+     * @param rttNanos How long the request took
+     * @param dropped Whether the request failed in a way that signals overload, such as a timeout
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int concurrent = inFlight.getAndDecrement();
+        update(rttNanos, dropped, concurrent);
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int concurrent) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * BACKOFF_RATIO);
+            return;
+        }
+
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+        // After a sustained slowdown the average lags far behind; let it recover faster
+        if (longRttNanos > 2 * rttNanos) {
+            longRttNanos = (longRttNanos + rttNanos) / 2;
+        }
+
+        // Don't grow the limit on the back of requests that never came close to it
+        if (concurrent < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**
+     * Get the current limit.
+     *
+     * @return The number of requests allowed to run concurrently
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Get the number of requests currently holding a permit.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of requests rejected since startup.
+     *
+     * @return The rejection count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
\ No newline at end of file
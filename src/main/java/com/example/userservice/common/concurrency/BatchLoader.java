@@ -0,0 +1,71 @@
+package com.example.userservice.common.concurrency;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Collects concurrent single-key loads into batched loads, in the style of DataLoader, using the adaptive
+ * window of {@link MicroBatcher}: an idle loader sends each key at once, a busy one batches them.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class BatchLoader<K, V> {
+
+    private final MicroBatcher<K, V> batcher;
+
+    /**
+     * Create a loader.
+     *
+     * @param loader Loads the values of a set of keys; keys missing from the result load as null
+     * @param maxBatchSize The number of keys that dispatches a pending batch at once
+     * @param maxWaitNanos The longest a key waits in a pending batch
+     * @param maxConcurrentBatches The number of batches that may run before keys start to queue
+     */
+    public BatchLoader(Function<Collection<K>, Map<K, V>> loader, int maxBatchSize, long maxWaitNanos,
+                       int maxConcurrentBatches) {
+        this.batcher = new MicroBatcher<>((keys, results) -> load(loader, keys, results),
+                maxBatchSize, maxWaitNanos, maxConcurrentBatches);
+    }
+
+    /**
+     * Load the value of a key, sharing a batch with concurrent loads.
+     *
+     * @param key The key
+     * @return The value, or null if the loader returned none
+     */
+    public V load(K key) {
+        return batcher.submit(key);
+    }
+
+    /**
+     * Get the number of keys loaded.
+     *
+     * @return The number of loads
+     */
+    public long getLoads() {
+        return batcher.getItems();
+    }
+
+    /**
+     * Get the number of batches run.
+     *
+     * @return The number of loader calls
+     */
+    public long getBatches() {
+        return batcher.getBatches();
+    }
+
+    // Identical keys in one batch are loaded once
+    private static <K, V> void load(Function<Collection<K>, Map<K, V>> loader, List<K> keys,
+                                    List<CompletableFuture<V>> results) {
+        Map<K, V> values = loader.apply(new LinkedHashSet<>(keys));
+        for (int i = 0; i < keys.size(); i++) {
+            results.get(i).complete(values.get(keys.get(i)));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.userservice.common.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limits per request class.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Value of the Retry-After header on rejected requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Limit read = new Limit(40, 8, 400);
+
+    private Limit write = new Limit(20, 4, 200);
+
+    private Limit bulk = new Limit(4, 1, 20);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        private int initial;
+        private int min;
+        private int max;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.example.userservice.common.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects concurrent single-item calls into batches handled together.
+ * <p>
+ * The batch window adapts to load: while fewer than {@code maxConcurrentBatches} batches are running, an
+ * item is dispatched immediately on the caller's thread, so an idle batcher adds no latency. Once that many
+ * batches are in flight, items queue up in a pending batch that is dispatched as soon as a running batch
+ * frees its slot, it reaches {@code maxBatchSize} items, or one of its callers has waited {@code maxWait},
+ * whichever comes first. Batches only run on the thread of one of their own callers: a freed slot is handed
+ * to the pending batch and claimed by exactly one of its waiting callers, so a caller never runs more than
+ * the batch its own item is in.
+ *
+ * @param <T> The item type
+ * @param <R> The result type
+ */
+public class MicroBatcher<T, R> {
+
+    /**
+     * Handles a batch by completing the result of every item, each with its value or its own failure.
+     *
+     * @param <T> The item type
+     * @param <R> The result type
+     */
+    @FunctionalInterface
+    public interface Handler<T, R> {
+
+        void handle(List<T> items, List<CompletableFuture<R>> results);
+    }
+
+    private final Handler<T, R> handler;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final int maxConcurrentBatches;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private Batch<T, R> pending;
+    private int running;
+
+    /**
+     * Create a batcher.
+     *
+     * @param handler Handles each batch
+     * @param maxBatchSize The number of items that dispatches a pending batch at once
+     * @param maxWaitNanos The longest an item waits in a pending batch
+     * @param maxConcurrentBatches The number of batches that may run before items start to queue
+     */
+    public MicroBatcher(Handler<T, R> handler, int maxBatchSize, long maxWaitNanos, int maxConcurrentBatches) {
+        this.handler = handler;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWaitNanos;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    /**
+     * Submit an item and wait for its result, sharing a batch with concurrent submissions.
+     *
+     * @param item The item
+     * @return The result the handler gave the item
+     */
+    public R submit(T item) {
+        items.increment();
+        Batch<T, R> batch;
+        CompletableFuture<R> result;
+        Batch<T, R> dispatch = null;
+        lock.lock();
+        try {
+            if (pending == null) {
+                pending = new Batch<>();
+            }
+            batch = pending;
+            result = batch.add(item);
+            if (running < maxConcurrentBatches || batch.size() >= maxBatchSize) {
+                dispatch = takePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (dispatch != null) {
+            run(dispatch);
+            return Futures.join(result);
+        }
+
+        try {
+            CompletableFuture.anyOf(result, batch.handedOff).get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The window closed while every slot was busy; dispatch the batch ourselves
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            return Futures.join(result);
+        }
+        if (result.isDone()) {
+            return Futures.join(result);
+        }
+        lock.lock();
+        try {
+            if (pending == batch) {
+                dispatch = takePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (dispatch != null || batch.claim()) {
+            run(batch);
+        }
+        return Futures.join(result);
+    }
+
+    /**
+     * Get the number of items submitted.
+     *
+     * @return The number of items
+     */
+    public long getItems() {
+        return items.sum();
+    }
+
+    /**
+     * Get the number of batches run.
+     *
+     * @return The number of handler calls
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    private Batch<T, R> takePending() {
+        Batch<T, R> batch = pending;
+        pending = null;
+        running++;
+        return batch;
+    }
+
+    private void run(Batch<T, R> batch) {
+        batches.increment();
+        try {
+            handler.handle(batch.items, batch.results);
+            batch.failIncomplete(new IllegalStateException("Batch handler left an item without a result"));
+        } catch (RuntimeException | Error e) {
+            batch.failIncomplete(e);
+        } finally {
+            Batch<T, R> next = null;
+            lock.lock();
+            try {
+                running--;
+                if (pending != null) {
+                    next = takePending();
+                }
+            } finally {
+                lock.unlock();
+            }
+            // The slot goes to the pending batch, which one of its own callers runs
+            if (next != null) {
+                next.handedOff.complete(null);
+            }
+        }
+    }
+
+    private static final class Batch<T, R> {
+
+        private final List<T> items = new ArrayList<>();
+        private final List<CompletableFuture<R>> results = new ArrayList<>();
+        private final CompletableFuture<Void> handedOff = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        CompletableFuture<R> add(T item) {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            items.add(item);
+            results.add(result);
+            return result;
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        // Only one of the callers woken by a handed-off slot runs the batch
+        boolean claim() {
+            return handedOff.isDone() && claimed.compareAndSet(false, true);
+        }
+
+        void failIncomplete(Throwable failure) {
+            results.forEach(result -> result.completeExceptionally(failure));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.example.userservice.common.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+
+/**
+ * Classes of API requests that get separate concurrency limits, so a burst of expensive
+ * listings cannot starve point reads and writes.
+ */
+public enum RequestClass {
+
+    READ,
+    WRITE,
+    BULK;
+
+    private static final String USERS_PATH = "/api/v1/users";
+
+    /**
+     * Classify a request to the user API.
+     *
+     * @param request The request
+     * @return The request class
+     */
+    public static RequestClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            // Batch writes touch up to thousands of users per request
+            return path.startsWith(USERS_PATH + "/batch") ? BULK : WRITE;
+        }
+        if (path.equals(USERS_PATH) || path.equals(USERS_PATH + "/")) {
+            // Without an email filter this lists the whole collection
+            return StringUtils.hasText(request.getParameter("email")) ? READ : BULK;
+        }
+        if (path.equals(USERS_PATH + "/count") && "true".equalsIgnoreCase(request.getParameter("exact"))) {
+            return BULK;
+        }
+        if (path.equals(USERS_PATH + "/changes")) {
+            // Sync pages read up to a thousand documents from the primary
+            return BULK;
+        }
+        return READ;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.userservice.common.concurrency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution. The first caller runs the supplier;
+ * callers arriving while it is in flight wait for and share its result or exception. Nothing is cached:
+ * once the call completes the next caller starts a fresh one.
+ * <p>
+ * In-flight calls live in a {@link ConcurrentHashMap}, which only locks the bin of the key being
+ * inserted, so calls for distinct keys never contend.
+ *
+ * @param <K> The key type
+ * @param <V> The result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Run the supplier for the key, or join the call already in flight for it.
+     *
+     * @param key The key identifying identical calls
+     * @param supplier Produces the result
+     * @return The result
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        calls.increment();
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return Futures.join(existing);
+        }
+
+        try {
+            V result = supplier.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Get the number of calls made.
+     *
+     * @return The number of calls, coalesced or not
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the number of calls that shared another call's execution.
+     *
+     * @return The number of coalesced calls
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+}
\ No newline at end of file
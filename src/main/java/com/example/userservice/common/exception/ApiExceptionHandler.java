@@ -0,0 +1,156 @@
+package com.example.userservice.common.exception;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Turns the expected API exceptions into problem+json responses.
+ * <p>
+ * Without it, each of them went through {@code sendError} and a second dispatch to Boot's error
+ * controller, which built and serialized a map per response. Here the response is written directly:
+ * bodies that do not depend on the exception are encoded once at startup, and the others only append
+ * the escaped message. Each error type is counted as {@code user.errors}.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler implements MeterBinder {
+
+    /**
+     * The error types, each with its response template.
+     */
+    enum ErrorType {
+        NOT_FOUND(HttpStatus.NOT_FOUND, "Resource not found"),
+        CONFLICT(HttpStatus.CONFLICT, "Resource already exists"),
+        VALIDATION(HttpStatus.BAD_REQUEST, "Request validation failed"),
+        BAD_REQUEST(HttpStatus.BAD_REQUEST, null),
+        GONE(HttpStatus.GONE, null),
+        UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, null);
+
+        private final HttpStatus status;
+        private final byte[] body;
+        private final String prefix;
+
+        // A null detail means the exception message is the detail, appended to the prefix per response
+        ErrorType(HttpStatus status, String detail) {
+            this.status = status;
+            this.prefix = "{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase() + "\",\"status\":"
+                    + status.value() + ",\"detail\":\"";
+            this.body = detail == null ? null : (prefix + detail + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] body(String message) {
+            if (body != null) {
+                return body;
+            }
+            return (prefix + escape(message) + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final Map<ErrorType, LongAdder> counts = new EnumMap<>(ErrorType.class);
+
+    public ApiExceptionHandler() {
+        for (ErrorType type : ErrorType.values()) {
+            counts.put(type, new LongAdder());
+        }
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public void handleNotFound(ResourceNotFoundException e, HttpServletResponse response) throws IOException {
+        write(response, ErrorType.NOT_FOUND, null);
+    }
+
+    @ExceptionHandler(DuplicateResourceException.class)
+    public void handleDuplicate(DuplicateResourceException e, HttpServletResponse response) throws IOException {
+        write(response, ErrorType.CONFLICT, null);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public void handleInvalid(MethodArgumentNotValidException e, HttpServletResponse response) throws IOException {
+        write(response, ErrorType.VALIDATION, null);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public void handleBadRequest(BadRequestException e, HttpServletResponse response) throws IOException {
+        write(response, ErrorType.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(ResourceGoneException.class)
+    public void handleGone(ResourceGoneException e, HttpServletResponse response) throws IOException {
+        write(response, ErrorType.GONE, e.getMessage());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public void handleUnavailable(ServiceUnavailableException e, HttpServletResponse response) throws IOException {
+        write(response, ErrorType.UNAVAILABLE, e.getMessage());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ErrorType type : ErrorType.values()) {
+            FunctionCounter.builder("user.errors", counts.get(type), LongAdder::sum)
+                    .description("API requests answered with an error")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Get the number of responses written for an error type.
+     *
+     * @param type The error type
+     * @return The count since startup
+     */
+    long getCount(ErrorType type) {
+        return counts.get(type).sum();
+    }
+
+    private void write(HttpServletResponse response, ErrorType type, String message) throws IOException {
+        counts.get(type).increment();
+        byte[] body = type.body(message);
+        response.setStatus(type.status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                if (escaped != null) {
+                    escaped.append(c);
+                }
+                continue;
+            }
+            if (escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> escaped.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
\ No newline at end of file
@@ -8,13 +8,32 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * Will result in HTTP 409 Conflict response.
  */
 @ResponseStatus(HttpStatus.CONFLICT)
-public class DuplicateResourceException extends RuntimeException {
+public class DuplicateResourceException extends StacklessException {
+
+    private final String resourceType;
+    private final String fieldName;
+    private final Object fieldValue;
 
     public DuplicateResourceException(String message) {
         super(message);
+        this.resourceType = null;
+        this.fieldName = null;
+        this.fieldValue = null;
     }
 
     public DuplicateResourceException(String resourceType, String fieldName, Object fieldValue) {
-        super(String.format("%s already exists with %s: '%s'", resourceType, fieldName, fieldValue));
+        super(null);
+        this.resourceType = resourceType;
+        this.fieldName = fieldName;
+        this.fieldValue = fieldValue;
+    }
+
+    // Built on demand: the response body does not include it, so most throws never need it
+    @Override
+    public String getMessage() {
+        if (resourceType == null) {
+            return super.getMessage();
+        }
+        return resourceType + " already exists with " + fieldName + ": '" + fieldValue + "'";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the state a request refers to is no longer retained.
+ * Will result in HTTP 410 Gone response.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class ResourceGoneException extends StacklessException {
+
+    public ResourceGoneException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
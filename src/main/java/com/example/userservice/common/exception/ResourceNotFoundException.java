@@ -8,13 +8,32 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * Will result in HTTP 404 Not Found response.
  */
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends StacklessException {
+
+    private final String resourceType;
+    private final String fieldName;
+    private final Object fieldValue;
 
     public ResourceNotFoundException(String message) {
         super(message);
+        this.resourceType = null;
+        this.fieldName = null;
+        this.fieldValue = null;
     }
 
     public ResourceNotFoundException(String resourceType, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s: '%s'", resourceType, fieldName, fieldValue));
+        super(null);
+        this.resourceType = resourceType;
+        this.fieldName = fieldName;
+        this.fieldValue = fieldValue;
+    }
+
+    // Built on demand: the response body does not include it, so most throws never need it
+    @Override
+    public String getMessage() {
+        if (resourceType == null) {
+            return super.getMessage();
+        }
+        return resourceType + " not found with " + fieldName + ": '" + fieldValue + "'";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request cannot be served right now but may succeed later.
+ * Will result in HTTP 503 Service Unavailable response.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends StacklessException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.userservice.common.exception;
+
+/**
+ * Base for exceptions that signal an expected outcome, such as a missing resource, rather than a bug.
+ * They are thrown on hot paths and turned into a response by {@link ApiExceptionHandler}, so they skip
+ * capturing a stack trace, which is most of the cost of a throw and never looked at.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
\ No newline at end of file
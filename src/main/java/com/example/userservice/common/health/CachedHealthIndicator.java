@@ -0,0 +1,81 @@
+package com.example.userservice.common.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a health indicator in the background at a fixed interval and answers every probe from its last
+ * result, so frequent probes neither send commands to the checked system nor wait on it. A result older
+ * than the maximum age, because checks hang or the scheduler stopped, is reported as down.
+ */
+@Slf4j
+public class CachedHealthIndicator implements HealthIndicator, DisposableBean {
+
+    private final HealthIndicator delegate;
+    private final Duration maxAge;
+    private final ScheduledExecutorService scheduler;
+    private volatile Result last;
+
+    public CachedHealthIndicator(String name, HealthIndicator delegate, Duration interval, Duration maxAge) {
+        this.delegate = delegate;
+        this.maxAge = maxAge;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name(name + "-health").daemon().factory());
+        // Fixed delay: a slow check postpones the next one rather than piling up behind it
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Health health() {
+        Result result = last;
+        if (result == null) {
+            return Health.unknown().withDetail("status", "not checked yet").build();
+        }
+        if (Duration.between(result.checkedAt, Instant.now()).compareTo(maxAge) > 0) {
+            return Health.down()
+                    .withDetail("status", "stale")
+                    .withDetail("checkedAt", result.checkedAt.toString())
+                    .build();
+        }
+        return Health.status(result.health.getStatus())
+                .withDetails(result.health.getDetails())
+                .withDetail("checkedAt", result.checkedAt.toString())
+                .build();
+    }
+
+    /**
+     * Run the check now and cache its result.
+     */
+    public void refresh() {
+        Health health;
+        try {
+            health = delegate.health();
+        } catch (RuntimeException e) {
+            health = Health.down(e).build();
+        }
+        Result previous = last;
+        if (previous != null && !previous.health.getStatus().equals(health.getStatus())) {
+            log.warn("Health changed from {} to {}", previous.health.getStatus(), health.getStatus());
+        } else if (previous == null && !Status.UP.equals(health.getStatus())) {
+            log.warn("Health is {}", health.getStatus());
+        }
+        last = new Result(health, Instant.now());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private record Result(Health health, Instant checkedAt) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.userservice.common.health;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How often the MongoDB health check runs in the background, and how old its result may get.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.health.mongo")
+public class CachedHealthProperties {
+
+    /**
+     * Delay between the end of one check and the start of the next.
+     */
+    private Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * Age after which the last result is no longer trusted and the check reports down.
+     */
+    private Duration maxAge = Duration.ofSeconds(30);
+}
\ No newline at end of file
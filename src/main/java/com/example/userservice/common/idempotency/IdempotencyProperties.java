@@ -0,0 +1,44 @@
+package com.example.userservice.common.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for POST requests.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether POST requests carrying an Idempotency-Key header are deduplicated.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a key and its stored response are kept; retries after that run again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long after it started an unfinished attempt is presumed lost, so a retry may take over its key.
+     */
+    private Duration lockTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Longest a duplicate request waits for the attempt in progress before answering 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long completed responses are also kept in memory, so replays skip the database.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of completed responses kept in memory.
+     */
+    private int cacheSize = 10_000;
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.userservice.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * An idempotency key with the outcome of the request that first used it. Records are removed by a TTL
+ * index once {@code expiresAt} has passed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    /**
+     * The key, scoped to the request path.
+     */
+    @Id
+    private String key;
+
+    /**
+     * Hash of the request body, so a key reused for a different request is refused.
+     */
+    private String fingerprint;
+
+    /**
+     * Identifies the attempt holding the claim. Only that attempt may complete or release the key, so an
+     * attempt whose claim was taken over after the lock timeout can't overwrite its successor.
+     */
+    private String attemptId;
+
+    /**
+     * Whether the response below is final; false while the first attempt is still running.
+     */
+    private boolean completed;
+
+    private int status;
+
+    private Map<String, String> headers;
+
+    private byte[] body;
+
+    private Instant startedAt;
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s")
+    private Instant expiresAt;
+
+    public static IdempotencyRecord pending(String key, String fingerprint, String attemptId, Instant now,
+                                            Instant expiresAt) {
+        return new IdempotencyRecord(key, fingerprint, attemptId, false, 0, null, null, now, expiresAt);
+    }
+}
\ No newline at end of file
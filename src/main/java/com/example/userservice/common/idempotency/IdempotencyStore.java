@@ -0,0 +1,130 @@
+package com.example.userservice.common.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Claims idempotency keys and stores the responses of their first request in MongoDB. The unique _id
+ * makes exactly one request, across all instances, the owner of a key, and the attempt ID stored with the
+ * claim keeps a request that lost its claim from completing or releasing it.
+ */
+public class IdempotencyStore {
+
+    private final MongoOperations mongoOperations;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    public IdempotencyStore(MongoOperations mongoOperations, IdempotencyProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.ttl = properties.getTtl();
+        this.lockTimeout = properties.getLockTimeout();
+    }
+
+    /**
+     * Outcome of trying to claim a key.
+     *
+     * @param attemptId The ID the caller must complete or release the key with, or null if it wasn't acquired
+     * @param existing The record of the current owner if the key was not acquired, or null if it vanished
+     *                 in the meantime and the claim should be retried
+     */
+    public record Acquisition(String attemptId, IdempotencyRecord existing) {
+
+        /**
+         * Check whether the caller now owns the key and must run the request.
+         *
+         * @return true if the key was acquired
+         */
+        public boolean acquired() {
+            return attemptId != null;
+        }
+    }
+
+    /**
+     * Claim a key for a request, unless another request holds it. An unfinished claim older than the lock
+     * timeout is taken over, since its owner has most likely died.
+     *
+     * @param key The scoped key
+     * @param fingerprint The hash of the request
+     * @return Whether the key was acquired, and otherwise its current record
+     */
+    public Acquisition acquire(String key, String fingerprint) {
+        Instant now = Instant.now();
+        String attemptId = UUID.randomUUID().toString();
+        try {
+            mongoOperations.insert(IdempotencyRecord.pending(key, fingerprint, attemptId, now, now.plus(ttl)));
+            return new Acquisition(attemptId, null);
+        } catch (DuplicateKeyException e) {
+            // Held by another request, or left behind by one that never finished
+        }
+
+        Query stale = new Query(Criteria.where("_id").is(key)
+                .and("completed").is(false)
+                .and("startedAt").lt(now.minus(lockTimeout)));
+        Update takeOver = new Update()
+                .set("fingerprint", fingerprint)
+                .set("attemptId", attemptId)
+                .set("startedAt", now)
+                .set("expiresAt", now.plus(ttl));
+        if (mongoOperations.updateFirst(stale, takeOver, IdempotencyRecord.class).getModifiedCount() > 0) {
+            return new Acquisition(attemptId, null);
+        }
+        return new Acquisition(null, find(key));
+    }
+
+    /**
+     * Get the current record of a key.
+     *
+     * @param key The scoped key
+     * @return The record, or null if the key is free
+     */
+    public IdempotencyRecord find(String key) {
+        return mongoOperations.findById(key, IdempotencyRecord.class);
+    }
+
+    /**
+     * Store the final response of the request owning a key.
+     *
+     * @param key The scoped key
+     * @param attemptId The ID the key was acquired with
+     * @param status The response status
+     * @param headers The response headers to replay
+     * @param body The response body
+     * @return The completed record, or null if the claim was taken over and the response was not stored
+     */
+    public IdempotencyRecord complete(String key, String attemptId, int status, Map<String, String> headers,
+                                      byte[] body) {
+        Update complete = new Update()
+                .set("completed", true)
+                .set("status", status)
+                .set("headers", headers)
+                .set("body", body)
+                .set("expiresAt", Instant.now().plus(ttl))
+                .unset("attemptId");
+        return mongoOperations.findAndModify(claimedBy(key, attemptId), complete,
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class);
+    }
+
+    /**
+     * Give up a key whose request failed in a way worth retrying, so the next attempt runs again.
+     * Does nothing if the claim was taken over in the meantime.
+     *
+     * @param key The scoped key
+     * @param attemptId The ID the key was acquired with
+     */
+    public void release(String key, String attemptId) {
+        mongoOperations.remove(claimedBy(key, attemptId), IdempotencyRecord.class);
+    }
+
+    private static Query claimedBy(String key, String attemptId) {
+        return new Query(Criteria.where("_id").is(key).and("attemptId").is(attemptId).and("completed").is(false));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.userservice.common.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits of on-demand flight recordings started through the {@code jfr} endpoint.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.jfr")
+public class FlightRecordingProperties {
+
+    /**
+     * Built-in JFR configuration the recording starts from; {@code default} is the low-overhead profile.
+     */
+    private String profile = "default";
+
+    /**
+     * Length of a recording started without one; it stops on its own so a forgotten recording ends.
+     */
+    private Duration duration = Duration.ofMinutes(5);
+
+    /**
+     * Longest recording that may be requested.
+     */
+    private Duration maxDuration = Duration.ofMinutes(30);
+
+    /**
+     * Disk space the recording may use before its oldest data is dropped.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.userservice.common.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Runs one in-process flight recording at a time, so an incident can be profiled in place without attaching
+ * tools. Recordings use the configured profile, stop on their own after their duration and stay available
+ * for download until the next one starts.
+ */
+public class FlightRecordings implements DisposableBean {
+
+    private final FlightRecordingProperties properties;
+    private final Configuration configuration;
+    private Recording recording;
+
+    /**
+     * Recording state.
+     *
+     * @param state NEW, RUNNING, STOPPED or CLOSED, or NONE before the first recording
+     * @param startedAt When the recording started, null before it has
+     * @param duration How long the recording runs before it stops on its own
+     * @param size Bytes written so far, 0 while the data is still in memory
+     */
+    public record Status(String state, Instant startedAt, Duration duration, long size) {
+    }
+
+    public FlightRecordings(FlightRecordingProperties properties) {
+        this.properties = properties;
+        try {
+            this.configuration = Configuration.getConfiguration(properties.getProfile());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unknown JFR profile: " + properties.getProfile(), e);
+        }
+    }
+
+    /**
+     * Start a recording, replacing a finished one.
+     *
+     * @param duration How long to record, or null for the configured duration
+     * @return The state of the new recording
+     * @throws IllegalArgumentException if the duration is out of range
+     * @throws IllegalStateException if a recording is already running
+     */
+    public synchronized Status start(Duration duration) {
+        Duration length = duration != null ? duration : properties.getDuration();
+        if (length.isNegative() || length.isZero() || length.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("Duration must be positive and at most "
+                    + properties.getMaxDuration());
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        recording = new Recording(configuration);
+        recording.setName("user-service");
+        recording.setToDisk(true);
+        recording.setDuration(length);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.start();
+        return status();
+    }
+
+    /**
+     * Stop the running recording, keeping its data for download.
+     *
+     * @return The state of the recording
+     */
+    public synchronized Status stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    /**
+     * Get the state of the current recording.
+     *
+     * @return The state
+     */
+    public synchronized Status status() {
+        if (recording == null) {
+            return new Status("NONE", null, null, 0);
+        }
+        return new Status(recording.getState().name(), recording.getStartTime(), recording.getDuration(),
+                recording.getSize());
+    }
+
+    /**
+     * Write the data of the current recording to a new temporary file; a running recording keeps running.
+     *
+     * @return The file, which the caller deletes, or null if there is no recording with data
+     */
+    public synchronized Path dump() {
+        if (recording == null || recording.getState() == RecordingState.NEW
+                || recording.getState() == RecordingState.CLOSED) {
+            return null;
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile("user-service-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Left in the temporary directory
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.userservice.common.latency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolution and retention of the per-route latency histograms.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.latency")
+public class LatencyHistogramProperties {
+
+    /**
+     * Whether request latencies are recorded.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Length of one interval histogram; windows are reported over whole intervals.
+     */
+    private Duration interval = Duration.ofSeconds(10);
+
+    /**
+     * Rolling windows percentiles are reported over; the longest sets how many intervals are kept.
+     */
+    private List<Duration> windows = new ArrayList<>(List.of(Duration.ofMinutes(1), Duration.ofMinutes(5),
+            Duration.ofMinutes(15)));
+
+    /**
+     * Largest latency tracked; slower requests are recorded as this value.
+     */
+    private Duration highestTrackable = Duration.ofMinutes(1);
+
+    /**
+     * Decimal digits of precision kept for every value, from 1 to 5.
+     */
+    private int significantDigits = 2;
+}
\ No newline at end of file
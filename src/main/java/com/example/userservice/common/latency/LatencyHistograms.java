@@ -0,0 +1,290 @@
+package com.example.userservice.common.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpMethod;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+
+/**
+ * Request latency histograms per route, method and status class, for percentile SLOs that averages hide.
+ * <p>
+ * Requests record into an HdrHistogram {@link Recorder}, which is wait-free for writers; finding it takes
+ * only map reads once a route has been seen. Every interval the recorders are swapped out and the interval
+ * histogram is kept compressed, so the longest window costs a few hundred bytes per interval. Percentiles
+ * are computed on demand by merging the intervals of a window. Values are microseconds.
+ */
+public class LatencyHistograms implements DisposableBean {
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    // Clients choose the method token; anything else would add a histogram per token that is never evicted
+    private static final Set<String> METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
+    static final String OTHER_METHOD = "OTHER";
+
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+    private final List<Duration> windows;
+    private final long retentionMillis;
+    private final ConcurrentMap<String, ConcurrentMap<String, Route>> routes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Latency percentiles over one window, in milliseconds.
+     *
+     * @param count The number of requests
+     * @param p50 The median
+     * @param p90 The 90th percentile
+     * @param p99 The 99th percentile
+     * @param p999 The 99.9th percentile
+     * @param max The slowest request
+     */
+    public record Summary(long count, double p50, double p90, double p99, double p999, double max) {
+    }
+
+    public LatencyHistograms(LatencyHistogramProperties properties) {
+        this.highestTrackableMicros = properties.getHighestTrackable().toNanos() / 1_000;
+        this.significantDigits = properties.getSignificantDigits();
+        this.windows = properties.getWindows().stream().sorted().toList();
+        this.retentionMillis = windows.isEmpty() ? 0 : windows.get(windows.size() - 1).toMillis();
+        long intervalMillis = properties.getInterval().toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("latency-histograms").daemon().factory());
+        scheduler.scheduleAtFixedRate(this::rotate, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record the latency of a request.
+     *
+     * @param method The HTTP method, recorded as {@code OTHER} unless it is a standard one
+     * @param route The route pattern, not the raw path, so IDs don't create new histograms
+     * @param status The response status
+     * @param nanos The latency
+     */
+    public void record(String method, String route, int status, long nanos) {
+        int statusClass = status / 100 - 1;
+        if (statusClass < 0 || statusClass >= STATUS_CLASSES.length) {
+            return;
+        }
+        ConcurrentMap<String, Route> methods = routes.get(route);
+        if (methods == null) {
+            methods = routes.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+        }
+        String methodKey = METHODS.contains(method) ? method : OTHER_METHOD;
+        Route target = methods.get(methodKey);
+        if (target == null) {
+            target = methods.computeIfAbsent(methodKey, key -> new Route(key + " " + route));
+        }
+        long micros = Math.max(1, Math.min(nanos / 1_000, highestTrackableMicros));
+        target.series(statusClass).recorder.recordValue(micros);
+    }
+
+    /**
+     * Close the current interval of every histogram. Runs on the scheduler every interval.
+     */
+    public void rotate() {
+        long oldest = System.currentTimeMillis() - retentionMillis;
+        forEachSeries(series -> series.rotate(oldest));
+    }
+
+    /**
+     * Get percentiles over each window for every route, method and status class recorded.
+     *
+     * @return Summaries keyed by method and route, then status class, then window, e.g. {@code 1m}
+     */
+    public Map<String, Map<String, Map<String, Summary>>> summaries() {
+        long now = System.currentTimeMillis();
+        Map<String, Map<String, Map<String, Summary>>> result = new TreeMap<>();
+        forEachSeries(series -> {
+            List<Interval> intervals = series.intervals();
+            Map<String, Summary> byWindow = new LinkedHashMap<>();
+            for (Duration window : windows) {
+                Histogram merged = newHistogram();
+                for (Interval interval : intervals) {
+                    if (interval.endMillis() > now - window.toMillis()) {
+                        merged.add(decode(interval));
+                    }
+                }
+                byWindow.put(label(window), summarize(merged));
+            }
+            result.computeIfAbsent(series.route, route -> new TreeMap<>()).put(series.statusClass, byWindow);
+        });
+        return result;
+    }
+
+    /**
+     * Write every retained interval histogram in the HdrHistogram log format, oldest first. Each line is
+     * tagged with its method, route and status class, and timestamps are absolute, so logs from several
+     * instances can be merged with {@code HistogramLogProcessor} or {@code HistogramLogReader}.
+     *
+     * @param out The stream to write to, left open
+     */
+    public void writeLog(OutputStream out) {
+        List<TaggedInterval> tagged = new ArrayList<>();
+        forEachSeries(series -> series.intervals().forEach(interval -> tagged.add(
+                new TaggedInterval(series.tag, interval))));
+        tagged.sort(Comparator.comparingLong(entry -> entry.interval().startMillis()));
+
+        PrintStream stream = new PrintStream(out, false, StandardCharsets.UTF_8);
+        HistogramLogWriter writer = new HistogramLogWriter(stream);
+        writer.outputComment("[Request latency in microseconds from " + hostName() + "]");
+        writer.outputLogFormatVersion();
+        long startMillis = tagged.isEmpty() ? System.currentTimeMillis() : tagged.get(0).interval().startMillis();
+        writer.outputStartTime(startMillis);
+        writer.outputLegend();
+        for (TaggedInterval entry : tagged) {
+            Histogram histogram = decode(entry.interval());
+            histogram.setTag(entry.tag());
+            // Max column in milliseconds
+            writer.outputIntervalHistogram(entry.interval().startMillis() / 1000.0,
+                    entry.interval().endMillis() / 1000.0, histogram, 1000.0);
+        }
+        stream.flush();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void forEachSeries(Consumer<Series> action) {
+        routes.values().forEach(methods -> methods.values().forEach(route -> {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                Series series = route.byStatusClass.get(i);
+                if (series != null) {
+                    action.accept(series);
+                }
+            }
+        }));
+    }
+
+    private Histogram newHistogram() {
+        return new Histogram(1, highestTrackableMicros, significantDigits);
+    }
+
+    private Histogram decode(Interval interval) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(interval.compressed()),
+                    highestTrackableMicros);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt interval histogram", e);
+        }
+    }
+
+    private static Summary summarize(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0);
+        }
+        return new Summary(histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String label(Duration window) {
+        long seconds = window.toSeconds();
+        return seconds % 60 == 0 ? seconds / 60 + "m" : seconds + "s";
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown host";
+        }
+    }
+
+    private final class Route {
+
+        private final String route;
+        private final AtomicReferenceArray<Series> byStatusClass = new AtomicReferenceArray<>(STATUS_CLASSES.length);
+
+        Route(String route) {
+            this.route = route;
+        }
+
+        Series series(int statusClass) {
+            Series series = byStatusClass.get(statusClass);
+            if (series == null) {
+                byStatusClass.compareAndSet(statusClass, null, new Series(route, STATUS_CLASSES[statusClass]));
+                series = byStatusClass.get(statusClass);
+            }
+            return series;
+        }
+    }
+
+    private final class Series {
+
+        private final String route;
+        private final String statusClass;
+        // Log tags may not contain whitespace or commas
+        private final String tag;
+        private final Recorder recorder = new Recorder(1, highestTrackableMicros, significantDigits);
+        private final ArrayDeque<Interval> intervals = new ArrayDeque<>();
+        private Histogram recycled;
+
+        Series(String route, String statusClass) {
+            this.route = route;
+            this.statusClass = statusClass;
+            this.tag = (route + " " + statusClass).replace(' ', ':').replace(',', ';');
+        }
+
+        synchronized void rotate(long oldestMillis) {
+            Histogram histogram = recycled != null ? recorder.getIntervalHistogram(recycled)
+                    : recorder.getIntervalHistogram();
+            recycled = histogram;
+            if (histogram.getTotalCount() > 0) {
+                ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+                int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+                intervals.addLast(new Interval(histogram.getStartTimeStamp(), histogram.getEndTimeStamp(),
+                        Arrays.copyOf(buffer.array(), length)));
+            }
+            while (!intervals.isEmpty() && intervals.peekFirst().endMillis() <= oldestMillis) {
+                intervals.removeFirst();
+            }
+        }
+
+        synchronized List<Interval> intervals() {
+            return List.copyOf(intervals);
+        }
+    }
+
+    private record Interval(long startMillis, long endMillis, byte[] compressed) {
+    }
+
+    private record TaggedInterval(String tag, Interval interval) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.userservice.common.mongo;
+
+import java.util.function.Consumer;
+
+/**
+ * Per-request holder for the causal session token. The web layer opens it with the token the client sent
+ * and a sink that returns updated tokens to the client; the repository layer reads and advances it.
+ */
+public final class CausalSessionContext {
+
+    private static final ThreadLocal<CausalSessionContext> CURRENT = new ThreadLocal<>();
+
+    private final Consumer<String> tokenSink;
+    private CausalSessionToken token;
+
+    private CausalSessionContext(CausalSessionToken token, Consumer<String> tokenSink) {
+        this.token = token;
+        this.tokenSink = tokenSink;
+    }
+
+    /**
+     * Open a context for the current thread.
+     *
+     * @param token The token received from the client, may be null
+     * @param tokenSink Receives the encoded token after each write
+     */
+    public static void open(CausalSessionToken token, Consumer<String> tokenSink) {
+        CURRENT.set(new CausalSessionContext(token, tokenSink));
+    }
+
+    /**
+     * Close the context of the current thread.
+     */
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Get the context of the current thread.
+     *
+     * @return The context, or null outside of a request
+     */
+    public static CausalSessionContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Check whether the current request carries a token that reads must honour.
+     *
+     * @return true if reads on this thread must observe an earlier write
+     */
+    public static boolean hasToken() {
+        CausalSessionContext context = CURRENT.get();
+        return context != null && context.token != null;
+    }
+
+    public CausalSessionToken getToken() {
+        return token;
+    }
+
+    /**
+     * Record the token of a completed write and hand it to the client.
+     *
+     * @param newToken The token observed after the write, ignored if null
+     */
+    public void advance(CausalSessionToken newToken) {
+        if (newToken == null) {
+            return;
+        }
+        token = newToken;
+        tokenSink.accept(newToken.encode());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Runs Mongo operations inside causally consistent client sessions when the current request
+ * takes part in read-your-writes, and directly on the template otherwise.
+ */
+@Component
+@RequiredArgsConstructor
+public class CausalSessionExecutor {
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoReadRoutingProperties properties;
+
+    /**
+     * Run a read. A session is only started when the client sent a token to wait for.
+     *
+     * @param action The read to run
+     * @param <T> The result type
+     * @return The result of the read
+     */
+    public <T> T executeRead(Function<MongoOperations, T> action) {
+        if (!properties.isCausalConsistency() || !CausalSessionContext.hasToken()) {
+            return action.apply(mongoTemplate);
+        }
+        return executeInSession(CausalSessionContext.current(), action);
+    }
+
+    /**
+     * Run a write. Inside a request a session is started so its operation time can be returned to the client.
+     *
+     * @param action The write to run
+     * @param <T> The result type
+     * @return The result of the write
+     */
+    public <T> T executeWrite(Function<MongoOperations, T> action) {
+        CausalSessionContext context = CausalSessionContext.current();
+        if (!properties.isCausalConsistency() || context == null) {
+            return action.apply(mongoTemplate);
+        }
+        return executeInSession(context, action);
+    }
+
+    private <T> T executeInSession(CausalSessionContext context, Function<MongoOperations, T> action) {
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL)) {
+            CausalSessionToken token = context.getToken();
+            if (token != null) {
+                if (token.clusterTime() != null) {
+                    session.advanceClusterTime(token.clusterTime());
+                }
+                session.advanceOperationTime(token.operationTime());
+            }
+            T result = action.apply(mongoTemplate.withSession(session));
+            context.advance(CausalSessionToken.from(session));
+            return result;
+        }
+    }
+}
\ No newline at end of file
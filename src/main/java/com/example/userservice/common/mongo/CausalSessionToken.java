@@ -0,0 +1,72 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.session.ClientSession;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+
+import java.util.Base64;
+
+/**
+ * Operation and cluster time of a client's last write, carried between requests so that
+ * later reads on a secondary wait until that write is visible.
+ * Encoded as URL-safe Base64 of a small BSON document.
+ */
+public record CausalSessionToken(BsonTimestamp operationTime, BsonDocument clusterTime) {
+
+    private static final String OPERATION_TIME = "operationTime";
+    private static final String CLUSTER_TIME = "clusterTime";
+
+    /**
+     * Capture the token of a session after it has executed an operation.
+     *
+     * @param session The session
+     * @return The token, or null if the session has not observed an operation time yet
+     */
+    public static CausalSessionToken from(ClientSession session) {
+        if (session.getOperationTime() == null) {
+            return null;
+        }
+        return new CausalSessionToken(session.getOperationTime(), session.getClusterTime());
+    }
+
+    /**
+     * Decode a token received from a client.
+     *
+     * @param value The encoded token
+     * @return The token, or null if the value is missing or malformed
+     */
+    public static CausalSessionToken decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            RawBsonDocument document = new RawBsonDocument(Base64.getUrlDecoder().decode(value));
+            if (!document.isTimestamp(OPERATION_TIME)) {
+                return null;
+            }
+            BsonDocument clusterTime = document.isDocument(CLUSTER_TIME) ? document.getDocument(CLUSTER_TIME) : null;
+            return new CausalSessionToken(document.getTimestamp(OPERATION_TIME), clusterTime);
+        } catch (RuntimeException e) {
+            // Tokens are advisory: a garbled one only costs read-your-writes, never the request
+            return null;
+        }
+    }
+
+    /**
+     * Encode the token for a response header.
+     *
+     * @return The encoded token
+     */
+    public String encode() {
+        BsonDocument document = new BsonDocument(OPERATION_TIME, operationTime);
+        if (clusterTime != null) {
+            document.append(CLUSTER_TIME, clusterTime);
+        }
+        RawBsonDocument raw = new RawBsonDocument(document, new BsonDocumentCodec());
+        byte[] bytes = new byte[raw.getByteBuffer().remaining()];
+        raw.getByteBuffer().get(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
\ No newline at end of file
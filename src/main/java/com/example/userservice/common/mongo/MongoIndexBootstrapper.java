@@ -0,0 +1,111 @@
+package com.example.userservice.common.mongo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Creates the indexes declared on mapped documents in the background once the application has started,
+ * instead of during context refresh as {@code auto-index-creation} does. Failed attempts are retried with
+ * backoff; until every index is confirmed the readiness probe reports the service out of service.
+ */
+@Component
+@Slf4j
+public class MongoIndexBootstrapper {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    private volatile boolean ready;
+    private volatile int indexes;
+    private volatile String lastError;
+
+    public MongoIndexBootstrapper(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    /**
+     * Start creating indexes once the application is ready, without delaying startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createInBackground() {
+        Thread.ofVirtual().name("mongo-index-bootstrapper").start(this::createWithRetry);
+    }
+
+    private void createWithRetry() {
+        Duration backoff = INITIAL_BACKOFF;
+        while (true) {
+            try {
+                createIndexes();
+                return;
+            } catch (RuntimeException e) {
+                lastError = e.getMessage();
+                log.warn("Failed to create MongoDB indexes, retrying in {}", backoff, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2);
+            if (backoff.compareTo(MAX_BACKOFF) > 0) {
+                backoff = MAX_BACKOFF;
+            }
+        }
+    }
+
+    /**
+     * Create every index declared on mapped documents. Existing identical indexes are left untouched.
+     */
+    public void createIndexes() {
+        long started = System.nanoTime();
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        int created = 0;
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOperations = mongoTemplate.indexOps(entity.getType());
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                indexOperations.ensureIndex(definition);
+                created++;
+            }
+        }
+        indexes = created;
+        lastError = null;
+        ready = true;
+        log.info("Confirmed {} MongoDB indexes in {} ms", created, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Check whether every declared index has been confirmed.
+     *
+     * @return true once index creation has succeeded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getIndexes() {
+        return indexes;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.userservice.common.mongo;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the service out of service until the index bootstrapper has confirmed every index,
+ * so the readiness probe holds traffic back from queries that would otherwise scan the collection.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoIndexesHealthIndicator implements HealthIndicator {
+
+    private final MongoIndexBootstrapper bootstrapper;
+
+    @Override
+    public Health health() {
+        if (bootstrapper.isReady()) {
+            return Health.up().withDetail("indexes", bootstrapper.getIndexes()).build();
+        }
+        Health.Builder builder = Health.outOfService().withDetail("status", "creating indexes");
+        if (bootstrapper.getLastError() != null) {
+            builder.withDetail("lastError", bootstrapper.getLastError());
+        }
+        return builder.build();
+    }
+}
\ No newline at end of file
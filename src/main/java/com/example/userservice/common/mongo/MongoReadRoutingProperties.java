@@ -0,0 +1,68 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.ReadPreference;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read preference per {@link ReadOperation} class, plus the causal consistency switch.
+ * Modes use the driver names (primary, primaryPreferred, secondary, secondaryPreferred, nearest).
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.mongodb.read-routing")
+public class MongoReadRoutingProperties {
+
+    /**
+     * Whether requests carrying a session token read their own writes through causally consistent sessions.
+     */
+    private boolean causalConsistency = true;
+
+    private Route point = new Route();
+
+    private Route listing = new Route();
+
+    private Route export = new Route();
+
+    /**
+     * Get the route configured for an operation class.
+     *
+     * @param operation The read operation class
+     * @return The configured route
+     */
+    public Route route(ReadOperation operation) {
+        return switch (operation) {
+            case POINT -> point;
+            case LISTING -> listing;
+            case EXPORT -> export;
+        };
+    }
+
+    @Data
+    public static class Route {
+
+        private String mode = "primary";
+
+        /**
+         * Maximum replication lag tolerated for secondary reads. The driver requires at least 90 seconds.
+         */
+        private Long maxStalenessSeconds;
+
+        /**
+         * Build the driver read preference for this route.
+         *
+         * @return The read preference
+         */
+        public ReadPreference toReadPreference() {
+            if ("primary".equalsIgnoreCase(mode)) {
+                return ReadPreference.primary();
+            }
+            if (maxStalenessSeconds == null) {
+                return ReadPreference.valueOf(mode);
+            }
+            return ReadPreference.valueOf(mode, List.of(), maxStalenessSeconds, TimeUnit.SECONDS);
+        }
+    }
+}
\ No newline at end of file
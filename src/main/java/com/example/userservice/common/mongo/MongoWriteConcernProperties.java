@@ -0,0 +1,70 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.WriteConcern;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named write concern profiles and the repository operations bound to them.
+ * Operations without a binding keep the client default write concern. Bulk writes are not resolved per
+ * operation, so they take their profile from a {@link WriteConcernScope}.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.mongodb.write-concerns")
+public class MongoWriteConcernProperties {
+
+    /**
+     * Write concern profiles by name.
+     */
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    /**
+     * Profile name per template operation, for example save to interactive and insert-list to bulk.
+     * The template never resolves bulk, so it can't be bound.
+     */
+    private Map<MongoActionOperation, String> operations = new EnumMap<>(MongoActionOperation.class);
+
+    @Data
+    public static class Profile {
+
+        /**
+         * Acknowledgement requirement: a member count such as 1, or a tag set name such as majority.
+         */
+        private String w = "majority";
+
+        /**
+         * Whether the write must reach the on-disk journal before it is acknowledged.
+         */
+        private Boolean journal;
+
+        private Duration wtimeout;
+
+        /**
+         * Build the driver write concern for this profile.
+         *
+         * @return The write concern
+         */
+        public WriteConcern toWriteConcern() {
+            if (w == null || w.isBlank()) {
+                throw new IllegalArgumentException("w must be a member count or a tag set name");
+            }
+            WriteConcern writeConcern = w.chars().allMatch(Character::isDigit)
+                    ? new WriteConcern(Integer.parseInt(w))
+                    : new WriteConcern(w);
+            if (journal != null) {
+                writeConcern = writeConcern.withJournal(journal);
+            }
+            if (wtimeout != null) {
+                writeConcern = writeConcern.withWTimeout(wtimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return writeConcern;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.userservice.common.mongo;
+
+import org.bson.types.ObjectId;
+
+import java.util.Arrays;
+
+/**
+ * Parses ObjectIds from client input without exceptions. {@code new ObjectId(String)} validates with
+ * {@code ObjectId.isValid} and throws an {@link IllegalArgumentException}, with its stack trace, for every
+ * malformed value; here each character is checked with one table lookup and bad input yields null.
+ */
+public final class ObjectIds {
+
+    private static final int HEX_LENGTH = 24;
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            DIGITS['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DIGITS['a' + i] = (byte) (10 + i);
+            DIGITS['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private ObjectIds() {
+    }
+
+    /**
+     * Parse a hex ObjectId.
+     *
+     * @param value The 24 hex characters, in either case
+     * @return The ObjectId, or null if the value is null or malformed
+     */
+    public static ObjectId parse(String value) {
+        if (value == null || value.length() != HEX_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[HEX_LENGTH / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = digit(value.charAt(2 * i));
+            int low = digit(value.charAt(2 * i + 1));
+            if ((high | low) < 0) {
+                return null;
+            }
+            bytes[i] = (byte) (high << 4 | low);
+        }
+        return new ObjectId(bytes);
+    }
+
+    private static int digit(char c) {
+        return c < DIGITS.length ? DIGITS[c] : -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.example.userservice.common.mongo;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The winning plan of a query and what executing it cost.
+ *
+ * @param name The query name
+ * @param stages The plan stages, outermost first
+ * @param indexes The indexes the plan scans
+ * @param returned The number of documents returned
+ * @param keysExamined The number of index keys examined
+ * @param docsExamined The number of documents examined
+ */
+public record QueryPlan(String name, List<String> stages, List<String> indexes, long returned, long keysExamined,
+                        long docsExamined) {
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+    private static final String BLOCKING_SORT = "SORT";
+
+    /**
+     * Read a plan from the output of {@code explain} with {@code executionStats} verbosity.
+     *
+     * @param name The query name
+     * @param explain The explain output
+     * @return The plan
+     */
+    public static QueryPlan from(String name, Document explain) {
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        collect(queryPlanner.get("winningPlan", Document.class), stages, indexes);
+        Document stats = explain.get("executionStats", Document.class);
+        return new QueryPlan(name, stages, indexes, number(stats, "nReturned"), number(stats, "totalKeysExamined"),
+                number(stats, "totalDocsExamined"));
+    }
+
+    /**
+     * Check whether the plan reads the whole collection.
+     *
+     * @return true if any stage is a collection scan
+     */
+    public boolean isCollectionScan() {
+        return stages.contains(COLLECTION_SCAN);
+    }
+
+    /**
+     * Check whether the plan sorts in memory instead of reading an index in order.
+     *
+     * @return true if any stage is a blocking sort
+     */
+    public boolean isBlockingSort() {
+        return stages.contains(BLOCKING_SORT);
+    }
+
+    /**
+     * Check whether the plan examines no more than a fixed number of keys and documents per document returned.
+     * A blocking sort never passes: it reads every match before returning the first, however few match today.
+     *
+     * @param maxExaminedPerReturned The allowed keys or documents examined per document returned
+     * @return true if the plan stays within the budget
+     */
+    public boolean isSelective(int maxExaminedPerReturned) {
+        if (isBlockingSort()) {
+            return false;
+        }
+        long budget = (long) maxExaminedPerReturned * Math.max(returned, 1);
+        // An index scan examines one key past the last match to find the end of its range
+        return docsExamined <= budget && keysExamined <= budget + 1;
+    }
+
+    // Walk the plan tree; classic plans nest inputStage(s), slot-based plans wrap them in queryPlan
+    private static void collect(Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String index) {
+                indexes.add(index);
+            }
+            document.values().forEach(value -> collect(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collect(value, stages, indexes));
+        }
+    }
+
+    private static long number(Document document, String key) {
+        return document.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Explains template queries with execution statistics, mapping them the same way the template does
+ * before they are sent.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryPlanExplainer {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Run a query with {@code explain} and read its winning plan.
+     *
+     * @param name The name to report the plan under
+     * @param entityClass The mapped entity the query targets
+     * @param query The query
+     * @return The plan and its execution statistics
+     */
+    public QueryPlan explain(String name, Class<?> entityClass, Query query) {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(entityClass);
+
+        FindIterable<Document> find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass))
+                .find(mapper.getMappedObject(query.getQueryObject(), entity))
+                .projection(mapper.getMappedFields(query.getFieldsObject(), entity))
+                .sort(mapper.getMappedSort(query.getSortObject(), entity));
+        if (query.isLimited()) {
+            find.limit(query.getLimit());
+        }
+        return QueryPlan.from(name, find.explain(ExplainVerbosity.EXECUTION_STATS));
+    }
+}
\ No newline at end of file
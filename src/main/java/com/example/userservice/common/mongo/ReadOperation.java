@@ -0,0 +1,22 @@
+package com.example.userservice.common.mongo;
+
+/**
+ * Classes of read operations that can be routed to different replica set members.
+ */
+public enum ReadOperation {
+
+    /**
+     * Single-document lookups such as by ID or by email.
+     */
+    POINT,
+
+    /**
+     * Listing and searching over the collection.
+     */
+    LISTING,
+
+    /**
+     * Long-running bulk reads used to export or synchronise the collection.
+     */
+    EXPORT
+}
\ No newline at end of file
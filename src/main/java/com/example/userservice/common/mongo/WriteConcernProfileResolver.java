@@ -0,0 +1,68 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.WriteConcern;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the write concern of each template write from the configured profiles.
+ * An active {@link WriteConcernScope} wins over the per-operation binding.
+ * Bulk writes never reach the resolver; {@link WriteConcernScopedDatabaseFactory} applies the scope to them.
+ */
+public class WriteConcernProfileResolver implements WriteConcernResolver {
+
+    private final Map<String, WriteConcern> profiles = new HashMap<>();
+    private final Map<MongoActionOperation, WriteConcern> operations = new EnumMap<>(MongoActionOperation.class);
+
+    public WriteConcernProfileResolver(MongoWriteConcernProperties properties) {
+        properties.getProfiles().forEach((name, profile) -> profiles.put(name, toWriteConcern(name, profile)));
+        properties.getOperations().forEach((operation, name) -> {
+            if (operation == MongoActionOperation.BULK) {
+                throw new IllegalArgumentException("Bulk writes can't be bound to a write concern profile; "
+                        + "run them in a WriteConcernScope");
+            }
+            operations.put(operation, profile(name));
+        });
+    }
+
+    @Override
+    public WriteConcern resolve(MongoAction action) {
+        WriteConcern scoped = resolveScoped();
+        if (scoped != null) {
+            return scoped;
+        }
+        WriteConcern bound = operations.get(action.getMongoActionOperation());
+        return bound != null ? bound : action.getDefaultWriteConcern();
+    }
+
+    /**
+     * Get the write concern of the current thread's {@link WriteConcernScope}.
+     *
+     * @return The scoped write concern, or null if no scope is active
+     */
+    public WriteConcern resolveScoped() {
+        String scoped = WriteConcernScope.current();
+        return scoped != null ? profile(scoped) : null;
+    }
+
+    private WriteConcern profile(String name) {
+        WriteConcern writeConcern = profiles.get(name);
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern profile: " + name);
+        }
+        return writeConcern;
+    }
+
+    private static WriteConcern toWriteConcern(String name, MongoWriteConcernProperties.Profile profile) {
+        try {
+            return profile.toWriteConcern();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid write concern profile " + name + ": " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.userservice.common.mongo;
+
+import java.util.function.Supplier;
+
+/**
+ * Overrides the write concern profile for all template writes made by the current thread,
+ * for jobs such as imports and migrations that know better than the per-operation binding.
+ */
+public final class WriteConcernScope {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private WriteConcernScope() {
+    }
+
+    /**
+     * Run an action with the given write concern profile.
+     *
+     * @param profile The profile name
+     * @param action The action to run
+     * @param <T> The result type
+     * @return The result of the action
+     */
+    public static <T> T with(String profile, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(profile);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Get the profile in effect for the current thread.
+     *
+     * @return The profile name, or null if no scope is active
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+}
\ No newline at end of file
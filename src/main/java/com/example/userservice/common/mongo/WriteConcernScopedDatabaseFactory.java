@@ -0,0 +1,65 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+/**
+ * Hands out databases carrying the write concern of the current {@link WriteConcernScope}. Bulk writes run on
+ * collections taken from the factory without consulting the template's write concern resolver, so this is
+ * where a scope reaches them. Outside a scope the databases are passed through unchanged.
+ */
+public class WriteConcernScopedDatabaseFactory implements MongoDatabaseFactory {
+
+    private final MongoDatabaseFactory delegate;
+    private final WriteConcernProfileResolver resolver;
+
+    public WriteConcernScopedDatabaseFactory(MongoDatabaseFactory delegate, WriteConcernProfileResolver resolver) {
+        this.delegate = delegate;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase() {
+        return scoped(delegate.getMongoDatabase());
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase(String dbName) {
+        return scoped(delegate.getMongoDatabase(dbName));
+    }
+
+    @Override
+    public PersistenceExceptionTranslator getExceptionTranslator() {
+        return delegate.getExceptionTranslator();
+    }
+
+    @Override
+    public CodecRegistry getCodecRegistry() {
+        return delegate.getCodecRegistry();
+    }
+
+    @Override
+    public ClientSession getSession(ClientSessionOptions options) {
+        return delegate.getSession(options);
+    }
+
+    @Override
+    public MongoDatabaseFactory withSession(ClientSession session) {
+        return new WriteConcernScopedDatabaseFactory(delegate.withSession(session), resolver);
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return delegate.isTransactionActive();
+    }
+
+    private MongoDatabase scoped(MongoDatabase database) {
+        WriteConcern writeConcern = resolver.resolveScoped();
+        return writeConcern != null ? database.withWriteConcern(writeConcern) : database;
+    }
+}
\ No newline at end of file
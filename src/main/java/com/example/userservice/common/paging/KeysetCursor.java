@@ -0,0 +1,50 @@
+package com.example.userservice.common.paging;
+
+import com.example.userservice.common.exception.BadRequestException;
+import com.example.userservice.common.mongo.ObjectIds;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset paging: the sort value and ID of the last item of a page.
+ *
+ * @param value The sort key value of the last item
+ * @param id The ID of the last item, breaking ties between equal sort values
+ */
+public record KeysetCursor(String value, ObjectId id) {
+
+    private static final char SEPARATOR = '.';
+
+    /**
+     * Encode the cursor for a response.
+     *
+     * @return The encoded cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8))
+                + SEPARATOR + id.toHexString();
+    }
+
+    /**
+     * Decode a cursor received from a client.
+     *
+     * @param token The encoded cursor
+     * @return The cursor
+     * @throws BadRequestException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        int separator = token.lastIndexOf(SEPARATOR);
+        ObjectId id = separator < 0 ? null : ObjectIds.parse(token.substring(separator + 1));
+        if (id == null) {
+            throw new BadRequestException("Invalid continuation token");
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token.substring(0, separator)), StandardCharsets.UTF_8);
+            return new KeysetCursor(value, id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid continuation token");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.userservice.common.timing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds every Mongo command to the {@link RequestTimings} of the thread that sent it. The synchronous driver
+ * reports a command's outcome on the sending thread, so no correlation by request ID is needed.
+ */
+public class RequestTimingCommandListener implements CommandListener {
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestTimings.recordCommand(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        RequestTimings.recordCommand(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+}
\ No newline at end of file
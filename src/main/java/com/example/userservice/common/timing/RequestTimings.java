@@ -0,0 +1,155 @@
+package com.example.userservice.common.timing;
+
+/**
+ * Per-request record of the Mongo commands sent and the time spent in them, in request body validation and in
+ * response serialization. The web layer opens it around each request; recorders add to it from the request
+ * thread and are no-ops outside a request. Work done for the request on another thread, such as a point read
+ * served by another request's batch, isn't recorded.
+ */
+public final class RequestTimings {
+
+    /**
+     * Request attribute holding the timings of a request once it completes.
+     */
+    public static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long endNanos;
+    private int commands;
+    private long databaseNanos;
+    private long validationNanos;
+    private long serializationNanos;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Open timings for the current thread.
+     *
+     * @return The opened timings
+     */
+    public static RequestTimings open() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Close the timings of the current thread and stop their clock.
+     */
+    public static void close() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.endNanos = System.nanoTime();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Get the timings of the current thread.
+     *
+     * @return The timings, or null outside of a request
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Record a completed Mongo command.
+     *
+     * @param nanos The time from sending the command to receiving its reply
+     */
+    public static void recordCommand(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.commands++;
+            timings.databaseNanos += nanos;
+        }
+    }
+
+    /**
+     * Record time spent validating a request body.
+     *
+     * @param nanos The elapsed time
+     */
+    public static void recordValidation(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.validationNanos += nanos;
+        }
+    }
+
+    /**
+     * Record time spent writing a response body.
+     *
+     * @param nanos The elapsed time
+     */
+    public static void recordSerialization(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.serializationNanos += nanos;
+        }
+    }
+
+    public int getCommands() {
+        return commands;
+    }
+
+    public long getDatabaseNanos() {
+        return databaseNanos;
+    }
+
+    public long getValidationNanos() {
+        return validationNanos;
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    /**
+     * Get the time since the timings were opened, up to when they were closed.
+     *
+     * @return The elapsed time
+     */
+    public long getTotalNanos() {
+        return (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * Format the timings as a {@code Server-Timing} header value, durations in milliseconds, e.g.
+     * {@code db;desc="3 commands";dur=1.250, validation;dur=0.040, serialization;dur=0.310, total;dur=2.100}.
+     *
+     * @return The header value
+     */
+    public String toServerTiming() {
+        StringBuilder value = new StringBuilder(112);
+        value.append("db;desc=\"").append(commands).append(commands == 1 ? " command" : " commands").append('"');
+        appendDuration(value, databaseNanos);
+        appendDuration(value.append(", validation"), validationNanos);
+        appendDuration(value.append(", serialization"), serializationNanos);
+        appendDuration(value.append(", total"), getTotalNanos());
+        return value.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toServerTiming();
+    }
+
+    // Milliseconds with microsecond precision, without going through String.format
+    private static void appendDuration(StringBuilder value, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        value.append(";dur=").append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            value.append('0');
+        }
+        if (fraction < 10) {
+            value.append('0');
+        }
+        value.append(fraction);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.userservice.common.timing;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that records the time spent writing response bodies in the current {@link RequestTimings}.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    /**
+     * Create a converter writing with the object mapper and media types of another.
+     *
+     * @param converter The converter to take the settings of
+     */
+    public TimedJsonHttpMessageConverter(MappingJackson2HttpMessageConverter converter) {
+        super(converter.getObjectMapper());
+        setSupportedMediaTypes(converter.getSupportedMediaTypes());
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTimings.recordSerialization(System.nanoTime() - start);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.userservice.common.timing;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+
+/**
+ * Validator that records the time its delegate spends validating in the current {@link RequestTimings}.
+ */
+public class TimedValidator implements SmartValidator {
+
+    private final Validator delegate;
+
+    public TimedValidator(Validator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        long start = System.nanoTime();
+        try {
+            delegate.validate(target, errors);
+        } finally {
+            RequestTimings.recordValidation(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof SmartValidator smartValidator) {
+                smartValidator.validate(target, errors, validationHints);
+            } else {
+                delegate.validate(target, errors);
+            }
+        } finally {
+            RequestTimings.recordValidation(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors,
+                              Object... validationHints) {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof SmartValidator smartValidator) {
+                smartValidator.validateValue(targetType, fieldName, value, errors, validationHints);
+            } else {
+                SmartValidator.super.validateValue(targetType, fieldName, value, errors, validationHints);
+            }
+        } finally {
+            RequestTimings.recordValidation(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate instanceof SmartValidator smartValidator ? smartValidator.unwrap(type)
+                : SmartValidator.super.unwrap(type);
+    }
+}
\ No newline at end of file
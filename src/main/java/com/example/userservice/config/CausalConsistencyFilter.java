@@ -0,0 +1,38 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.mongo.CausalSessionContext;
+import com.example.userservice.common.mongo.CausalSessionToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries the causal session token between the client and the repository layer.
+ * Clients echo the token they last received so reads routed to secondaries still see their own writes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class CausalConsistencyFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_TOKEN_HEADER = "X-Session-Token";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CausalSessionToken token = CausalSessionToken.decode(request.getHeader(SESSION_TOKEN_HEADER));
+        // Writes happen before the body is rendered, so the header can be set as soon as the token moves
+        CausalSessionContext.open(token, value -> response.setHeader(SESSION_TOKEN_HEADER, value));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CausalSessionContext.close();
+        }
+    }
+}
\ No newline at end of file
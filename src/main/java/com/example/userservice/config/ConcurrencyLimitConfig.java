@@ -0,0 +1,67 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.userservice.common.concurrency.ConcurrencyLimitProperties;
+import com.example.userservice.common.concurrency.RequestClass;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limiting in front of the user API, with its limits exported as metrics.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "user-service.concurrency-limit", name = "enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Register the limiting filter right after request logging, ahead of everything that touches the database.
+     *
+     * @param properties The limit configuration
+     * @param meterRegistry The registry to export limits and rejections to
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        Map<RequestClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RequestClass.class);
+        limiters.put(RequestClass.READ, limiter(properties.getRead()));
+        limiters.put(RequestClass.WRITE, limiter(properties.getWrite()));
+        limiters.put(RequestClass.BULK, limiter(properties.getBulk()));
+
+        limiters.forEach((requestClass, limiter) -> {
+            String tag = requestClass.name().toLowerCase();
+            Gauge.builder("user.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("user.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently holding a concurrency permit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("user.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .description("Requests shed with 503 because the concurrency limit was reached")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+        });
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiters, properties.getRetryAfter().toSeconds()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(ConcurrencyLimitProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimiter(limit.getInitial(), limit.getMin(), limit.getMax());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.userservice.common.concurrency.RequestClass;
+import com.example.userservice.user.controller.UserChangeStreamController;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Sheds user API requests beyond the adaptive concurrency limit of their class with 503 and Retry-After,
+ * before they reach the service and tie up a thread waiting on the database.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String USERS_PATH = "/api/v1/users";
+    private static final byte[] REJECTED_BODY = ("{\"type\":\"about:blank\",\"title\":\"Service Unavailable\","
+            + "\"status\":503,\"detail\":\"Server is overloaded, retry later\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final Map<RequestClass, AdaptiveConcurrencyLimiter> limiters;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(Map<RequestClass, AdaptiveConcurrencyLimiter> limiters, long retryAfterSeconds) {
+        this.limiters = limiters;
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // A change stream stays open for its whole life; holding a permit would starve everyone else
+        String path = request.getRequestURI();
+        return !path.startsWith(USERS_PATH) || path.equals(UserChangeStreamController.STREAM_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = RequestClass.of(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(requestClass);
+        if (!limiter.tryAcquire()) {
+            log.debug("Rejected {} {} over the {} concurrency limit of {}",
+                    request.getMethod(), request.getRequestURI(), requestClass, limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+            response.setContentLength(REJECTED_BODY.length);
+            response.getOutputStream().write(REJECTED_BODY);
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(System.nanoTime() - started, dropped);
+        }
+    }
+}
\ No newline at end of file
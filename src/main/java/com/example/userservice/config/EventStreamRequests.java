@@ -0,0 +1,20 @@
+package com.example.userservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Recognizes requests for a Server-Sent Events stream by their {@code Accept} header, as sent by browsers'
+ * {@code EventSource}, so filters can leave long-lived responses alone without knowing the routes that serve them.
+ */
+final class EventStreamRequests {
+
+    private EventStreamRequests() {
+    }
+
+    static boolean accepts(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
\ No newline at end of file
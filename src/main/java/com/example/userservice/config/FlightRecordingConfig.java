@@ -0,0 +1,26 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.jfr.FlightRecordingProperties;
+import com.example.userservice.common.jfr.FlightRecordings;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * On-demand flight recordings, started and downloaded through the {@code jfr} endpoint.
+ */
+@Configuration
+@EnableConfigurationProperties(FlightRecordingProperties.class)
+public class FlightRecordingConfig {
+
+    /**
+     * The recording the endpoint controls.
+     *
+     * @param properties The profile and limits of recordings
+     * @return The recordings
+     */
+    @Bean
+    public FlightRecordings flightRecordings(FlightRecordingProperties properties) {
+        return new FlightRecordings(properties);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.jfr.FlightRecordings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Admin endpoint for an on-demand flight recording: {@code GET} shows its state, {@code POST} starts one
+ * (optional {@code duration}), {@code DELETE} stops it and {@code GET /recording} downloads the data recorded
+ * so far as a {@code .jfr} file, for JDK Mission Control or {@code jfr print}. Recordings hold thread stacks,
+ * system properties and environment variables, so only the {@code admin} profile exposes the endpoint, on
+ * the management port.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+    static final String RECORDING = "recording";
+
+    private final FlightRecordings recordings;
+
+    @ReadOperation
+    public FlightRecordings.Status status() {
+        return recordings.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Duration duration) {
+        try {
+            return new WebEndpointResponse<>(recordings.start(duration));
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(e.getMessage(), HttpStatus.CONFLICT.value());
+        }
+    }
+
+    @DeleteOperation
+    public FlightRecordings.Status stop() {
+        return recordings.stop();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String name) {
+        Path file = RECORDING.equals(name) ? recordings.dump() : null;
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    // Deletes the dumped file once the response has been streamed
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        @Override
+        public String getFilename() {
+            return "user-service.jfr";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.timing.TimedJsonHttpMessageConverter;
+import com.example.userservice.common.timing.TimedValidator;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.support.WebBindingInitializer;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts {@link ObjectIdArgumentResolver} first among the argument resolvers. Resolvers added through
+ * {@code WebMvcConfigurer} come after the built-in {@code @PathVariable} resolver and would never be asked.
+ * Also times request body validation and JSON response writing for the {@code Server-Timing} header.
+ */
+@Component
+public class HandlerAdapterRegistrations implements WebMvcRegistrations {
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new RequestMappingHandlerAdapter() {
+            @Override
+            public void afterPropertiesSet() {
+                // Return value handlers are built from the converters, so replace them first
+                List<HttpMessageConverter<?>> converters = new ArrayList<>(getMessageConverters());
+                converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                        ? new TimedJsonHttpMessageConverter((MappingJackson2HttpMessageConverter) converter)
+                        : converter);
+                setMessageConverters(converters);
+                WebBindingInitializer initializer = getWebBindingInitializer();
+                setWebBindingInitializer(binder -> {
+                    if (initializer != null) {
+                        initializer.initBinder(binder);
+                    }
+                    List<Validator> validators = binder.getValidators();
+                    if (!validators.isEmpty()) {
+                        binder.replaceValidators(validators.stream().map(TimedValidator::new)
+                                .toArray(Validator[]::new));
+                    }
+                });
+
+                super.afterPropertiesSet();
+                List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>(getArgumentResolvers());
+                resolvers.add(0, new ObjectIdArgumentResolver());
+                setArgumentResolvers(resolvers);
+            }
+        };
+    }
+}
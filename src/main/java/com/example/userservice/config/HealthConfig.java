@@ -0,0 +1,31 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.health.CachedHealthIndicator;
+import com.example.userservice.common.health.CachedHealthProperties;
+import org.springframework.boot.actuate.data.mongo.MongoHealthIndicator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Health checks served from background results instead of running on each probe.
+ */
+@Configuration
+@EnableConfigurationProperties(CachedHealthProperties.class)
+public class HealthConfig {
+
+    /**
+     * Replace the auto-configured MongoDB health indicator, which runs a command on every probe, with one
+     * refreshed in the background. It keeps the name, so it still reports as {@code mongo}.
+     *
+     * @param mongoTemplate The template to check with
+     * @param properties The refresh interval and maximum age
+     * @return The cached indicator
+     */
+    @Bean
+    public CachedHealthIndicator mongoHealthIndicator(MongoTemplate mongoTemplate, CachedHealthProperties properties) {
+        return new CachedHealthIndicator("mongo", new MongoHealthIndicator(mongoTemplate), properties.getInterval(),
+                properties.getMaxAge());
+    }
+}
\ No newline at end of file
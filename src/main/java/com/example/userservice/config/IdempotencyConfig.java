@@ -0,0 +1,43 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.idempotency.IdempotencyProperties;
+import com.example.userservice.common.idempotency.IdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Idempotency-Key support for POST requests, backed by a TTL-indexed MongoDB collection.
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "user-service.idempotency", name = "enabled", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(MongoTemplate mongoTemplate, IdempotencyProperties properties) {
+        return new IdempotencyStore(mongoTemplate, properties);
+    }
+
+    /**
+     * Register the idempotency filter ahead of concurrency limiting, so replays and duplicates waiting for
+     * the first attempt hold no permit, and outside the causal session filter, so the session token of the
+     * first attempt is stored with its response.
+     *
+     * @param store The key store
+     * @param properties The idempotency configuration
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                       IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,310 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.cache.ExpiringCache;
+import com.example.userservice.common.idempotency.IdempotencyProperties;
+import com.example.userservice.common.idempotency.IdempotencyRecord;
+import com.example.userservice.common.idempotency.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST requests carrying an {@code Idempotency-Key} header safe to retry. The first request with a key
+ * runs and its response is stored; later requests with the same key get that response back without running
+ * again, and duplicates arriving while the first is still running wait for it. Responses with a 5xx status
+ * are not stored, so the retry runs again.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, CausalConsistencyFilter.SESSION_TOKEN_HEADER);
+
+    private final IdempotencyStore store;
+    private final ExpiringCache<String, IdempotencyRecord> completed;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final long waitTimeoutNanos;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        this.store = store;
+        this.completed = new ExpiringCache<>(properties.getCacheTtl(), properties.getCacheSize());
+        this.waitTimeoutNanos = properties.getWaitTimeout().toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        BufferedRequest bufferedRequest = new BufferedRequest(request);
+        String key = request.getRequestURI() + " " + idempotencyKey;
+        String fingerprint = fingerprint(bufferedRequest.body);
+        long deadline = System.nanoTime() + waitTimeoutNanos;
+
+        while (true) {
+            IdempotencyRecord record = completed.getIfPresent(key);
+            if (record != null) {
+                replay(record, fingerprint, response);
+                return;
+            }
+
+            // Duplicates within this instance wait on the local attempt instead of polling the database
+            CompletableFuture<Void> attempt = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, attempt);
+            if (running != null) {
+                if (!await(running, deadline)) {
+                    rejectInProgress(response);
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                IdempotencyStore.Acquisition acquisition = store.acquire(key, fingerprint);
+                if (acquisition.acquired()) {
+                    execute(key, acquisition.attemptId(), bufferedRequest, response, filterChain);
+                    return;
+                }
+                record = acquisition.existing();
+                if (record == null) {
+                    continue;
+                }
+                if (!record.getFingerprint().equals(fingerprint)) {
+                    rejectReused(response);
+                    return;
+                }
+                record = awaitCompletion(key, record, deadline);
+                if (record == null) {
+                    // The other attempt failed and gave up the key; try to claim it
+                    continue;
+                }
+                if (!record.isCompleted()) {
+                    rejectInProgress(response);
+                    return;
+                }
+                completed.put(key, record);
+                replay(record, fingerprint, response);
+                return;
+            } finally {
+                inFlight.remove(key, attempt);
+                attempt.complete(null);
+            }
+        }
+    }
+
+    private void execute(String key, String attemptId, BufferedRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean finished = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (status < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : REPLAYED_HEADERS) {
+                    String value = responseWrapper.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                IdempotencyRecord record = store.complete(key, attemptId, status, headers,
+                        responseWrapper.getContentAsByteArray());
+                if (record != null) {
+                    completed.put(key, record);
+                } else {
+                    // Ran past the lock timeout and lost the key to a retry, whose response is the one stored
+                    log.warn("Idempotency key {} was taken over before its response could be stored", key);
+                }
+                finished = true;
+            }
+        } finally {
+            if (!finished) {
+                release(key, attemptId);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    // Waits for another instance's attempt by polling its record with backoff
+    private IdempotencyRecord awaitCompletion(String key, IdempotencyRecord record, long deadline) {
+        long poll = MIN_POLL_NANOS;
+        while (record != null && !record.isCompleted() && System.nanoTime() + poll < deadline) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(poll);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return record;
+            }
+            poll = Math.min(poll * 2, MAX_POLL_NANOS);
+            record = store.find(key);
+        }
+        return record;
+    }
+
+    private void replay(IdempotencyRecord record, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            rejectReused(response);
+            return;
+        }
+        log.debug("Replaying stored response {} for idempotency key {}", record.getStatus(), record.getKey());
+        response.setHeader(REPLAYED_HEADER, "true");
+        record.getHeaders().forEach(response::setHeader);
+        byte[] body = record.getBody();
+        if (body == null || body.length == 0) {
+            if (record.getStatus() >= HttpStatus.BAD_REQUEST.value()) {
+                // Error bodies are rendered by the error page after the filters return; render it again
+                response.sendError(record.getStatus());
+            } else {
+                response.setStatus(record.getStatus());
+            }
+            return;
+        }
+        response.setStatus(record.getStatus());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void release(String key, String attemptId) {
+        try {
+            store.release(key, attemptId);
+        } catch (RuntimeException e) {
+            // The lock timeout frees the key eventually
+            log.warn("Could not release idempotency key {}", key, e);
+        }
+    }
+
+    private static boolean await(CompletableFuture<Void> running, long deadline) {
+        try {
+            running.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void rejectReused(HttpServletResponse response) throws IOException {
+        reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+    }
+
+    private static void rejectInProgress(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        reject(response, HttpStatus.CONFLICT,
+                "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        byte[] body = ("{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase() + "\",\"status\":"
+                + status.value() + ",\"detail\":\"" + detail + "\"}").getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Reads the request body up front so it can be fingerprinted, then serves it to the rest of the chain.
+     */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
\ No newline at end of file
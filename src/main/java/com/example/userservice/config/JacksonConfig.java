@@ -3,8 +3,10 @@ package com.example.userservice.config;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.bson.types.ObjectId;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,7 +30,7 @@ public class JacksonConfig {
     }
 
     /**
-     * Configure custom ObjectMapper with ObjectId serializer.
+     * Configure custom ObjectMapper with ObjectId serializer and ISO-8601 dates.
      * 
      * @return The customized ObjectMapper
      */
@@ -38,6 +40,8 @@ public class JacksonConfig {
         SimpleModule module = new SimpleModule();
         module.addSerializer(ObjectId.class, new ObjectIdSerializer());
         objectMapper.registerModule(module);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return objectMapper;
     }
 }
\ No newline at end of file
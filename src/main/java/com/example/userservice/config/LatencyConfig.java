@@ -0,0 +1,43 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.latency.LatencyHistogramProperties;
+import com.example.userservice.common.latency.LatencyHistograms;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-route latency histograms, reported through the {@code latency} endpoint.
+ */
+@Configuration
+@EnableConfigurationProperties(LatencyHistogramProperties.class)
+@ConditionalOnProperty(prefix = "user-service.latency", name = "enabled", matchIfMissing = true)
+public class LatencyConfig {
+
+    @Bean
+    public LatencyHistograms latencyHistograms(LatencyHistogramProperties properties) {
+        return new LatencyHistograms(properties);
+    }
+
+    /**
+     * Register the recording filter just ahead of concurrency limiting, so shed requests are counted too.
+     *
+     * @param histograms The histograms to record into
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<RouteLatencyFilter> routeLatencyFilter(LatencyHistograms histograms) {
+        FilterRegistrationBean<RouteLatencyFilter> registration = new FilterRegistrationBean<>(
+                new RouteLatencyFilter(histograms));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+        return registration;
+    }
+
+    @Bean
+    public LatencyEndpoint latencyEndpoint(LatencyHistograms histograms) {
+        return new LatencyEndpoint(histograms);
+    }
+}
\ No newline at end of file
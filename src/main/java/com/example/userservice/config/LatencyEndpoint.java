@@ -0,0 +1,41 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.latency.LatencyHistograms;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Admin endpoint for request latency percentiles: {@code GET} reports p50 to max per route, method and status
+ * class over each rolling window, and {@code GET /log} exports the interval histograms in the HdrHistogram
+ * log format, so logs from every pod can be merged for fleet-wide percentiles.
+ */
+@WebEndpoint(id = "latency")
+@RequiredArgsConstructor
+public class LatencyEndpoint {
+
+    static final String LOG = "log";
+
+    private final LatencyHistograms histograms;
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, LatencyHistograms.Summary>>> summaries() {
+        return histograms.summaries();
+    }
+
+    @ReadOperation(produces = "text/plain")
+    public WebEndpointResponse<String> log(@Selector String name) {
+        if (!LOG.equals(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        histograms.writeLog(out);
+        return new WebEndpointResponse<>(out.toString(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.userservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Stamps created and last-modified dates on documents as they are saved. Kept off the application
+ * class so web slice tests, which have no mapping context, don't pick it up.
+ */
+@Configuration
+@EnableMongoAuditing
+public class MongoAuditingConfig {
+}
\ No newline at end of file
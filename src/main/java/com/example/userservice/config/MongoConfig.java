@@ -0,0 +1,72 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.common.mongo.MongoWriteConcernProperties;
+import com.example.userservice.common.mongo.WriteConcernProfileResolver;
+import com.example.userservice.common.mongo.WriteConcernScopedDatabaseFactory;
+import com.example.userservice.common.timing.RequestTimingCommandListener;
+import com.example.userservice.user.model.UserConverters;
+import com.mongodb.client.ClientSession;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * MongoDB configuration beyond what Spring Boot auto-configures.
+ */
+@Configuration
+@EnableConfigurationProperties({MongoReadRoutingProperties.class, MongoWriteConcernProperties.class})
+public class MongoConfig {
+
+    /**
+     * Replace the auto-configured template with one that resolves write concerns from the configured profiles,
+     * including for bulk writes in a {@link com.example.userservice.common.mongo.WriteConcernScope}.
+     *
+     * @param mongoDatabaseFactory The database factory
+     * @param mongoConverter The converter
+     * @param writeConcernProperties The write concern profiles
+     * @return The configured MongoTemplate
+     */
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter,
+                                       MongoWriteConcernProperties writeConcernProperties) {
+        WriteConcernProfileResolver resolver = new WriteConcernProfileResolver(writeConcernProperties);
+        MongoTemplate mongoTemplate = new MongoTemplate(
+                new WriteConcernScopedDatabaseFactory(mongoDatabaseFactory, resolver), mongoConverter) {
+            // Session-bound copies start out with the default resolver
+            @Override
+            public MongoTemplate withSession(ClientSession session) {
+                MongoTemplate sessionTemplate = super.withSession(session);
+                sessionTemplate.setWriteConcernResolver(resolver);
+                return sessionTemplate;
+            }
+        };
+        mongoTemplate.setWriteConcernResolver(resolver);
+        return mongoTemplate;
+    }
+
+    /**
+     * Replace the auto-configured conversions with ones that map users by hand instead of by reflection.
+     *
+     * @return The custom conversions
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(UserConverters.all());
+    }
+
+    /**
+     * Count each request's Mongo commands and their time for the {@code Server-Timing} header.
+     *
+     * @return The customizer
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestTimingCustomizer() {
+        return settings -> settings.addCommandListener(new RequestTimingCommandListener());
+    }
+}
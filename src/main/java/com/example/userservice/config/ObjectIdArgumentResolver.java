@@ -0,0 +1,49 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.exception.BadRequestException;
+import com.example.userservice.common.mongo.ObjectIds;
+import org.bson.types.ObjectId;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Resolves {@code @PathVariable ObjectId} arguments with {@link ObjectIds#parse}. Spring's own resolver
+ * converts through the ObjectId constructor, and a malformed ID surfaces as three nested exceptions, each
+ * with a stack trace. Here it is rejected with a single shared exception, answered as 400 by
+ * {@link com.example.userservice.common.exception.ApiExceptionHandler}. Registered ahead of the built-in
+ * resolvers by {@link HandlerAdapterRegistrations}.
+ */
+public class ObjectIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    // Stackless exceptions have no mutable state, so one instance serves every rejection
+    private static final BadRequestException INVALID_ID =
+            new BadRequestException("Invalid ID: expected 24 hexadecimal characters");
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == ObjectId.class && parameter.hasParameterAnnotation(PathVariable.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        PathVariable annotation = parameter.getParameterAnnotation(PathVariable.class);
+        String name = annotation.name().isEmpty() ? parameter.getParameterName() : annotation.name();
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) webRequest.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        ObjectId id = variables != null ? ObjectIds.parse(variables.get(name)) : null;
+        if (id == null) {
+            throw INVALID_ID;
+        }
+        return id;
+    }
+}
\ No newline at end of file
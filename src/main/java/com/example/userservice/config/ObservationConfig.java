@@ -0,0 +1,42 @@
+package com.example.userservice.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+/**
+ * Observations for tracing a request through the controller, the service and each Mongo command it sends.
+ * Incoming trace context and the trace and span IDs in the log MDC are handled by Boot's tracing support.
+ */
+@Configuration
+public class ObservationConfig {
+
+    /**
+     * Observe the methods of {@code @Observed} classes, the user controller and service.
+     *
+     * @param observationRegistry The registry
+     * @return The aspect
+     */
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * Observe every Mongo command as a child of the observation current on the calling thread.
+     * Reads served by a shared batch run on the batch's thread and aren't attached to a request.
+     *
+     * @param observationRegistry The registry
+     * @return The customizer
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
\ No newline at end of file
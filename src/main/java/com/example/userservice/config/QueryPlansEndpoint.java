@@ -0,0 +1,27 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.mongo.QueryPlan;
+import com.example.userservice.user.repository.UserQueryPlans;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Admin endpoint showing the current winning plan of every repository query against the live collection.
+ * Each call runs the queries with {@code explain}, so it is exposed for operators rather than polled.
+ */
+@Component
+@Endpoint(id = "queryplans")
+@RequiredArgsConstructor
+public class QueryPlansEndpoint {
+
+    private final UserQueryPlans userQueryPlans;
+
+    @ReadOperation
+    public List<QueryPlan> plans() {
+        return userQueryPlans.explain();
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.userservice.config;
 
+import com.example.userservice.common.timing.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,23 +18,40 @@ import java.nio.charset.StandardCharsets;
 
 /**
  * Combined filter for logging both HTTP request and response details.
+ * Runs just inside the server observation filter, so its log lines carry the request's trace ID.
+ * Also opens the request's {@link RequestTimings} and returns them in a {@code Server-Timing} header;
+ * the buffered response isn't committed yet when the header is added after the chain.
  */
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
 @Slf4j
 public class RequestResponseLoggingFilter extends OncePerRequestFilter {
 
+    static final String SERVER_TIMING = "Server-Timing";
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        // Caching the response would hold back an event stream until it ends
+        if (EventStreamRequests.accepts(request)) {
+            log.debug("REQUEST {} {}: STREAMING", request.getMethod(), request.getRequestURI());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
         
+        RequestTimings timings = RequestTimings.open();
         try {
             filterChain.doFilter(requestWrapper, responseWrapper);
         } finally {
+            RequestTimings.close();
+            String serverTiming = timings.toServerTiming();
+            request.setAttribute(RequestTimings.ATTRIBUTE, timings);
+            responseWrapper.setHeader(SERVER_TIMING, serverTiming);
             logRequest(requestWrapper);
-            logResponse(requestWrapper, responseWrapper);
+            logResponse(requestWrapper, responseWrapper, serverTiming);
             responseWrapper.copyBodyToResponse();
         }
     }
@@ -56,7 +74,8 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
         }
     }
 
-    private void logResponse(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response) {
+    private void logResponse(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response,
+                             String serverTiming) {
         String method = request.getMethod();
         String path = request.getRequestURI();
         int status = response.getStatus();
@@ -66,11 +85,11 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
         String contentString = new String(content, StandardCharsets.UTF_8);
         
         if (content.length > 0) {
-            log.debug("RESPONSE for {} {}: STATUS={}, BODY={}", 
-                    method, path, status, contentString);
+            log.debug("RESPONSE for {} {}: STATUS={}, TIMING={}, BODY={}",
+                    method, path, status, serverTiming, contentString);
         } else {
-            log.debug("RESPONSE for {} {}: STATUS={}, EMPTY BODY", 
-                    method, path, status);
+            log.debug("RESPONSE for {} {}: STATUS={}, TIMING={}, EMPTY BODY",
+                    method, path, status, serverTiming);
         }
     }
 }
\ No newline at end of file
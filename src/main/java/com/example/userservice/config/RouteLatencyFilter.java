@@ -0,0 +1,46 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.latency.LatencyHistograms;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the latency of every request into the histogram of its route pattern, method and status class.
+ * Requests no handler matched, including those shed by the concurrency limit, share one route.
+ * Responses completed asynchronously are left out.
+ */
+public class RouteLatencyFilter extends OncePerRequestFilter {
+
+    static final String UNMATCHED = "unmatched";
+
+    private final LatencyHistograms histograms;
+
+    public RouteLatencyFilter(LatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            // An asynchronous response, such as an event stream, has only been started by now
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String route = pattern != null ? pattern.toString() : UNMATCHED;
+                histograms.record(request.getMethod(), route, status, System.nanoTime() - started);
+            }
+        }
+    }
+}
\ No newline at end of file
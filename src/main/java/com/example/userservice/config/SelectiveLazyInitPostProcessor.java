@@ -0,0 +1,53 @@
+package com.example.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * Marks beans from non-critical packages, such as springdoc, as lazy so they are created on first use
+ * instead of during startup. Beans are matched by their class or, for {@code @Bean} methods, by the
+ * configuration class declaring them.
+ */
+@Slf4j
+public class SelectiveLazyInitPostProcessor implements BeanFactoryPostProcessor {
+
+    private final List<String> packages;
+
+    public SelectiveLazyInitPostProcessor(List<String> packages) {
+        this.packages = packages;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        int lazy = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_APPLICATION && !definition.isLazyInit()
+                    && matches(declaringClass(definition))) {
+                definition.setLazyInit(true);
+                lazy++;
+            }
+        }
+        log.debug("Deferred initialization of {} beans from {}", lazy, packages);
+    }
+
+    private boolean matches(String className) {
+        return className != null && packages.stream().anyMatch(prefix -> className.startsWith(prefix + "."));
+    }
+
+    private static String declaringClass(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return definition.getBeanClassName();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.userservice.config;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Startup tuning that has to be applied before regular beans are created.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final String LAZY_INIT = "user-service.startup.lazy-init";
+
+    /**
+     * Opt-in lazy initialization of non-critical beans, enabled with {@code user-service.startup.lazy-init.enabled}.
+     * Bean factory post-processors run before configuration properties are bound, so the settings are read
+     * from the environment directly.
+     *
+     * @param environment The environment
+     * @return The post-processor
+     */
+    @Bean
+    public static SelectiveLazyInitPostProcessor selectiveLazyInitPostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        boolean enabled = binder.bind(LAZY_INIT + ".enabled", Boolean.class).orElse(false);
+        List<String> packages = binder.bind(LAZY_INIT + ".packages", Bindable.listOf(String.class))
+                .orElse(List.of("org.springdoc"));
+        return new SelectiveLazyInitPostProcessor(enabled ? packages : List.of());
+    }
+}
\ No newline at end of file
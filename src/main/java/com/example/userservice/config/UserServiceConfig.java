@@ -0,0 +1,14 @@
+package com.example.userservice.config;
+
+import com.example.userservice.user.event.UserChangeFeedProperties;
+import com.example.userservice.user.service.UserServiceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the user service layer.
+ */
+@Configuration
+@EnableConfigurationProperties({UserServiceProperties.class, UserChangeFeedProperties.class})
+public class UserServiceConfig {
+}
\ No newline at end of file
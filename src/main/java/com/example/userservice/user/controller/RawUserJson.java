@@ -0,0 +1,138 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.common.timing.RequestTimings;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes user documents read as raw BSON to the response as the JSON Jackson produces for {@code User}:
+ * {@code _id} becomes the hex string {@code id}, dates become ISO-8601 instants and absent fields are null.
+ * Fields are streamed from the document bytes in stored order, without building a User or a Document.
+ */
+final class RawUserJson {
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    private static final String[] FIELDS = {"name", "email", "createdAt", "lastModified"};
+
+    private RawUserJson() {
+    }
+
+    /**
+     * Write one user as the response body.
+     *
+     * @param response The response
+     * @param document The user document
+     * @throws IOException if the response can't be written
+     */
+    static void write(HttpServletResponse response, RawBsonDocument document) throws IOException {
+        long start = System.nanoTime();
+        prepare(response);
+        try (JsonGenerator generator = JSON.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            writeUser(generator, document);
+        }
+        RequestTimings.recordSerialization(System.nanoTime() - start);
+    }
+
+    /**
+     * Write users as a JSON array response body.
+     *
+     * @param response The response
+     * @param documents The user documents
+     * @throws IOException if the response can't be written
+     */
+    static void write(HttpServletResponse response, List<RawBsonDocument> documents) throws IOException {
+        long start = System.nanoTime();
+        prepare(response);
+        write(response.getOutputStream(), documents);
+        RequestTimings.recordSerialization(System.nanoTime() - start);
+    }
+
+    /**
+     * Write users as a JSON array.
+     *
+     * @param out The stream to write to, left open
+     * @param documents The user documents
+     * @throws IOException if the stream can't be written
+     */
+    static void write(OutputStream out, List<RawBsonDocument> documents) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (RawBsonDocument document : documents) {
+                writeUser(generator, document);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void prepare(HttpServletResponse response) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private static void writeUser(JsonGenerator generator, RawBsonDocument document) throws IOException {
+        generator.writeStartObject();
+        int written = 0;
+        try (BsonBinaryReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+            reader.readStartDocument();
+            BsonType type;
+            while ((type = reader.readBsonType()) != BsonType.END_OF_DOCUMENT) {
+                String name = reader.readName();
+                boolean id = "_id".equals(name);
+                int field = id ? -1 : indexOf(name);
+                if (!id && field < 0) {
+                    reader.skipValue();
+                    continue;
+                }
+                generator.writeFieldName(id ? "id" : FIELDS[field]);
+                switch (type) {
+                    case OBJECT_ID -> generator.writeString(reader.readObjectId().toHexString());
+                    case STRING -> generator.writeString(reader.readString());
+                    case DATE_TIME -> generator.writeString(Instant.ofEpochMilli(reader.readDateTime()).toString());
+                    case NULL -> {
+                        reader.readNull();
+                        generator.writeNull();
+                    }
+                    default -> {
+                        reader.skipValue();
+                        generator.writeNull();
+                    }
+                }
+                if (!id) {
+                    written |= 1 << field;
+                }
+            }
+            reader.readEndDocument();
+        }
+        // Jackson writes null properties, so fields missing from the document are written as null too
+        for (int field = 0; field < FIELDS.length; field++) {
+            if ((written & 1 << field) == 0) {
+                generator.writeNullField(FIELDS[field]);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static int indexOf(String name) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
\ No newline at end of file
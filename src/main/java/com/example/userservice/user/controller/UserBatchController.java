@@ -0,0 +1,198 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.common.exception.BadRequestException;
+import com.example.userservice.common.mongo.ObjectIds;
+import com.example.userservice.user.model.UserBatchJob;
+import com.example.userservice.user.model.UserBatchJobRequest;
+import com.example.userservice.user.model.UserBatchRequest;
+import com.example.userservice.user.model.UserBatchResult;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.service.UserBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST controller for updating and deleting many users at once.
+ */
+@RestController
+@RequestMapping(UserBatchController.BATCH_PATH)
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "User", description = "User management API")
+public class UserBatchController {
+
+    /**
+     * Path of the batch endpoints, whose requests count against the bulk concurrency limit.
+     */
+    public static final String BATCH_PATH = "/api/v1/users/batch";
+
+    private final UserBatchService batchService;
+
+    /**
+     * Update a list of users.
+     *
+     * @param request The user IDs and the fields to set
+     * @return The outcome for each user
+     */
+    @PatchMapping
+    @Operation(
+        summary = "Update many users",
+        description = "Sets the name of every listed user with bulk writes and reports the outcome for each ID"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch applied",
+            content = @Content(schema = @Schema(implementation = UserBatchResult.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid IDs or fields",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserBatchResult> patchUsers(
+            @Parameter(description = "User IDs and fields to set", required = true)
+            @RequestBody UserBatchRequest request) {
+        log.debug("REST request to patch {} Users with fields: {}", size(request.ids()), request.fields());
+        UserBatchResult result = batchService.patch(ids(request.ids()), request.fields());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Delete a list of users.
+     *
+     * @param request The user IDs
+     * @return The outcome for each user
+     */
+    @PostMapping("/delete")
+    @Operation(
+        summary = "Delete many users",
+        description = "Deletes every listed user with bulk writes and reports the outcome for each ID"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch applied",
+            content = @Content(schema = @Schema(implementation = UserBatchResult.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid IDs",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserBatchResult> deleteUsers(
+            @Parameter(description = "User IDs", required = true)
+            @RequestBody UserBatchRequest request) {
+        log.debug("REST request to delete {} Users", size(request.ids()));
+        UserBatchResult result = batchService.delete(ids(request.ids()));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Start a background job updating or deleting every user matching a prefix filter.
+     *
+     * @param request The operation, filter and fields
+     * @return The progress of the new job
+     */
+    @PostMapping("/jobs")
+    @Operation(
+        summary = "Start a batch job",
+        description = "Updates or deletes every user whose name or email starts with the prefix, in throttled "
+                + "chunks in the background; poll the returned location for progress"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Job started",
+            content = @Content(schema = @Schema(implementation = UserBatchJob.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid operation, filter or fields",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Too many jobs running",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserBatchJob> startJob(
+            @Parameter(description = "Operation, filter and fields", required = true)
+            @RequestBody UserBatchJobRequest request) {
+        log.debug("REST request to start batch {} job on Users with {} prefix: {}",
+                request.operation(), request.field(), request.prefix());
+        UserBatchJob job = batchService.start(request.operation(), UserSearchField.fromParameter(request.field()),
+                request.prefix(), request.fields());
+        return ResponseEntity.accepted().location(URI.create(BATCH_PATH + "/jobs/" + job.id())).body(job);
+    }
+
+    /**
+     * Get the progress of a batch job.
+     *
+     * @param id The job ID
+     * @return The job progress
+     */
+    @GetMapping("/jobs/{id}")
+    @Operation(
+        summary = "Get batch job progress",
+        description = "Reports how many users a batch job has processed and whether it has finished"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Job found",
+            content = @Content(schema = @Schema(implementation = UserBatchJob.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Job not found",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserBatchJob> getJob(
+            @Parameter(description = "The ID of the job", required = true)
+            @PathVariable String id) {
+        return ResponseEntity.ok(batchService.getJob(id));
+    }
+
+    private static List<ObjectId> ids(List<String> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return ids.stream()
+                .map(id -> {
+                    ObjectId objectId = ObjectIds.parse(id);
+                    if (objectId == null) {
+                        throw new BadRequestException("Invalid user ID: " + id);
+                    }
+                    return objectId;
+                })
+                .toList();
+    }
+
+    private static int size(List<String> ids) {
+        return ids != null ? ids.size() : 0;
+    }
+}
\ No newline at end of file
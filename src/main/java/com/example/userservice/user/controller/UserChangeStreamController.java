@@ -0,0 +1,95 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.user.event.UserChangeFeed;
+import com.example.userservice.user.event.UserChangeFeedProperties;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * REST controller streaming user changes as Server-Sent Events.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "User", description = "User management API")
+public class UserChangeStreamController {
+
+    /**
+     * Path of the change stream. Responses on it stay open, so filters that buffer or time whole
+     * responses skip it.
+     */
+    public static final String STREAM_PATH = "/api/v1/users/stream";
+
+    private final UserChangeFeed changeFeed;
+    private final UserChangeFeedProperties properties;
+
+    /**
+     * Stream user changes.
+     *
+     * @param lastEventId The ID of the last event received before reconnecting
+     * @return The event stream
+     */
+    @GetMapping(value = STREAM_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream user changes",
+        description = "Streams created, updated and deleted events as Server-Sent Events. Reconnect with "
+                + "Last-Event-ID to resume; a reset event means changes were missed and users must be reloaded"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Event stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Too many subscribers",
+            content = @Content
+        )
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "The ID of the last event received, to resume after it")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("REST request to stream user changes after: {}", lastEventId);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        UserChangeFeed.Subscription subscription = changeFeed.subscribe(new EmitterSink(emitter), lastEventId);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements UserChangeFeed.Sink {
+
+        @Override
+        public void send(UserChangeFeed.Message message) throws IOException {
+            switch (message) {
+                case UserChangeFeed.Change change -> emitter.send(SseEmitter.event()
+                        .id(change.id())
+                        .name(change.event().type().name().toLowerCase(Locale.ROOT))
+                        .data(change.event(), MediaType.APPLICATION_JSON));
+                case UserChangeFeed.Reset reset -> emitter.send(SseEmitter.event().name("reset").data(""));
+                case UserChangeFeed.Heartbeat heartbeat -> emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
\ No newline at end of file
@@ -1,7 +1,14 @@
 package com.example.userservice.user.controller;
 
 import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserChangesPage;
+import com.example.userservice.user.model.UserCount;
+import com.example.userservice.user.model.UserMatch;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserSearchPage;
+import com.example.userservice.user.service.RawUserReads;
 import com.example.userservice.user.service.UserService;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,6 +16,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,9 +35,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for User operations.
@@ -38,16 +49,19 @@ import java.util.Map;
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "user.controller")
 @Tag(name = "User", description = "User management API")
 public class UserController {
 
     private final UserService userService;
+    private final Optional<RawUserReads> rawReads;
 
     /**
      * Get a user by ID.
      *
      * @param id The ID of the user to retrieve
-     * @return The user with the given ID
+     * @param response The response, written directly when the user is read as raw BSON
+     * @return The user with the given ID, or null when already written
      */
     @GetMapping("/{id}")
     @Operation(
@@ -60,6 +74,11 @@ public class UserController {
             description = "User found",
             content = @Content(schema = @Schema(implementation = User.class))
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid user ID",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "User not found",
@@ -67,11 +86,17 @@ public class UserController {
         )
     })
     public ResponseEntity<User> getUserById(
-            @Parameter(description = "The ID of the user to retrieve", required = true)
-            @PathVariable String id) {
+            @Parameter(description = "The ID of the user to retrieve", required = true,
+                    schema = @Schema(type = "string"))
+            @PathVariable ObjectId id,
+            HttpServletResponse response) throws IOException {
         log.debug("REST request to get User by ID: {}", id);
-        ObjectId objectId = new ObjectId(id);
-        User user = userService.getUserById(objectId);
+        RawUserReads raw = rawReads.orElse(null);
+        if (raw != null && raw.isPoint()) {
+            RawUserJson.write(response, raw.getUserById(id));
+            return null;
+        }
+        User user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
 
@@ -79,7 +104,8 @@ public class UserController {
      * Get all users or search by email.
      *
      * @param email Optional email to search for
-     * @return List of users matching the criteria
+     * @param response The response, written directly when the users are read as raw BSON
+     * @return List of users matching the criteria, or null when already written
      */
     @GetMapping
     @Operation(
@@ -100,13 +126,18 @@ public class UserController {
     })
     public ResponseEntity<List<User>> getUsers(
             @Parameter(description = "Email to search for (optional)")
-            @RequestParam(required = false) String email) {
+            @RequestParam(required = false) String email,
+            HttpServletResponse response) throws IOException {
         log.debug("REST request to get Users with email filter: {}", email);
         
+        RawUserReads raw = rawReads.orElse(null);
         if (StringUtils.hasText(email)) {
             // If email is provided, search by email
             User user = userService.getUserByEmail(email);
             return ResponseEntity.ok(Collections.singletonList(user));
+        } else if (raw != null && raw.isListing()) {
+            RawUserJson.write(response, raw.getAllUsers());
+            return null;
         } else {
             // Otherwise, get all users
             List<User> users = userService.getAllUsers();
@@ -114,6 +145,164 @@ public class UserController {
         }
     }
     
+    /**
+     * Count users.
+     *
+     * @param exact Whether to count documents instead of using the collection estimate
+     * @param field The field to filter on, name or email
+     * @param prefix Optional prefix the field must start with
+     * @return The user count
+     */
+    @GetMapping("/count")
+    @Operation(
+        summary = "Count users",
+        description = "Returns the collection-metadata estimate by default; counts documents when exact=true or a prefix filter is given"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "User count retrieved successfully",
+            content = @Content(schema = @Schema(implementation = UserCount.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid filter",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserCount> countUsers(
+            @Parameter(description = "Count documents instead of returning the estimate")
+            @RequestParam(defaultValue = "false") boolean exact,
+            @Parameter(description = "Field to filter on: name or email")
+            @RequestParam(defaultValue = "name") String field,
+            @Parameter(description = "Prefix the field must start with, case-insensitive (optional)")
+            @RequestParam(required = false) String prefix) {
+        log.debug("REST request to count Users, exact: {}, {} prefix: {}", exact, field, prefix);
+        UserCount count = userService.countUsers(exact, UserSearchField.fromParameter(field), prefix);
+        return ResponseEntity.ok(count);
+    }
+
+    /**
+     * Search users by name or email prefix.
+     *
+     * @param prefix The prefix to match, case-insensitive
+     * @param field The field to search, name or email
+     * @param limit The maximum number of users to return
+     * @param after Continuation token from the previous page
+     * @return One page of matching users
+     */
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search users by prefix",
+        description = "Autocomplete over name or email, served from an index; page with the returned continuation token"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Matching users retrieved successfully",
+            content = @Content(schema = @Schema(implementation = UserSearchPage.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid search parameters",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserSearchPage> searchUsers(
+            @Parameter(description = "Prefix to match, case-insensitive", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Field to search: name or email")
+            @RequestParam(defaultValue = "name") String field,
+            @Parameter(description = "Maximum number of users to return (1-50)")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String after) {
+        log.debug("REST request to search Users by {} prefix: {}", field, prefix);
+        UserSearchPage page = userService.searchByPrefix(UserSearchField.fromParameter(field), prefix, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Search users by name, tolerating typos and accents.
+     *
+     * @param q The name to search for
+     * @param limit The maximum number of users to return
+     * @return The matching users, best match first
+     */
+    @GetMapping("/search/fuzzy")
+    @Operation(
+        summary = "Fuzzy search users by name",
+        description = "Ranks users by trigram similarity of their name to the query, ignoring case and accents"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Matching users retrieved successfully",
+            content = @Content(schema = @Schema(implementation = UserMatch.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid search parameters",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Search index is still loading",
+            content = @Content
+        )
+    })
+    public ResponseEntity<List<UserMatch>> fuzzySearchUsers(
+            @Parameter(description = "Name to search for", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of users to return (1-50)")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to fuzzy search Users by name: {}", q);
+        List<UserMatch> matches = userService.fuzzySearchByName(q, limit);
+        return ResponseEntity.ok(matches);
+    }
+
+    /**
+     * Get the users changed since a sync watermark.
+     *
+     * @param since The watermark returned by the previous sync
+     * @param limit The maximum number of changes to return
+     * @param after Continuation token from the previous page
+     * @return One page of changes
+     */
+    @GetMapping("/changes")
+    @Operation(
+        summary = "Get user changes since a watermark",
+        description = "Users created, updated or deleted since the watermark, oldest first; page with the returned continuation token, then pass the final watermark as 'since' on the next sync"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Changes retrieved successfully",
+            content = @Content(schema = @Schema(implementation = UserChangesPage.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid parameters",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "410",
+            description = "Watermark older than the retained deletions; sync again from the beginning",
+            content = @Content
+        )
+    })
+    public ResponseEntity<UserChangesPage> getChanges(
+            @Parameter(description = "ISO-8601 watermark from the previous sync; omit for a full sync")
+            @RequestParam(required = false) Instant since,
+            @Parameter(description = "Maximum number of changes to return (1-1000)")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String after) {
+        log.debug("REST request to get User changes since: {}", since);
+        UserChangesPage page = userService.getChanges(since, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * Create a new user.
      *
@@ -185,13 +374,13 @@ public class UserController {
         )
     })
     public ResponseEntity<User> updateUser(
-            @Parameter(description = "The ID of the user to update", required = true)
-            @PathVariable String id,
+            @Parameter(description = "The ID of the user to update", required = true,
+                    schema = @Schema(type = "string"))
+            @PathVariable ObjectId id,
             @Parameter(description = "Updated user data", required = true)
             @Valid @RequestBody User user) {
         log.debug("REST request to update User: {} with data: {}", id, user);
-        ObjectId objectId = new ObjectId(id);
-        User updatedUser = userService.updateUser(objectId, user);
+        User updatedUser = userService.updateUser(id, user);
         return ResponseEntity.ok(updatedUser);
     }
     
@@ -230,13 +419,13 @@ public class UserController {
         )
     })
     public ResponseEntity<User> patchUser(
-            @Parameter(description = "The ID of the user to update", required = true)
-            @PathVariable String id,
+            @Parameter(description = "The ID of the user to update", required = true,
+                    schema = @Schema(type = "string"))
+            @PathVariable ObjectId id,
             @Parameter(description = "Fields to update", required = true)
             @RequestBody Map<String, Object> fields) {
         log.debug("REST request to patch User: {} with fields: {}", id, fields);
-        ObjectId objectId = new ObjectId(id);
-        User patchedUser = userService.patchUser(objectId, fields);
+        User patchedUser = userService.patchUser(id, fields);
         return ResponseEntity.ok(patchedUser);
     }
     
@@ -257,6 +446,11 @@ public class UserController {
             description = "User deleted successfully",
             content = @Content
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid user ID",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "User not found",
@@ -264,11 +458,11 @@ public class UserController {
         )
     })
     public ResponseEntity<Void> deleteUser(
-            @Parameter(description = "The ID of the user to delete", required = true)
-            @PathVariable String id) {
+            @Parameter(description = "The ID of the user to delete", required = true,
+                    schema = @Schema(type = "string"))
+            @PathVariable ObjectId id) {
         log.debug("REST request to delete User: {}", id);
-        ObjectId objectId = new ObjectId(id);
-        userService.deleteUser(objectId);
+        userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.example.userservice.user.event;
+
+import com.example.userservice.common.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans user changes made through the service out to stream subscribers.
+ * <p>
+ * Changes are numbered and the most recent ones kept in a ring, so a subscriber reconnecting with the ID
+ * of the last change it saw resumes without gaps; one that is too far behind is told to reset and reload.
+ * IDs carry an epoch unique to this feed instance, so a subscriber resuming on another instance behind a
+ * load balancer, or after a restart, is told to reset rather than replayed from an unrelated number.
+ * Every subscriber has a
+ * bounded buffer drained by a virtual thread that only exists while there is something to send; a subscriber
+ * that lets its buffer fill up is disconnected rather than slowing down anyone else.
+ */
+@Component
+@Slf4j
+public class UserChangeFeed implements DisposableBean {
+
+    /**
+     * Something sent to a subscriber.
+     */
+    public sealed interface Message permits Change, Reset, Heartbeat {
+    }
+
+    /**
+     * A user change.
+     *
+     * @param id The feed epoch and change number, usable as a resume token
+     * @param sequence The change number within this feed
+     * @param event The change
+     */
+    public record Change(String id, long sequence, UserChangedEvent event) implements Message {
+    }
+
+    /**
+     * Tells a resuming subscriber that changes were missed and it must reload its state.
+     */
+    public record Reset() implements Message {
+    }
+
+    /**
+     * Keeps an idle stream open.
+     */
+    public record Heartbeat() implements Message {
+    }
+
+    /**
+     * Where a subscriber's messages go, typically an open HTTP stream.
+     */
+    public interface Sink {
+
+        void send(Message message) throws IOException;
+
+        void close();
+    }
+
+    /**
+     * A registered subscriber.
+     */
+    public interface Subscription {
+
+        /**
+         * Stop delivering messages and close the sink.
+         */
+        void close();
+    }
+
+    private static final Reset RESET = new Reset();
+    private static final Heartbeat HEARTBEAT = new Heartbeat();
+    private static final char ID_SEPARATOR = '-';
+
+    private final UserChangeFeedProperties properties;
+    private final Change[] history;
+    private final String epoch = new ObjectId().toHexString();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService publisher;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats;
+
+    // Guarded by this
+    private long nextSequence;
+
+    public UserChangeFeed(UserChangeFeedProperties properties) {
+        this.properties = properties;
+        this.history = new Change[properties.getHistory()];
+        this.publisher = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("user-change-feed").daemon().factory());
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("user-change-feed-heartbeat").daemon().factory());
+        long heartbeatMillis = properties.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue a change made through the service for delivery. Fan-out happens on the feed's own thread,
+     * so the request that made the change doesn't pay for it.
+     *
+     * @param event The change
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        publisher.execute(() -> publish(event));
+    }
+
+    /**
+     * Register a subscriber.
+     *
+     * @param sink Receives the messages
+     * @param lastId The ID of the last change the subscriber saw, or null to receive only new changes
+     * @return The subscription
+     */
+    public Subscription subscribe(Sink sink, String lastId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ServiceUnavailableException("Too many change feed subscribers");
+        }
+        Subscriber subscriber = new Subscriber(sink);
+        synchronized (this) {
+            if (lastId != null && !lastId.isBlank()) {
+                replay(subscriber, lastId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    /**
+     * Get the number of open subscriptions.
+     *
+     * @return The subscriber count
+     */
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        publisher.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+
+    private synchronized void publish(UserChangedEvent event) {
+        Change change = new Change(epoch + ID_SEPARATOR + nextSequence, nextSequence, event);
+        history[(int) (nextSequence % history.length)] = change;
+        nextSequence++;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change);
+        }
+    }
+
+    // Called with the lock held, before the subscriber sees any new change. An ID from another instance, an
+    // earlier run or no feed at all can't be resumed from, so the subscriber is reset.
+    private void replay(Subscriber subscriber, String lastId) {
+        long lastSequence = sequenceOf(lastId);
+        long oldest = Math.max(0, nextSequence - history.length);
+        long missed = nextSequence - 1 - lastSequence;
+        if (lastSequence < oldest - 1 || missed < 0 || missed > properties.getSubscriberBuffer()) {
+            subscriber.offer(RESET);
+            return;
+        }
+        for (long sequence = lastSequence + 1; sequence < nextSequence; sequence++) {
+            subscriber.offer(history[(int) (sequence % history.length)]);
+        }
+    }
+
+    private long sequenceOf(String id) {
+        int separator = id.lastIndexOf(ID_SEPARATOR);
+        if (separator != epoch.length() || !id.startsWith(epoch)) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Long.parseLong(id, separator + 1, id.length(), 10);
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isIdle()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private final class Subscriber implements Subscription {
+
+        private final Sink sink;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(Sink sink) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(properties.getSubscriberBuffer());
+        }
+
+        void offer(Message message) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                // Too slow to keep up; it can resume from its last change after reconnecting
+                log.debug("Disconnecting change feed subscriber with {} undelivered changes", queue.size());
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        boolean isIdle() {
+            return queue.isEmpty() && !draining.get();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!closed && (message = queue.poll()) != null) {
+                    sink.send(message);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Change feed subscriber went away: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // A message may have arrived after the last poll but before draining was cleared
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            sink.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.userservice.user.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the user change feed.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.change-feed")
+public class UserChangeFeedProperties {
+
+    /**
+     * Number of recent changes kept for subscribers resuming with Last-Event-ID.
+     */
+    private int history = 10_000;
+
+    /**
+     * Changes buffered per subscriber; a subscriber that falls further behind is disconnected.
+     */
+    private int subscriberBuffer = 256;
+
+    /**
+     * Maximum number of concurrent subscribers.
+     */
+    private int maxSubscribers = 10_000;
+
+    /**
+     * Interval of keep-alive comments on idle streams.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * How long a stream stays open before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
\ No newline at end of file
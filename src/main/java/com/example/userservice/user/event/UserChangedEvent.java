@@ -0,0 +1,32 @@
+package com.example.userservice.user.event;
+
+import com.example.userservice.user.model.User;
+import org.bson.types.ObjectId;
+
+/**
+ * Published by the service write path after a user has been created, updated or deleted.
+ *
+ * @param type The kind of change
+ * @param id The ID of the changed user
+ * @param user The user as written, or null for deletions
+ */
+public record UserChangedEvent(Type type, ObjectId id, User user) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent updated(User user) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent deleted(ObjectId id) {
+        return new UserChangedEvent(Type.DELETED, id, null);
+    }
+}
\ No newline at end of file
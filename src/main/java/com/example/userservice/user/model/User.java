@@ -1,11 +1,19 @@
 package com.example.userservice.user.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.bson.types.ObjectId;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -13,9 +21,17 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
+import java.util.Locale;
+
 @Data
 @NoArgsConstructor
 @Document(collection = "users")
+@CompoundIndexes({
+        @CompoundIndex(name = "searchName_id", def = "{'searchName': 1, '_id': 1}"),
+        @CompoundIndex(name = "email_id", def = "{'email': 1, '_id': 1}"),
+        @CompoundIndex(name = "lastModified_id", def = "{'lastModified': 1, '_id': 1}")
+})
 public class User {
 
     @Id
@@ -30,6 +46,25 @@ public class User {
     @Indexed(unique = true)
     private String email;
 
+    /**
+     * Lowercased name, kept in step with {@link #setName(String)} so prefix searches are indexed range scans.
+     * Only {@link UserConverters} sets it directly, for projections that return it without the name.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.PACKAGE)
+    private String searchName;
+
+    @CreatedDate
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdAt;
+
+    /**
+     * Stamped on every save, so incremental syncs can find the users written since their watermark.
+     */
+    @LastModifiedDate
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
     public User(String name, String email) {
         setName(name);
         setEmail(email);
@@ -37,9 +72,20 @@ public class User {
     
     public void setName(String name) {
         this.name = name != null ? name.trim() : null;
+        this.searchName = this.name != null ? this.name.toLowerCase(Locale.ROOT) : null;
     }
     
     public void setEmail(String email) {
-        this.email = email != null ? email.trim().toLowerCase() : null;
+        this.email = normalizeEmail(email);
+    }
+
+    /**
+     * Normalize an email the way it is stored, so lookups can match it exactly on the unique index.
+     *
+     * @param email The email as entered
+     * @return The trimmed, lowercased email, or null
+     */
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
     }
 }
\ No newline at end of file
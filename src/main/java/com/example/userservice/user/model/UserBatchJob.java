@@ -0,0 +1,42 @@
+package com.example.userservice.user.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * Progress of a background batch job.
+ *
+ * @param id The job ID
+ * @param operation Whether the job updates or deletes users
+ * @param status Whether the job is still running
+ * @param examined The number of matching users processed so far
+ * @param succeeded The number of users updated or deleted so far
+ * @param startedAt When the job started
+ * @param finishedAt When the job finished, absent while running
+ * @param error Why the job failed, absent unless it did
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserBatchJob(
+        String id,
+        Operation operation,
+        Status status,
+        long examined,
+        @Schema(description = "Users changed; an update that leaves a user unchanged is not counted") long succeeded,
+        Instant startedAt,
+        Instant finishedAt,
+        String error) {
+
+    public enum Operation {
+        @JsonProperty("patch") PATCH,
+        @JsonProperty("delete") DELETE
+    }
+
+    public enum Status {
+        @JsonProperty("running") RUNNING,
+        @JsonProperty("completed") COMPLETED,
+        @JsonProperty("failed") FAILED
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.userservice.user.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+/**
+ * A batch operation on every user matching a prefix filter, run in the background.
+ *
+ * @param operation Whether to update or delete the matching users
+ * @param field The field to filter on, name or email
+ * @param prefix The prefix the field must start with, case-insensitive
+ * @param fields The fields to set, for updates
+ */
+public record UserBatchJobRequest(
+        UserBatchJob.Operation operation,
+        @Schema(description = "Field to filter on: name or email") String field,
+        @Schema(description = "Prefix the field must start with, case-insensitive") String prefix,
+        @Schema(description = "Fields to set on every matching user; only name can be updated in bulk")
+        Map<String, Object> fields) {
+}
\ No newline at end of file
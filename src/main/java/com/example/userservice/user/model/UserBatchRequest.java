@@ -0,0 +1,18 @@
+package com.example.userservice.user.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch operation on an explicit list of users.
+ *
+ * @param ids The IDs of the users
+ * @param fields The fields to set, for updates
+ */
+public record UserBatchRequest(
+        @Schema(description = "IDs of the users, at most user-service.users.batches.max-ids") List<String> ids,
+        @Schema(description = "Fields to set on every user; only name can be updated in bulk")
+        Map<String, Object> fields) {
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.userservice.user.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch operation on an explicit list of users.
+ *
+ * @param items The outcome for each requested ID, in request order
+ * @param succeeded The number of users updated or deleted
+ * @param notFound The number of IDs that matched no user
+ */
+public record UserBatchResult(List<Item> items, long succeeded, long notFound) {
+
+    public enum Status {
+        @JsonProperty("updated") UPDATED,
+        @JsonProperty("deleted") DELETED,
+        @JsonProperty("not_found") NOT_FOUND
+    }
+
+    /**
+     * @param id The user ID
+     * @param status What happened to the user
+     */
+    public record Item(ObjectId id, Status status) {
+    }
+
+    public static UserBatchResult of(List<Item> items) {
+        long notFound = items.stream().filter(item -> item.status() == Status.NOT_FOUND).count();
+        return new UserBatchResult(items, items.size() - notFound, notFound);
+    }
+}
\ No newline at end of file
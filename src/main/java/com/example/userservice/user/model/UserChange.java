@@ -0,0 +1,37 @@
+package com.example.userservice.user.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * A user created or updated, or deleted, since a sync watermark.
+ *
+ * @param type Whether the user now exists or was deleted
+ * @param id The user ID
+ * @param modifiedAt When the user was last written or deleted
+ * @param user The current user, absent for deletions
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserChange(
+        Type type,
+        ObjectId id,
+        Instant modifiedAt,
+        @Schema(description = "Current state of the user; absent when it was deleted") User user) {
+
+    public enum Type {
+        @JsonProperty("upserted") UPSERTED,
+        @JsonProperty("deleted") DELETED
+    }
+
+    public static UserChange upserted(User user) {
+        return new UserChange(Type.UPSERTED, user.getId(), user.getLastModified(), user);
+    }
+
+    public static UserChange deleted(UserTombstone tombstone) {
+        return new UserChange(Type.DELETED, tombstone.getId(), tombstone.getDeletedAt(), null);
+    }
+}
\ No newline at end of file
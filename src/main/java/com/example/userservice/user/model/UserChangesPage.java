@@ -0,0 +1,19 @@
+package com.example.userservice.user.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page of changes since a sync watermark.
+ *
+ * @param changes The changes, oldest first
+ * @param next Continuation token for the following page, or null if this is the last page
+ * @param watermark The point the sync has reached, to pass as 'since' next time; only on the last page
+ */
+public record UserChangesPage(
+        List<UserChange> changes,
+        @Schema(description = "Pass as 'after' to fetch the next page; absent on the last page") String next,
+        @Schema(description = "Pass as 'since' on the next sync; absent until the last page") Instant watermark) {
+}
\ No newline at end of file
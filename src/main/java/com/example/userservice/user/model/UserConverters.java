@@ -0,0 +1,90 @@
+package com.example.userservice.user.model;
+
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Maps {@link User} to and from its document by hand. Registered as custom conversions, they replace the
+ * reflective mapping of {@code MappingMongoConverter} for every template and repository read and write, while
+ * queries and updates are still mapped from the entity metadata. Names and emails are set through the User
+ * setters, so stored values are normalized the same way as request bodies.
+ */
+public final class UserConverters {
+
+    private UserConverters() {
+    }
+
+    /**
+     * Get the converters to register.
+     *
+     * @return The reading and writing converters
+     */
+    public static List<Converter<?, ?>> all() {
+        return List.of(Writing.INSTANCE, Reading.INSTANCE);
+    }
+
+    /**
+     * Writes the fields that are set, as the reflective mapping does, without a type hint.
+     */
+    @WritingConverter
+    public enum Writing implements Converter<User, Document> {
+        INSTANCE;
+
+        @Override
+        public Document convert(User user) {
+            Document document = new Document();
+            putIfSet(document, "_id", user.getId());
+            putIfSet(document, "name", user.getName());
+            putIfSet(document, "email", user.getEmail());
+            putIfSet(document, "searchName", user.getSearchName());
+            putIfSet(document, "createdAt", toDate(user.getCreatedAt()));
+            putIfSet(document, "lastModified", toDate(user.getLastModified()));
+            return document;
+        }
+
+        private static void putIfSet(Document document, String key, Object value) {
+            if (value != null) {
+                document.put(key, value);
+            }
+        }
+
+        private static Date toDate(Instant instant) {
+            return instant != null ? Date.from(instant) : null;
+        }
+    }
+
+    /**
+     * Reads full documents as well as projections, leaving fields that weren't returned null.
+     */
+    @ReadingConverter
+    public enum Reading implements Converter<Document, User> {
+        INSTANCE;
+
+        @Override
+        public User convert(Document document) {
+            User user = new User();
+            user.setId(document.getObjectId("_id"));
+            String name = document.getString("name");
+            if (name != null) {
+                user.setName(name);
+            } else {
+                // Keyset projections return the search key without the name it is derived from
+                user.setSearchName(document.getString("searchName"));
+            }
+            user.setEmail(document.getString("email"));
+            user.setCreatedAt(toInstant(document.getDate("createdAt")));
+            user.setLastModified(toInstant(document.getDate("lastModified")));
+            return user;
+        }
+
+        private static Instant toInstant(Date date) {
+            return date != null ? date.toInstant() : null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.userservice.user.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Number of users, either estimated from collection metadata or counted exactly.
+ *
+ * @param count The number of users
+ * @param exact Whether the count was obtained by counting matching documents
+ */
+public record UserCount(
+        long count,
+        @Schema(description = "False when the count is the collection-metadata estimate") boolean exact) {
+}
\ No newline at end of file
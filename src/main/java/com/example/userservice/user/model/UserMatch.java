@@ -0,0 +1,10 @@
+package com.example.userservice.user.model;
+
+/**
+ * A user found by fuzzy name search.
+ *
+ * @param user The matching user
+ * @param score Fraction of the query's trigrams found in the user's name, from 0 to 1
+ */
+public record UserMatch(User user, double score) {
+}
\ No newline at end of file
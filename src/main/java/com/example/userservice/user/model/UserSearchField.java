@@ -0,0 +1,58 @@
+package com.example.userservice.user.model;
+
+import java.util.Locale;
+
+/**
+ * User fields that support prefix search, with the lowercased document field that serves them. Each is indexed
+ * together with {@code _id}, so pages come back in index order without a sort.
+ */
+public enum UserSearchField {
+
+    NAME("searchName"),
+    EMAIL("email");
+
+    private final String documentField;
+
+    UserSearchField(String documentField) {
+        this.documentField = documentField;
+    }
+
+    public String getDocumentField() {
+        return documentField;
+    }
+
+    /**
+     * Read the normalized value of this field from a user.
+     *
+     * @param user The user
+     * @return The normalized field value
+     */
+    public String extract(User user) {
+        return this == NAME ? user.getSearchName() : user.getEmail();
+    }
+
+    /**
+     * Parse a request parameter value, ignoring case.
+     *
+     * @param value The parameter value
+     * @return The field, or null if the value does not name a searchable field
+     */
+    public static UserSearchField fromParameter(String value) {
+        for (UserSearchField field : values()) {
+            if (field.name().equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalize a search prefix the same way the document field is normalized.
+     *
+     * @param prefix The raw prefix
+     * @return The normalized prefix
+     */
+    public static String normalize(String prefix) {
+        return prefix.trim().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
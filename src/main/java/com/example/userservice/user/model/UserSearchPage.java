@@ -0,0 +1,16 @@
+package com.example.userservice.user.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * One page of prefix search results.
+ *
+ * @param users The matching users, in index order
+ * @param next Continuation token for the following page, or null if this is the last page
+ */
+public record UserSearchPage(
+        List<User> users,
+        @Schema(description = "Pass as 'after' to fetch the next page; absent on the last page") String next) {
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.userservice.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Marker left behind when a user is deleted, so incremental syncs learn about the deletion.
+ * Tombstones expire after {@link #RETENTION}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_tombstones")
+@CompoundIndex(name = "deletedAt_id", def = "{'deletedAt': 1, '_id': 1}")
+public class UserTombstone {
+
+    /**
+     * How long tombstones are kept; a sync whose watermark is older can no longer see every deletion.
+     */
+    public static final Duration RETENTION = Duration.ofDays(30);
+
+    /**
+     * The ID of the deleted user.
+     */
+    @Id
+    private ObjectId id;
+
+    @Indexed(name = "deletedAt_ttl", expireAfter = "30d")
+    private Instant deletedAt;
+}
\ No newline at end of file
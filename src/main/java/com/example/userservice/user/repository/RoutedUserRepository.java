@@ -0,0 +1,189 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserTombstone;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment that routes reads by operation class and runs writes in causally consistent
+ * sessions, so a client can read its own writes even when reads go to secondaries.
+ */
+public interface RoutedUserRepository {
+
+    /**
+     * Find a user by ID using the read preference of the given operation class
+     *
+     * @param id the user ID
+     * @param operation the read operation class
+     * @return an Optional containing the user if found, empty otherwise
+     */
+    Optional<User> findById(ObjectId id, ReadOperation operation);
+
+    /**
+     * Find the users with the given IDs using the read preference of the given operation class
+     *
+     * @param ids the user IDs
+     * @param operation the read operation class
+     * @return the users found, in no particular order
+     */
+    List<User> findAllById(Collection<ObjectId> ids, ReadOperation operation);
+
+    /**
+     * Find a user by email, case-insensitive, using the read preference of the given operation class
+     *
+     * @param email the email address to search for
+     * @param operation the read operation class
+     * @return an Optional containing the user if found, empty otherwise
+     */
+    Optional<User> findByEmailIgnoreCase(String email, ReadOperation operation);
+
+    /**
+     * Find all users using the read preference of the given operation class
+     *
+     * @param operation the read operation class
+     * @return all users
+     */
+    List<User> findAll(ReadOperation operation);
+
+    /**
+     * Find a user by ID as its raw BSON, restricted to the fields the API returns, without mapping it to a User
+     *
+     * @param id the user ID
+     * @param operation the read operation class
+     * @return an Optional containing the document if found, empty otherwise
+     */
+    Optional<RawBsonDocument> findRawById(ObjectId id, ReadOperation operation);
+
+    /**
+     * Find all users as raw BSON, restricted to the fields the API returns, without mapping them to Users
+     *
+     * @param operation the read operation class
+     * @return all user documents, in _id order
+     */
+    List<RawBsonDocument> findAllRaw(ReadOperation operation);
+
+    /**
+     * Find users whose normalized field starts with a prefix, in index order, continuing after a previous page
+     *
+     * @param field the field to search
+     * @param prefix the normalized prefix
+     * @param afterValue the field value of the last user of the previous page, or null for the first page
+     * @param afterId the ID of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users to return
+     * @return the matching users
+     */
+    List<User> findByPrefix(UserSearchField field, String prefix, String afterValue, ObjectId afterId, int limit);
+
+    /**
+     * Find users written after a sync position and no later than an upper bound, oldest first, on the primary
+     *
+     * @param after the last-modified date of the sync position
+     * @param afterId the ID of the last user of the previous page, or null to start after the date itself
+     * @param until the latest last-modified date to include
+     * @param limit the maximum number of users to return
+     * @return the users, ordered by last-modified date then ID
+     */
+    List<User> findModified(Instant after, ObjectId afterId, Instant until, int limit);
+
+    /**
+     * Find tombstones of users deleted after a sync position and no later than an upper bound, oldest first,
+     * on the primary
+     *
+     * @param after the deletion date of the sync position
+     * @param afterId the ID of the last user of the previous page, or null to start after the date itself
+     * @param until the latest deletion date to include
+     * @param limit the maximum number of tombstones to return
+     * @return the tombstones, ordered by deletion date then ID
+     */
+    List<UserTombstone> findDeleted(Instant after, ObjectId afterId, Instant until, int limit);
+
+    /**
+     * Find which of the given users exist, on the primary
+     *
+     * @param ids the user IDs
+     * @return the IDs of the users found, in no particular order
+     */
+    List<ObjectId> findExistingIds(Collection<ObjectId> ids);
+
+    /**
+     * Find the IDs of users whose normalized field starts with a prefix, in index order, continuing after a
+     * previous page, on the primary. Only the ID and the field are loaded.
+     *
+     * @param field the field to search
+     * @param prefix the normalized prefix
+     * @param afterValue the field value of the last user of the previous page, or null for the first page
+     * @param afterId the ID of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users to return
+     * @return the matching users, holding only their ID and field
+     */
+    List<User> findKeysByPrefix(UserSearchField field, String prefix, String afterValue, ObjectId afterId, int limit);
+
+    /**
+     * Estimate the number of users from the collection metadata, without scanning
+     *
+     * @return the estimated number of users
+     */
+    long estimatedCount();
+
+    /**
+     * Count the users whose normalized field starts with a prefix
+     *
+     * @param field the field to filter on, ignored without a prefix
+     * @param prefix the normalized prefix, or null to count all users
+     * @return the number of matching users
+     */
+    long countByPrefix(UserSearchField field, String prefix);
+
+    /**
+     * Save a user, recording the session token of the write for the current request
+     *
+     * @param user the user to save
+     * @param <S> the user type
+     * @return the saved user
+     */
+    <S extends User> S save(S user);
+
+    /**
+     * Insert users in one unordered bulk write with the interactive write concern, recording the session
+     * token of the write for the current request. Users without an ID are assigned one first.
+     *
+     * @param users the users to insert
+     * @return the positions of the users rejected by a unique index; every other user was inserted
+     */
+    List<Integer> insertUnordered(List<User> users);
+
+    /**
+     * Set the name of users in one bulk write, recording the session token of the write for the current request
+     *
+     * @param ids the user IDs
+     * @param name the new name
+     * @return the users whose name changed, as written, read back from the primary; users that already had the
+     * name are not written
+     */
+    List<User> updateNames(Collection<ObjectId> ids, String name);
+
+    /**
+     * Delete users in one bulk write and leave tombstones for incremental syncs, recording the session token
+     * of the write for the current request
+     *
+     * @param ids the user IDs
+     * @return the number of users deleted
+     */
+    long deleteAllByIds(Collection<ObjectId> ids);
+
+    /**
+     * Delete a user by ID and leave a tombstone for incremental syncs, recording the session token of the
+     * write for the current request
+     *
+     * @param id the user ID
+     */
+    void deleteById(ObjectId id);
+}
\ No newline at end of file
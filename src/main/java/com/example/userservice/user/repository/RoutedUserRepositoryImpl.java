@@ -0,0 +1,220 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.common.mongo.CausalSessionExecutor;
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.common.mongo.WriteConcernScope;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserTombstone;
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class RoutedUserRepositoryImpl implements RoutedUserRepository {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String INTERACTIVE_WRITES = "interactive";
+    private static final String BULK_WRITES = "bulk";
+
+    private final CausalSessionExecutor sessionExecutor;
+    private final Map<ReadOperation, ReadPreference> readPreferences = new EnumMap<>(ReadOperation.class);
+
+    public RoutedUserRepositoryImpl(CausalSessionExecutor sessionExecutor, MongoReadRoutingProperties properties) {
+        this.sessionExecutor = sessionExecutor;
+        for (ReadOperation operation : ReadOperation.values()) {
+            readPreferences.put(operation, properties.route(operation).toReadPreference());
+        }
+    }
+
+    @Override
+    public Optional<User> findById(ObjectId id, ReadOperation operation) {
+        Query query = UserQueries.byId(id).withReadPreference(readPreferences.get(operation));
+        return sessionExecutor.executeRead(ops -> Optional.ofNullable(ops.findOne(query, User.class)));
+    }
+
+    @Override
+    public List<User> findAllById(Collection<ObjectId> ids, ReadOperation operation) {
+        Query query = UserQueries.byIds(ids).withReadPreference(readPreferences.get(operation));
+        return sessionExecutor.executeRead(ops -> ops.find(query, User.class));
+    }
+
+    @Override
+    public Optional<User> findByEmailIgnoreCase(String email, ReadOperation operation) {
+        Query query = UserQueries.byEmail(email).withReadPreference(readPreferences.get(operation));
+        return sessionExecutor.executeRead(ops -> Optional.ofNullable(ops.findOne(query, User.class)));
+    }
+
+    @Override
+    public List<User> findAll(ReadOperation operation) {
+        Query query = UserQueries.listing().withReadPreference(readPreferences.get(operation));
+        return sessionExecutor.executeRead(ops -> ops.find(query, User.class));
+    }
+
+    @Override
+    public Optional<RawBsonDocument> findRawById(ObjectId id, ReadOperation operation) {
+        Query query = UserQueries.jsonView(UserQueries.byId(id));
+        ReadPreference readPreference = readPreferences.get(operation);
+        return sessionExecutor.executeRead(ops -> Optional.ofNullable(ops.execute(User.class,
+                collection -> findRaw(collection, query, readPreference).first())));
+    }
+
+    @Override
+    public List<RawBsonDocument> findAllRaw(ReadOperation operation) {
+        Query query = UserQueries.jsonView(UserQueries.listing());
+        ReadPreference readPreference = readPreferences.get(operation);
+        return sessionExecutor.executeRead(ops -> ops.execute(User.class,
+                collection -> findRaw(collection, query, readPreference).into(new ArrayList<>())));
+    }
+
+    @Override
+    public long estimatedCount() {
+        return sessionExecutor.executeRead(ops -> ops.estimatedCount(User.class));
+    }
+
+    @Override
+    public long countByPrefix(UserSearchField field, String prefix) {
+        Query query = UserQueries.prefixCount(field, prefix)
+                .withReadPreference(readPreferences.get(ReadOperation.LISTING));
+        return sessionExecutor.executeRead(ops -> ops.count(query, User.class));
+    }
+
+    @Override
+    public List<User> findByPrefix(UserSearchField field, String prefix, String afterValue, ObjectId afterId, int limit) {
+        Query query = UserQueries.prefixPage(field, prefix, afterValue, afterId, limit)
+                .withReadPreference(readPreferences.get(ReadOperation.LISTING));
+        return sessionExecutor.executeRead(ops -> ops.find(query, User.class));
+    }
+
+    // Sync pages always read the primary: a lagging secondary could hide a write older than the returned
+    // watermark, and the next sync would never look back for it
+    @Override
+    public List<User> findModified(Instant after, ObjectId afterId, Instant until, int limit) {
+        Query query = UserQueries.modifiedPage(after, afterId, until, limit)
+                .withReadPreference(ReadPreference.primary());
+        return sessionExecutor.executeRead(ops -> ops.find(query, User.class));
+    }
+
+    @Override
+    public List<UserTombstone> findDeleted(Instant after, ObjectId afterId, Instant until, int limit) {
+        Query query = UserQueries.deletedPage(after, afterId, until, limit)
+                .withReadPreference(ReadPreference.primary());
+        return sessionExecutor.executeRead(ops -> ops.find(query, UserTombstone.class));
+    }
+
+    // Batch jobs read what they are about to write from the primary, which already has every write they made
+    @Override
+    public List<ObjectId> findExistingIds(Collection<ObjectId> ids) {
+        Query query = UserQueries.existingIds(ids).withReadPreference(ReadPreference.primary());
+        return sessionExecutor.executeRead(ops -> ops.find(query, User.class)).stream()
+                .map(User::getId)
+                .toList();
+    }
+
+    @Override
+    public List<User> findKeysByPrefix(UserSearchField field, String prefix, String afterValue, ObjectId afterId,
+                                       int limit) {
+        Query query = UserQueries.prefixKeys(field, prefix, afterValue, afterId, limit)
+                .withReadPreference(ReadPreference.primary());
+        return sessionExecutor.executeRead(ops -> ops.find(query, User.class));
+    }
+
+    @Override
+    public <S extends User> S save(S user) {
+        return sessionExecutor.executeWrite(ops -> ops.save(user));
+    }
+
+    @Override
+    public List<Integer> insertUnordered(List<User> users) {
+        // Bulk inserts don't write generated IDs back to the entities, so assign them up front
+        users.stream().filter(user -> user.getId() == null).forEach(user -> user.setId(new ObjectId()));
+        // These are individual user requests, not a load job, so they keep the interactive write concern
+        return WriteConcernScope.with(INTERACTIVE_WRITES, () -> sessionExecutor.executeWrite(ops -> {
+            try {
+                ops.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(users).execute();
+                return List.<Integer>of();
+            } catch (BulkOperationException e) {
+                // Report duplicates per user; the rest of the batch was still written
+                if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                    throw e;
+                }
+                return e.getErrors().stream().map(BulkWriteError::getIndex).toList();
+            }
+        }));
+    }
+
+    @Override
+    public List<User> updateNames(Collection<ObjectId> ids, String name) {
+        User named = new User();
+        named.setName(name);
+        // Update operations bypass auditing, so the last-modified date is set here, from the same clock. Users
+        // already holding the name are left alone, and the date, at the precision Mongo stores, picks out the
+        // users this write changed.
+        Instant lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Update update = new Update()
+                .set("name", named.getName())
+                .set("searchName", named.getSearchName())
+                .set("lastModified", lastModified);
+        Query written = UserQueries.modifiedAt(ids, lastModified).withReadPreference(ReadPreference.primary());
+        return WriteConcernScope.with(BULK_WRITES, () -> sessionExecutor.executeWrite(ops -> {
+            int modified = ops.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                    .updateMulti(UserQueries.renamable(ids, named.getName()), update)
+                    .execute()
+                    .getModifiedCount();
+            return modified == 0 ? List.of() : ops.find(written, User.class);
+        }));
+    }
+
+    @Override
+    public long deleteAllByIds(Collection<ObjectId> ids) {
+        Update tombstone = Update.update("deletedAt", Instant.now());
+        return WriteConcernScope.with(BULK_WRITES, () -> sessionExecutor.executeWrite(ops -> {
+            long deleted = ops.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                    .remove(UserQueries.byIds(ids))
+                    .execute()
+                    .getDeletedCount();
+            BulkOperations tombstones = ops.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTombstone.class);
+            ids.forEach(id -> tombstones.upsert(UserQueries.byId(id), tombstone));
+            tombstones.execute();
+            return deleted;
+        }));
+    }
+
+    @Override
+    public void deleteById(ObjectId id) {
+        Query query = UserQueries.byId(id);
+        sessionExecutor.executeWrite(ops -> {
+            if (ops.remove(query, User.class).getDeletedCount() == 0) {
+                return null;
+            }
+            return ops.save(new UserTombstone(id, Instant.now()));
+        });
+    }
+
+    // The driver hands back each document as its undecoded bytes, skipping the mapping converter
+    private static FindIterable<RawBsonDocument> findRaw(MongoCollection<Document> collection, Query query,
+                                                         ReadPreference readPreference) {
+        return collection.withDocumentClass(RawBsonDocument.class)
+                .withReadPreference(readPreference)
+                .find(query.getQueryObject())
+                .projection(query.getFieldsObject())
+                .sort(query.getSortObject());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserSearchField;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * The queries the repository layer issues against the users collection, built in one place so the
+ * query plan checks explain exactly what runs in production. Every query is shaped to be served by an index.
+ */
+public final class UserQueries {
+
+    /**
+     * Sorts after every character of the basic multilingual plane, closing the range of a prefix.
+     */
+    private static final String PREFIX_UPPER_BOUND = "\uffff";
+
+    private UserQueries() {
+    }
+
+    public static Query byId(ObjectId id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    public static Query byIds(Collection<ObjectId> ids) {
+        return new Query(Criteria.where("_id").in(ids));
+    }
+
+    /**
+     * The given users whose name differs from a new one, so a bulk rename leaves the others untouched.
+     */
+    public static Query renamable(Collection<ObjectId> ids, String name) {
+        return new Query(Criteria.where("_id").in(ids).and("name").ne(name));
+    }
+
+    /**
+     * The given users last modified at an instant, to read back the ones a bulk write changed.
+     */
+    public static Query modifiedAt(Collection<ObjectId> ids, Instant lastModified) {
+        return new Query(Criteria.where("_id").in(ids).and("lastModified").is(lastModified));
+    }
+
+    /**
+     * The IDs among the given ones that exist, answered from the _id index alone.
+     */
+    public static Query existingIds(Collection<ObjectId> ids) {
+        Query query = byIds(ids);
+        query.fields().include("_id");
+        return query;
+    }
+
+    /**
+     * Restrict a query to the fields the API returns, for documents rendered straight to JSON.
+     */
+    public static Query jsonView(Query query) {
+        query.fields().include("_id", "name", "email", "createdAt", "lastModified");
+        return query;
+    }
+
+    /**
+     * Case-insensitive email lookup. Emails are stored normalized, so this is an equality match on the
+     * unique index rather than a case-insensitive regex, which can't use it.
+     */
+    public static Query byEmail(String email) {
+        return byExactEmail(User.normalizeEmail(email));
+    }
+
+    public static Query byExactEmail(String email) {
+        return new Query(Criteria.where("email").is(email));
+    }
+
+    /**
+     * Users other than the excluded one holding an email, case-insensitive.
+     */
+    public static Query emailTaken(String email, ObjectId excludeId) {
+        Criteria criteria = Criteria.where("email").is(User.normalizeEmail(email));
+        if (excludeId != null) {
+            criteria = criteria.and("_id").ne(excludeId);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * All users in _id order, so even a full listing walks the _id index in a stable order.
+     */
+    public static Query listing() {
+        return new Query().with(Sort.by("_id").ascending());
+    }
+
+    /**
+     * Users whose normalized field starts with a prefix, or all users without a prefix.
+     */
+    public static Query prefixCount(UserSearchField field, String prefix) {
+        return prefix != null ? new Query(prefixRange(field, prefix)) : new Query();
+    }
+
+    /**
+     * A page of users whose normalized field starts with a prefix, in index order, continuing after a previous page.
+     */
+    public static Query prefixPage(UserSearchField field, String prefix, String afterValue, ObjectId afterId,
+                                   int limit) {
+        String path = field.getDocumentField();
+        Criteria range = prefixRange(field, prefix);
+        Criteria criteria = range;
+        if (afterValue != null) {
+            Criteria continuation = afterId != null
+                    ? new Criteria().orOperator(
+                            Criteria.where(path).gt(afterValue),
+                            Criteria.where(path).is(afterValue).and("_id").gt(afterId))
+                    : Criteria.where(path).gt(afterValue);
+            criteria = new Criteria().andOperator(range, continuation);
+        }
+
+        return new Query(criteria)
+                .with(Sort.by(path).ascending().and(Sort.by("_id").ascending()))
+                .limit(limit);
+    }
+
+    /**
+     * A page of users written after a sync position and no later than an upper bound, oldest first.
+     */
+    public static Query modifiedPage(Instant after, ObjectId afterId, Instant until, int limit) {
+        return changesPage("lastModified", after, afterId, until, limit);
+    }
+
+    /**
+     * A page of tombstones of users deleted after a sync position and no later than an upper bound, oldest first.
+     */
+    public static Query deletedPage(Instant after, ObjectId afterId, Instant until, int limit) {
+        return changesPage("deletedAt", after, afterId, until, limit);
+    }
+
+    // Range over the timestamp/_id compound index; the _id tie-break resumes inside a run of equal timestamps
+    private static Query changesPage(String path, Instant after, ObjectId afterId, Instant until, int limit) {
+        Criteria upTo = Criteria.where(path).lte(until);
+        Criteria criteria = afterId != null
+                ? new Criteria().andOperator(upTo, new Criteria().orOperator(
+                        Criteria.where(path).gt(after),
+                        Criteria.where(path).is(after).and("_id").gt(afterId)))
+                : Criteria.where(path).gt(after).lte(until);
+
+        return new Query(criteria)
+                .with(Sort.by(path).ascending().and(Sort.by("_id").ascending()))
+                .limit(limit);
+    }
+
+    /**
+     * The IDs and keyset values of a page of users whose normalized field starts with a prefix, answered
+     * from the compound index alone, for batch jobs that walk every match.
+     */
+    public static Query prefixKeys(UserSearchField field, String prefix, String afterValue, ObjectId afterId,
+                                   int limit) {
+        Query query = prefixPage(field, prefix, afterValue, afterId, limit);
+        query.fields().include("_id").include(field.getDocumentField());
+        return query;
+    }
+
+    // Anchored range instead of a regex, so the scan starts and stops inside the index
+    private static Criteria prefixRange(UserSearchField field, String prefix) {
+        return Criteria.where(field.getDocumentField()).gte(prefix).lt(prefix + PREFIX_UPPER_BOUND);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.common.mongo.QueryPlan;
+import com.example.userservice.common.mongo.QueryPlanExplainer;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserTombstone;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every query shape the user repositories issue, with sample arguments, so their plans can be checked
+ * in tests and inspected on a live deployment.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserQueryPlans {
+
+    private static final String FALLBACK_EMAIL = "query-plan@example.com";
+    private static final String FALLBACK_PREFIX = "a";
+    private static final int SAMPLE_PREFIX_LENGTH = 2;
+    private static final ObjectId SAMPLE_ID = new ObjectId("000000000000000000000000");
+    private static final Instant SAMPLE_SINCE = Instant.EPOCH;
+    private static final int PAGE_SIZE = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryPlanExplainer explainer;
+
+    /**
+     * Explain every repository query with arguments taken from a stored user, so lookups and prefix searches
+     * match something and their plans do real work. An empty collection falls back to fixed samples.
+     *
+     * @return The plans, one per query
+     */
+    public List<QueryPlan> explain() {
+        User sample = mongoTemplate.findOne(UserQueries.listing().limit(1), User.class);
+        if (sample == null) {
+            return explain(SAMPLE_ID, FALLBACK_EMAIL, FALLBACK_PREFIX, FALLBACK_PREFIX);
+        }
+        return explain(sample.getId(), sample.getEmail(), prefix(sample.getSearchName()), prefix(sample.getEmail()));
+    }
+
+    /**
+     * Explain every repository query for a user ID, an email and a prefix per search field.
+     *
+     * @param id The ID to look up
+     * @param email The email to look up
+     * @param namePrefix The normalized name prefix to search for
+     * @param emailPrefix The normalized email prefix to search for
+     * @return The plans, one per query
+     */
+    public List<QueryPlan> explain(ObjectId id, String email, String namePrefix, String emailPrefix) {
+        return queries(id, email, namePrefix, emailPrefix).entrySet().stream()
+                .map(entry -> explainer.explain(entry.getKey(), entry.getValue().entity(), entry.getValue().query()))
+                .toList();
+    }
+
+    // Named after the repository methods issuing them; exists checks run as a find limited to one document.
+    // Explain executes the query, so the full listing is explained one page deep: the plan is the same.
+    private static Map<String, NamedQuery> queries(ObjectId id, String email, String namePrefix,
+                                                   String emailPrefix) {
+        Instant now = Instant.now();
+        Map<String, NamedQuery> queries = new LinkedHashMap<>();
+        queries.put("findById", users(UserQueries.byId(id)));
+        queries.put("findAllById", users(UserQueries.byIds(List.of(id, new ObjectId()))));
+        queries.put("findExistingIds", users(UserQueries.existingIds(List.of(id, new ObjectId()))));
+        queries.put("updateNames", users(UserQueries.renamable(List.of(id, new ObjectId()), "Alice")));
+        queries.put("updateNames(read back)",
+                users(UserQueries.modifiedAt(List.of(id, new ObjectId()), SAMPLE_SINCE)));
+        queries.put("findByEmailIgnoreCase", users(UserQueries.byEmail(email)));
+        queries.put("existsByEmailIgnoreCase", users(UserQueries.byEmail(email).limit(1)));
+        queries.put("isEmailUnique", users(UserQueries.emailTaken(email, id).limit(1)));
+        queries.put("findByExactEmail", users(UserQueries.byExactEmail(email)));
+        queries.put("findRawById", users(UserQueries.jsonView(UserQueries.byId(id))));
+        queries.put("findAll", users(UserQueries.listing().limit(PAGE_SIZE)));
+        queries.put("findAllRaw", users(UserQueries.jsonView(UserQueries.listing().limit(PAGE_SIZE))));
+        queries.put("countByPrefix(name)", users(UserQueries.prefixCount(UserSearchField.NAME, namePrefix)));
+        queries.put("countByPrefix(email)", users(UserQueries.prefixCount(UserSearchField.EMAIL, emailPrefix)));
+        queries.put("findByPrefix(name)",
+                users(UserQueries.prefixPage(UserSearchField.NAME, namePrefix, null, null, PAGE_SIZE)));
+        queries.put("findByPrefix(name, after)",
+                users(UserQueries.prefixPage(UserSearchField.NAME, namePrefix, namePrefix, SAMPLE_ID, PAGE_SIZE)));
+        queries.put("findByPrefix(email)",
+                users(UserQueries.prefixPage(UserSearchField.EMAIL, emailPrefix, null, null, PAGE_SIZE)));
+        queries.put("findByPrefix(email, after)",
+                users(UserQueries.prefixPage(UserSearchField.EMAIL, emailPrefix, emailPrefix, SAMPLE_ID, PAGE_SIZE)));
+        queries.put("findKeysByPrefix(name, after)",
+                users(UserQueries.prefixKeys(UserSearchField.NAME, namePrefix, namePrefix, SAMPLE_ID, PAGE_SIZE)));
+        queries.put("findKeysByPrefix(email, after)",
+                users(UserQueries.prefixKeys(UserSearchField.EMAIL, emailPrefix, emailPrefix, SAMPLE_ID, PAGE_SIZE)));
+        queries.put("findModified", users(UserQueries.modifiedPage(SAMPLE_SINCE, null, now, PAGE_SIZE)));
+        queries.put("findModified(after)", users(UserQueries.modifiedPage(now, SAMPLE_ID, now, PAGE_SIZE)));
+        queries.put("findDeleted", new NamedQuery(UserTombstone.class,
+                UserQueries.deletedPage(SAMPLE_SINCE, null, now, PAGE_SIZE)));
+        return queries;
+    }
+
+    private static String prefix(String value) {
+        return value.substring(0, Math.min(SAMPLE_PREFIX_LENGTH, value.length()));
+    }
+
+    private static NamedQuery users(Query query) {
+        return new NamedQuery(User.class, query);
+    }
+
+    private record NamedQuery(Class<?> entity, Query query) {
+    }
+}
\ No newline at end of file
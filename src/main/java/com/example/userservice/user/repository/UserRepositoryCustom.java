@@ -9,6 +9,22 @@ import java.util.Optional;
  * expressed with MongoRepository's method conventions
  */
 public interface UserRepositoryCustom {
+
+    /**
+     * Find a user by email, case-insensitive
+     * 
+     * @param email the email address to search for
+     * @return an Optional containing the user if found, empty otherwise
+     */
+    Optional<User> findByEmailIgnoreCase(String email);
+    
+    /**
+     * Check if a user exists with the given email, case-insensitive
+     * 
+     * @param email the email address to check
+     * @return true if a user exists with the email, false otherwise
+     */
+    boolean existsByEmailIgnoreCase(String email);
     
     /**
      * Validates if the email is unique in the database (case insensitive)
@@ -1,10 +1,10 @@
 package com.example.userservice.user.repository;
 
+import com.example.userservice.common.mongo.ObjectIds;
 import com.example.userservice.user.model.User;
 import lombok.RequiredArgsConstructor;
 import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.util.StringUtils;
 
@@ -15,25 +15,35 @@ public class UserRepositoryCustomImpl implements UserRepositoryCustom {
 
     private final MongoTemplate mongoTemplate;
 
+    @Override
+    public Optional<User> findByEmailIgnoreCase(String email) {
+        if (!StringUtils.hasText(email)) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(mongoTemplate.findOne(UserQueries.byEmail(email), User.class));
+    }
+
+    @Override
+    public boolean existsByEmailIgnoreCase(String email) {
+        if (!StringUtils.hasText(email)) {
+            return false;
+        }
+
+        return mongoTemplate.exists(UserQueries.byEmail(email), User.class);
+    }
+
     @Override
     public boolean isEmailUnique(String email, String excludeUserId) {
         if (!StringUtils.hasText(email)) {
             return true; // Empty emails are considered unique (they'll be caught by validation)
         }
 
-        Criteria criteria = Criteria.where("email").regex("^" + email + "$", "i");
-        
         // If excludeUserId is provided, exclude that user from the check
-        if (StringUtils.hasText(excludeUserId)) {
-            try {
-                ObjectId objectId = new ObjectId(excludeUserId);
-                criteria = criteria.and("id").ne(objectId);
-            } catch (IllegalArgumentException e) {
-                // If ObjectId is invalid, ignore the exclusion
-            }
-        }
-        
-        Query query = new Query(criteria);
+        // If the ID is invalid, ignore the exclusion
+        ObjectId excludeId = ObjectIds.parse(excludeUserId);
+
+        Query query = UserQueries.emailTaken(email, excludeId);
         return !mongoTemplate.exists(query, User.class);
     }
 
@@ -43,7 +53,7 @@ public class UserRepositoryCustomImpl implements UserRepositoryCustom {
             return Optional.empty();
         }
         
-        Query query = new Query(Criteria.where("email").is(email));
+        Query query = UserQueries.byExactEmail(email);
         User user = mongoTemplate.findOne(query, User.class);
         return Optional.ofNullable(user);
     }
@@ -0,0 +1,59 @@
+package com.example.userservice.user.search;
+
+import java.text.Normalizer;
+
+/**
+ * Folds names to lowercase ASCII-ish letters and digits separated by single spaces, so that
+ * "Björk Guðmundsdóttir" and "bjork gudmundsdottir" index to the same trigrams.
+ */
+public final class NameNormalizer {
+
+    private NameNormalizer() {
+    }
+
+    /**
+     * Normalize a name for indexing or querying.
+     *
+     * @param name The raw name
+     * @return The normalized name, empty if nothing searchable remains
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = result.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                result.append(' ');
+                pendingSpace = false;
+            }
+            appendFolded(result, Character.toLowerCase(c));
+        }
+        return result.toString();
+    }
+
+    // Letters that have no canonical decomposition into a base letter plus marks
+    private static void appendFolded(StringBuilder result, char c) {
+        switch (c) {
+            case 'ß' -> result.append("ss");
+            case 'æ' -> result.append("ae");
+            case 'œ' -> result.append("oe");
+            case 'ø' -> result.append('o');
+            case 'ð', 'đ' -> result.append('d');
+            case 'þ' -> result.append("th");
+            case 'ł' -> result.append('l');
+            case 'ı' -> result.append('i');
+            default -> result.append(c);
+        }
+    }
+}
\ No newline at end of file
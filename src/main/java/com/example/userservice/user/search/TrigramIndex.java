@@ -0,0 +1,394 @@
+package com.example.userservice.user.search;
+
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over normalized names.
+ * <p>
+ * Every indexed name gets an internal int document number. Posting lists are growable int arrays in
+ * ascending document order, user IDs are stored as three ints per document and looked up through an
+ * open-addressing int table, so the per-user cost stays in primitive arrays. Re-indexing a user appends
+ * a new document and marks the old one dead; dead documents are filtered at query time and dropped by
+ * compaction once they make up a quarter of the index.
+ */
+public class TrigramIndex {
+
+    private static final int ID_WORDS = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, IntList> postings = new HashMap<>();
+    private int[] idWords = new int[INITIAL_CAPACITY * ID_WORDS];
+    private byte[] gramCounts = new byte[INITIAL_CAPACITY];
+    private BitSet dead = new BitSet();
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int documents;
+    private int live;
+
+    /**
+     * A search hit.
+     *
+     * @param id The user ID
+     * @param score Fraction of the query trigrams found in the name, from 0 to 1
+     */
+    public record Match(ObjectId id, double score) {
+    }
+
+    /**
+     * Index or re-index the name of a user.
+     *
+     * @param id The user ID
+     * @param name The name, or null to remove the user
+     */
+    public void put(ObjectId id, String name) {
+        long[] grams = trigrams(NameNormalizer.normalize(name));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (grams.length == 0) {
+                return;
+            }
+            ensureCapacity(documents + 1);
+            int document = documents++;
+            writeId(document, id);
+            gramCounts[document] = (byte) Math.min(grams.length, 255);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(document);
+            }
+            slots[slotOf(document)] = document + 1;
+            live++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a user from the index.
+     *
+     * @param id The user ID
+     */
+    public void remove(ObjectId id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every user from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            idWords = new int[INITIAL_CAPACITY * ID_WORDS];
+            gramCounts = new byte[INITIAL_CAPACITY];
+            dead = new BitSet();
+            slots = new int[INITIAL_CAPACITY * 2];
+            documents = 0;
+            live = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed users.
+     *
+     * @return The number of live documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the names sharing the most trigrams with the query.
+     * Hits are ranked by the fraction of query trigrams they contain, then by overall similarity,
+     * so a short query still ranks the full name it abbreviates first.
+     *
+     * @param query The raw query
+     * @param limit The maximum number of hits
+     * @param minScore The minimum fraction of query trigrams a hit must contain
+     * @return The hits, best first
+     */
+    public List<Match> search(String query, int limit, double minScore) {
+        long[] grams = trigrams(NameNormalizer.normalize(query));
+        if (grams.length == 0 || limit < 1) {
+            return List.of();
+        }
+
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1);
+        lock.readLock().lock();
+        try {
+            int[][] lists = new int[grams.length][];
+            int[] lengths = new int[grams.length];
+            int count = 0;
+            for (long gram : grams) {
+                IntList list = postings.get(gram);
+                if (list != null) {
+                    lists[count] = list.values;
+                    lengths[count] = list.size;
+                    count++;
+                }
+            }
+            int minShared = (int) Math.ceil(minScore * grams.length);
+            collect(lists, lengths, count, grams.length, Math.max(minShared, 1), limit, best);
+
+            List<Match> matches = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Candidate candidate = best.poll();
+                matches.add(new Match(readId(candidate.document), candidate.coverage));
+            }
+            Collections.reverse(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // K-way merge over the ascending posting lists, counting shared trigrams per document
+    private void collect(int[][] lists, int[] lengths, int count, int queryGrams, int minShared, int limit,
+                         PriorityQueue<Candidate> best) {
+        int[] positions = new int[count];
+        while (true) {
+            int document = Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                if (positions[i] < lengths[i] && lists[i][positions[i]] < document) {
+                    document = lists[i][positions[i]];
+                }
+            }
+            if (document == Integer.MAX_VALUE) {
+                return;
+            }
+            int shared = 0;
+            for (int i = 0; i < count; i++) {
+                if (positions[i] < lengths[i] && lists[i][positions[i]] == document) {
+                    shared++;
+                    positions[i]++;
+                }
+            }
+            if (shared < minShared || dead.get(document)) {
+                continue;
+            }
+            int documentGrams = gramCounts[document] & 0xFF;
+            Candidate candidate = new Candidate(document, (double) shared / queryGrams,
+                    (double) shared / (queryGrams + documentGrams - shared));
+            if (best.size() < limit) {
+                best.add(candidate);
+            } else if (candidate.compareTo(best.peek()) > 0) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+    }
+
+    private void removeLocked(ObjectId id) {
+        int document = lookup(id);
+        if (document >= 0 && !dead.get(document)) {
+            dead.set(document);
+            live--;
+            if (documents - live >= MIN_DEAD_FOR_COMPACTION && documents - live > documents / 4) {
+                compact();
+            }
+        }
+    }
+
+    // Renumber live documents densely and drop dead ones from every posting list, preserving order
+    private void compact() {
+        int[] renumbered = new int[documents];
+        int next = 0;
+        for (int document = 0; document < documents; document++) {
+            renumbered[document] = dead.get(document) ? -1 : next++;
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(next, 1)) << 1);
+        int[] newIdWords = new int[capacity * ID_WORDS];
+        byte[] newGramCounts = new byte[capacity];
+        for (int document = 0; document < documents; document++) {
+            int target = renumbered[document];
+            if (target >= 0) {
+                System.arraycopy(idWords, document * ID_WORDS, newIdWords, target * ID_WORDS, ID_WORDS);
+                newGramCounts[target] = gramCounts[document];
+            }
+        }
+
+        Map<Long, IntList> newPostings = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, list) -> {
+            IntList kept = new IntList();
+            for (int i = 0; i < list.size; i++) {
+                int target = renumbered[list.values[i]];
+                if (target >= 0) {
+                    kept.add(target);
+                }
+            }
+            if (kept.size > 0) {
+                newPostings.put(gram, kept);
+            }
+        });
+
+        postings = newPostings;
+        idWords = newIdWords;
+        gramCounts = newGramCounts;
+        dead = new BitSet();
+        documents = next;
+        rehash(capacity * 2);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > gramCounts.length) {
+            int capacity = gramCounts.length * 2;
+            idWords = Arrays.copyOf(idWords, capacity * ID_WORDS);
+            gramCounts = Arrays.copyOf(gramCounts, capacity);
+        }
+        // Keep the ID table at most half full
+        if (required * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int document = 0; document < documents; document++) {
+            if (!dead.get(document)) {
+                slots[slotOf(document)] = document + 1;
+            }
+        }
+    }
+
+    private int lookup(ObjectId id) {
+        byte[] bytes = id.toByteArray();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int w0 = buffer.getInt();
+        int w1 = buffer.getInt();
+        int w2 = buffer.getInt();
+        int mask = slots.length - 1;
+        for (int slot = hash(w0, w1, w2) & mask; ; slot = (slot + 1) & mask) {
+            int document = slots[slot] - 1;
+            if (document < 0) {
+                return -1;
+            }
+            int offset = document * ID_WORDS;
+            if (idWords[offset] == w0 && idWords[offset + 1] == w1 && idWords[offset + 2] == w2) {
+                return document;
+            }
+        }
+    }
+
+    // Slot holding the document's ID, or the empty slot where it belongs
+    private int slotOf(int document) {
+        int offset = document * ID_WORDS;
+        int w0 = idWords[offset];
+        int w1 = idWords[offset + 1];
+        int w2 = idWords[offset + 2];
+        int mask = slots.length - 1;
+        for (int slot = hash(w0, w1, w2) & mask; ; slot = (slot + 1) & mask) {
+            int occupant = slots[slot] - 1;
+            if (occupant < 0) {
+                return slot;
+            }
+            int occupantOffset = occupant * ID_WORDS;
+            if (idWords[occupantOffset] == w0 && idWords[occupantOffset + 1] == w1
+                    && idWords[occupantOffset + 2] == w2) {
+                return slot;
+            }
+        }
+    }
+
+    private void writeId(int document, ObjectId id) {
+        ByteBuffer buffer = ByteBuffer.wrap(id.toByteArray());
+        int offset = document * ID_WORDS;
+        idWords[offset] = buffer.getInt();
+        idWords[offset + 1] = buffer.getInt();
+        idWords[offset + 2] = buffer.getInt();
+    }
+
+    private ObjectId readId(int document) {
+        int offset = document * ID_WORDS;
+        ByteBuffer buffer = ByteBuffer.allocate(12)
+                .putInt(idWords[offset])
+                .putInt(idWords[offset + 1])
+                .putInt(idWords[offset + 2]);
+        return new ObjectId(buffer.array());
+    }
+
+    private static int hash(int w0, int w1, int w2) {
+        int h = w0 * 0x9E3779B9 ^ w1 * 0x85EBCA6B ^ w2 * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Distinct trigrams of a normalized name. Each word is padded with two leading and one trailing space,
+     * so word starts weigh more than word middles.
+     *
+     * @param normalized The normalized name
+     * @return The distinct trigrams, each packed as three 16-bit chars, in ascending order
+     */
+    static long[] trigrams(String normalized) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        long[] grams = new long[normalized.length() * 3];
+        int count = 0;
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private record Candidate(int document, double coverage, double similarity) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            int result = Double.compare(coverage, other.coverage);
+            if (result == 0) {
+                result = Double.compare(similarity, other.similarity);
+            }
+            // Earlier documents win ties, keeping results stable
+            return result != 0 ? result : Integer.compare(other.document, document);
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.example.userservice.user.search;
+
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.user.event.UserChangedEvent;
+import com.example.userservice.user.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link TrigramIndex} of all user names for typo-tolerant search.
+ * The index is loaded in the background at startup by streaming the collection, retrying with backoff
+ * until a load succeeds, and then follows the service write path through {@link UserChangedEvent}s.
+ */
+@Component
+@Slf4j
+public class UserNameIndex {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoReadRoutingProperties routingProperties;
+    private final double minScore;
+    private final TrigramIndex index = new TrigramIndex();
+
+    // IDs changed by events while the initial load runs; the load must not overwrite them with older names.
+    // Guarded by loadLock, so an event can't land between the load's check and its put.
+    private final Object loadLock = new Object();
+    private final Set<ObjectId> changedDuringLoad = new HashSet<>();
+    private boolean loading;
+    private volatile boolean ready;
+    private volatile String lastError;
+
+    public UserNameIndex(MongoTemplate mongoTemplate, MongoReadRoutingProperties routingProperties,
+                         @Value("${user-service.search.fuzzy.min-score:0.5}") double minScore) {
+        this.mongoTemplate = mongoTemplate;
+        this.routingProperties = routingProperties;
+        this.minScore = minScore;
+    }
+
+    /**
+     * Start loading the index once the application is ready, without delaying startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofVirtual().name("user-name-index-loader").start(this::loadWithRetry);
+    }
+
+    private void loadWithRetry() {
+        Duration backoff = INITIAL_BACKOFF;
+        while (true) {
+            try {
+                load();
+                return;
+            } catch (RuntimeException e) {
+                lastError = e.getMessage();
+                log.warn("Failed to load the user name search index, retrying in {}", backoff, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2);
+            if (backoff.compareTo(MAX_BACKOFF) > 0) {
+                backoff = MAX_BACKOFF;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the index from the collection. A failed load leaves the index not ready and rethrows.
+     */
+    public void load() {
+        long started = System.nanoTime();
+        synchronized (loadLock) {
+            loading = true;
+            ready = false;
+            index.clear();
+        }
+        Query query = new Query().withReadPreference(routingProperties.route(ReadOperation.EXPORT).toReadPreference());
+        query.fields().include("_id", "name");
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(User.class))) {
+            documents.forEach(document -> {
+                ObjectId id = document.getObjectId("_id");
+                synchronized (loadLock) {
+                    if (!changedDuringLoad.contains(id)) {
+                        index.put(id, document.getString("name"));
+                    }
+                }
+            });
+            lastError = null;
+            ready = true;
+            log.info("Loaded {} user names into the search index in {} ms",
+                    index.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (loadLock) {
+                loading = false;
+                changedDuringLoad.clear();
+            }
+        }
+    }
+
+    /**
+     * Apply a change made through the service.
+     *
+     * @param event The change
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (loadLock) {
+            if (loading) {
+                changedDuringLoad.add(event.id());
+            }
+            if (event.type() == UserChangedEvent.Type.DELETED) {
+                index.remove(event.id());
+            } else {
+                index.put(event.id(), event.user().getName());
+            }
+        }
+    }
+
+    /**
+     * Search names by trigram similarity.
+     *
+     * @param query The raw query
+     * @param limit The maximum number of hits
+     * @return The hits, best first
+     */
+    public List<TrigramIndex.Match> search(String query, int limit) {
+        return index.search(query, limit, minScore);
+    }
+
+    /**
+     * Check whether the initial load has completed.
+     *
+     * @return true if the index covers the whole collection
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.userservice.user.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the fuzzy search index out of service until its initial load has succeeded, with the error of the
+ * last failed attempt. Only fuzzy search depends on it, so it is left out of the readiness group.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserNameIndexHealthIndicator implements HealthIndicator {
+
+    private final UserNameIndex nameIndex;
+
+    @Override
+    public Health health() {
+        if (nameIndex.isReady()) {
+            return Health.up().withDetail("names", nameIndex.size()).build();
+        }
+        Health.Builder builder = Health.outOfService().withDetail("status", "loading");
+        if (nameIndex.getLastError() != null) {
+            builder.withDetail("lastError", nameIndex.getLastError());
+        }
+        return builder.build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.userservice.user.service;
+
+import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.user.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Reads users as raw BSON for endpoints that write it straight to JSON, skipping the User mapping on the
+ * way out of the driver and the Jackson bean serializer on the way into the response. Which reads take this
+ * path is set under {@code user-service.users.raw-reads}. The controller calls it instead of
+ * {@link UserServiceImpl}, so its reads are observed as service calls too, keeping the service span in traces.
+ */
+@Service
+@RequiredArgsConstructor
+public class RawUserReads {
+
+    private final UserRepository userRepository;
+    private final UserServiceProperties properties;
+
+    /**
+     * Whether reads by ID take the raw path.
+     *
+     * @return True if enabled
+     */
+    public boolean isPoint() {
+        return properties.getRawReads().isPoint();
+    }
+
+    /**
+     * Whether the full listing takes the raw path.
+     *
+     * @return True if enabled
+     */
+    public boolean isListing() {
+        return properties.getRawReads().isListing();
+    }
+
+    /**
+     * Get a user by ID.
+     *
+     * @param id The user ID
+     * @return The user document
+     * @throws ResourceNotFoundException if the user doesn't exist
+     */
+    @Observed(name = "user.service")
+    public RawBsonDocument getUserById(ObjectId id) {
+        return userRepository.findRawById(id, ReadOperation.POINT)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    }
+
+    /**
+     * Get all users.
+     *
+     * @return The user documents, in _id order
+     */
+    @Observed(name = "user.service")
+    public List<RawBsonDocument> getAllUsers() {
+        return userRepository.findAllRaw(ReadOperation.LISTING);
+    }
+}
\ No newline at end of file
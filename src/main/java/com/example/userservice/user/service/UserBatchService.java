@@ -0,0 +1,291 @@
+package com.example.userservice.user.service;
+
+import com.example.userservice.common.exception.BadRequestException;
+import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.exception.ServiceUnavailableException;
+import com.example.userservice.user.event.UserChangedEvent;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserBatchJob;
+import com.example.userservice.user.model.UserBatchResult;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Updates and deletes many users with bulk writes, in chunks paced so that large jobs leave room for
+ * interactive traffic. Explicit ID lists run within the request and report each user; jobs selecting users
+ * by prefix run in the background and report progress.
+ */
+@Service
+@Slf4j
+public class UserBatchService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserServiceProperties.Batches properties;
+    private final AtomicInteger runningJobs = new AtomicInteger();
+    private final Map<String, Job> jobs;
+
+    public UserBatchService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                            UserServiceProperties properties) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties.getBatches();
+        if (this.properties.getDutyCycle() <= 0 || this.properties.getDutyCycle() > 1) {
+            throw new IllegalArgumentException("Batch duty cycle must be in (0, 1]");
+        }
+        int history = this.properties.getJobHistory();
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > history;
+            }
+        };
+    }
+
+    /**
+     * Set fields on a list of users.
+     *
+     * @param ids The user IDs
+     * @param fields The fields to set; only the name can be set in bulk
+     * @return The outcome for each user
+     * @throws BadRequestException if the IDs or fields are invalid
+     */
+    public UserBatchResult patch(List<ObjectId> ids, Map<String, Object> fields) {
+        String name = name(fields);
+        return run(ids, UserBatchResult.Status.UPDATED, found -> updateNames(found, name));
+    }
+
+    /**
+     * Delete a list of users.
+     *
+     * @param ids The user IDs
+     * @return The outcome for each user
+     * @throws BadRequestException if the IDs are invalid
+     */
+    public UserBatchResult delete(List<ObjectId> ids) {
+        return run(ids, UserBatchResult.Status.DELETED, this::deleteAll);
+    }
+
+    /**
+     * Start a background job updating or deleting every user whose field starts with a prefix.
+     *
+     * @param operation Whether to update or delete the users
+     * @param field The field to filter on
+     * @param prefix The prefix to match, case-insensitive
+     * @param fields The fields to set, for updates; only the name can be set in bulk
+     * @return The progress of the new job
+     * @throws BadRequestException if the filter or fields are invalid
+     * @throws ServiceUnavailableException if too many jobs are running
+     */
+    public UserBatchJob start(UserBatchJob.Operation operation, UserSearchField field, String prefix,
+                              Map<String, Object> fields) {
+        if (operation == null) {
+            throw new BadRequestException("Operation must be one of: patch, delete");
+        }
+        if (field == null) {
+            throw new BadRequestException("Search field must be one of: name, email");
+        }
+        // An empty prefix would select every user; that is never what a cleanup job means
+        if (!StringUtils.hasText(prefix)) {
+            throw new BadRequestException("Prefix cannot be empty");
+        }
+        String name = operation == UserBatchJob.Operation.PATCH ? name(fields) : null;
+        String normalizedPrefix = UserSearchField.normalize(prefix);
+
+        if (runningJobs.incrementAndGet() > properties.getMaxRunningJobs()) {
+            runningJobs.decrementAndGet();
+            throw new ServiceUnavailableException("Too many batch jobs running");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), operation);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        log.info("Starting batch {} job {} on users with {} prefix: {}", operation, job.id, field, normalizedPrefix);
+        Thread.ofVirtual().name("user-batch-" + job.id).start(() -> {
+            try {
+                runJob(job, field, normalizedPrefix, name);
+            } finally {
+                runningJobs.decrementAndGet();
+            }
+        });
+        return job.snapshot();
+    }
+
+    /**
+     * Get the progress of a background job.
+     *
+     * @param id The job ID
+     * @return The job progress
+     * @throws ResourceNotFoundException if no such job is known
+     */
+    public UserBatchJob getJob(String id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("Batch job", "id", id);
+        }
+        return job.snapshot();
+    }
+
+    private UserBatchResult run(List<ObjectId> ids, UserBatchResult.Status status, Operation operation) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("No IDs provided");
+        }
+        if (ids.size() > properties.getMaxIds()) {
+            throw new BadRequestException("At most " + properties.getMaxIds()
+                    + " IDs per request; select larger sets with a batch job");
+        }
+        List<ObjectId> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        log.debug("Running batch {} on {} users", status, distinct.size());
+
+        List<UserBatchResult.Item> items = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += properties.getChunkSize()) {
+            long started = System.nanoTime();
+            int to = Math.min(from + properties.getChunkSize(), distinct.size());
+            List<ObjectId> chunk = distinct.subList(from, to);
+            Set<ObjectId> found = new HashSet<>(userRepository.findExistingIds(chunk));
+            if (!found.isEmpty()) {
+                operation.apply(List.copyOf(found));
+            }
+            for (ObjectId id : chunk) {
+                items.add(new UserBatchResult.Item(id, found.contains(id) ? status : UserBatchResult.Status.NOT_FOUND));
+            }
+            if (to < distinct.size()) {
+                pause(started);
+            }
+        }
+        return UserBatchResult.of(items);
+    }
+
+    // Walks the matches in index order. Renamed users may move ahead of the cursor and be visited again;
+    // the repository skips users that already have the name, so they are not written, counted or announced twice
+    private void runJob(Job job, UserSearchField field, String prefix, String name) {
+        String afterValue = null;
+        ObjectId afterId = null;
+        try {
+            while (true) {
+                long started = System.nanoTime();
+                List<User> keys = userRepository.findKeysByPrefix(field, prefix, afterValue, afterId,
+                        properties.getChunkSize());
+                if (keys.isEmpty()) {
+                    break;
+                }
+                User last = keys.get(keys.size() - 1);
+                afterValue = field.extract(last);
+                afterId = last.getId();
+
+                List<ObjectId> ids = keys.stream().map(User::getId).toList();
+                job.succeeded.addAndGet(job.operation == UserBatchJob.Operation.PATCH
+                        ? updateNames(ids, name)
+                        : deleteAll(ids));
+                job.examined.addAndGet(keys.size());
+                if (keys.size() < properties.getChunkSize()) {
+                    break;
+                }
+                pause(started);
+            }
+            job.finish(UserBatchJob.Status.COMPLETED, null);
+            log.info("Batch job {} completed: {} users examined, {} changed", job.id, job.examined, job.succeeded);
+        } catch (RuntimeException e) {
+            job.finish(UserBatchJob.Status.FAILED, e.getMessage());
+            log.error("Batch job {} failed after {} users", job.id, job.examined, e);
+        }
+    }
+
+    private long updateNames(List<ObjectId> ids, String name) {
+        long changed = 0;
+        for (User user : userRepository.updateNames(ids, name)) {
+            eventPublisher.publishEvent(UserChangedEvent.updated(user));
+            changed++;
+        }
+        return changed;
+    }
+
+    private long deleteAll(List<ObjectId> ids) {
+        long deleted = userRepository.deleteAllByIds(ids);
+        ids.forEach(id -> eventPublisher.publishEvent(UserChangedEvent.deleted(id)));
+        return deleted;
+    }
+
+    // Stay idle long enough that the chunk just written used at most the duty cycle
+    private void pause(long startedNanos) {
+        double dutyCycle = properties.getDutyCycle();
+        long busy = System.nanoTime() - startedNanos;
+        long idle = (long) (busy * (1 - dutyCycle) / dutyCycle);
+        if (idle > 0) {
+            LockSupport.parkNanos(idle);
+        }
+    }
+
+    // Emails are unique, so the name is the only field that can be set on many users at once
+    private static String name(Map<String, Object> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new BadRequestException("No fields provided for update");
+        }
+        if (fields.size() > 1 || !fields.containsKey("name")) {
+            throw new BadRequestException("Only name can be updated in bulk");
+        }
+        Object nameValue = fields.get("name");
+        if (nameValue == null) {
+            throw new BadRequestException("Name cannot be null");
+        }
+        String name = nameValue.toString();
+        if (!StringUtils.hasText(name)) {
+            throw new BadRequestException("Name cannot be empty");
+        }
+        return name;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        long apply(List<ObjectId> ids);
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final UserBatchJob.Operation operation;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong examined = new AtomicLong();
+        private final AtomicLong succeeded = new AtomicLong();
+        private volatile UserBatchJob.Status status = UserBatchJob.Status.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(String id, UserBatchJob.Operation operation) {
+            this.id = id;
+            this.operation = operation;
+        }
+
+        private void finish(UserBatchJob.Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private UserBatchJob snapshot() {
+            return new UserBatchJob(id, operation, status, examined.get(), succeeded.get(), startedAt, finishedAt,
+                    error);
+        }
+    }
+}
\ No newline at end of file
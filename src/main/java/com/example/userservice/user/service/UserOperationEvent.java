@@ -0,0 +1,128 @@
+package com.example.userservice.user.service;
+
+import com.example.userservice.common.exception.BadRequestException;
+import com.example.userservice.common.exception.DuplicateResourceException;
+import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.exception.ServiceUnavailableException;
+import com.example.userservice.common.timing.RequestTimings;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.bson.types.ObjectId;
+
+/**
+ * Flight recorder event for one user service operation, with its outcome and the Mongo commands it sent on
+ * the request thread. Reads served by another request's in-flight query or batch show no commands.
+ * <p>
+ * While no recording enables the event, {@link #start} only allocates an event the JIT can eliminate and
+ * {@link #finish} does nothing; fields are filled in only for a recording.
+ */
+@Name(UserOperationEvent.NAME)
+@Label("User Operation")
+@Category("User Service")
+@Description("A user service operation, its outcome and its Mongo round trips")
+@StackTrace(false)
+final class UserOperationEvent extends Event {
+
+    static final String NAME = "com.example.userservice.UserOperation";
+
+    static final String LOOKUP = "lookup";
+    static final String CREATE = "create";
+    static final String UPDATE = "update";
+    static final String PATCH = "patch";
+    static final String DELETE = "delete";
+    static final String EMAIL_CHECK = "email check";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User ID")
+    String userId;
+
+    @Label("Outcome")
+    @Description("ok, not found, conflict, bad request, unavailable or error")
+    String outcome;
+
+    @Label("Mongo Commands")
+    int mongoCommands;
+
+    @Label("Mongo Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mongoTime;
+
+    private transient RequestTimings timings;
+    private transient int commandsBefore;
+    private transient long mongoNanosBefore;
+
+    /**
+     * Start timing an operation.
+     *
+     * @param operation The operation name
+     * @param id The user ID, or null when not known up front
+     * @return The event, to finish when the operation returns or throws
+     */
+    static UserOperationEvent start(String operation, ObjectId id) {
+        UserOperationEvent event = new UserOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.userId = id != null ? id.toHexString() : null;
+            event.timings = RequestTimings.current();
+            if (event.timings != null) {
+                event.commandsBefore = event.timings.getCommands();
+                event.mongoNanosBefore = event.timings.getDatabaseNanos();
+            }
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Record the outcome of a failed operation.
+     *
+     * @param failure The exception the operation throws
+     * @return The exception, for rethrowing
+     */
+    RuntimeException failed(RuntimeException failure) {
+        if (isEnabled()) {
+            outcome = outcomeOf(failure);
+        }
+        return failure;
+    }
+
+    /**
+     * End the operation and commit the event if a recording wants it.
+     */
+    void finish() {
+        end();
+        if (shouldCommit()) {
+            if (outcome == null) {
+                outcome = "ok";
+            }
+            if (timings != null) {
+                mongoCommands = timings.getCommands() - commandsBefore;
+                mongoTime = timings.getDatabaseNanos() - mongoNanosBefore;
+            }
+            commit();
+        }
+    }
+
+    private static String outcomeOf(RuntimeException failure) {
+        if (failure instanceof ResourceNotFoundException) {
+            return "not found";
+        }
+        if (failure instanceof DuplicateResourceException) {
+            return "conflict";
+        }
+        if (failure instanceof BadRequestException) {
+            return "bad request";
+        }
+        if (failure instanceof ServiceUnavailableException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+}
\ No newline at end of file
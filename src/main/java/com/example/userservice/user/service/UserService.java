@@ -1,8 +1,14 @@
 package com.example.userservice.user.service;
 
 import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserChangesPage;
+import com.example.userservice.user.model.UserCount;
+import com.example.userservice.user.model.UserMatch;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserSearchPage;
 import org.bson.types.ObjectId;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -85,4 +91,54 @@ public interface UserService {
      * @throws com.example.userservice.common.exception.ResourceNotFoundException if user not found
      */
     User getUserByEmail(String email);
+
+    /**
+     * Find users whose name or email starts with a prefix, for autocomplete.
+     *
+     * @param field The field to search
+     * @param prefix The prefix to match, case-insensitive
+     * @param limit The maximum number of users to return
+     * @param after Continuation token from the previous page, or null for the first page
+     * @return One page of matching users
+     * @throws com.example.userservice.common.exception.BadRequestException if the search parameters are invalid
+     */
+    UserSearchPage searchByPrefix(UserSearchField field, String prefix, int limit, String after);
+
+    /**
+     * Find users whose name resembles the query, tolerating typos and accents.
+     *
+     * @param query The name to search for
+     * @param limit The maximum number of users to return
+     * @return The matching users, best match first
+     * @throws com.example.userservice.common.exception.BadRequestException if the search parameters are invalid
+     * @throws com.example.userservice.common.exception.ServiceUnavailableException if the search index is still loading
+     */
+    List<UserMatch> fuzzySearchByName(String query, int limit);
+
+    /**
+     * Count users. Without a filter and unless an exact count is requested, the count is the
+     * estimate kept in the collection metadata; otherwise matching documents are counted and
+     * the result is reused for a short time.
+     *
+     * @param exact Whether to count documents instead of using the estimate
+     * @param field The field to filter on, required with a prefix
+     * @param prefix Optional prefix the field must start with, case-insensitive
+     * @return The user count
+     * @throws com.example.userservice.common.exception.BadRequestException if the filter is invalid
+     */
+    UserCount countUsers(boolean exact, UserSearchField field, String prefix);
+
+    /**
+     * Get the users created, updated or deleted since a sync watermark, oldest first, so a mirror can apply
+     * only the changes instead of reloading every user.
+     *
+     * @param since The watermark returned by the previous sync, or null to sync from the beginning
+     * @param limit The maximum number of changes to return
+     * @param after Continuation token from the previous page, or null for the first page
+     * @return One page of changes
+     * @throws com.example.userservice.common.exception.BadRequestException if the parameters are invalid
+     * @throws com.example.userservice.common.exception.ResourceGoneException if deletions since the watermark
+     *         are no longer retained
+     */
+    UserChangesPage getChanges(Instant since, int limit, String after);
 }
\ No newline at end of file
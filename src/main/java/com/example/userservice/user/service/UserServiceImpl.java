@@ -1,60 +1,176 @@
 package com.example.userservice.user.service;
 
+import com.example.userservice.common.cache.ExpiringCache;
+import com.example.userservice.common.concurrency.BatchLoader;
+import com.example.userservice.common.concurrency.MicroBatcher;
+import com.example.userservice.common.concurrency.SingleFlight;
 import com.example.userservice.common.exception.BadRequestException;
 import com.example.userservice.common.exception.DuplicateResourceException;
+import com.example.userservice.common.exception.ResourceGoneException;
 import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.exception.ServiceUnavailableException;
+import com.example.userservice.common.mongo.CausalSessionContext;
+import com.example.userservice.common.mongo.CausalSessionToken;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.common.paging.KeysetCursor;
+import com.example.userservice.user.event.UserChangedEvent;
 import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserChange;
+import com.example.userservice.user.model.UserChangesPage;
+import com.example.userservice.user.model.UserCount;
+import com.example.userservice.user.model.UserMatch;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserSearchPage;
+import com.example.userservice.user.model.UserTombstone;
 import com.example.userservice.user.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.userservice.user.search.TrigramIndex;
+import com.example.userservice.user.search.UserNameIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.annotation.Observed;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the UserService interface.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class UserServiceImpl implements UserService {
+@Observed(name = "user.service")
+public class UserServiceImpl implements UserService, MeterBinder {
+
+    static final int MAX_SEARCH_LIMIT = 50;
+    static final int MAX_CHANGES_LIMIT = 1000;
+
+    private static final String ALL_USERS = "*";
+    private static final Comparator<UserChange> CHANGE_ORDER =
+            Comparator.comparing(UserChange::modifiedAt).thenComparing(UserChange::id);
 
     private final UserRepository userRepository;
+    private final UserNameIndex userNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpiringCache<String, Long> exactCounts;
+    private final SingleFlight<String, Long> exactCountLoads = new SingleFlight<>();
+    private final Duration changesSettleWindow;
+    private final SingleFlight<ObjectId, Optional<User>> idLookups = new SingleFlight<>();
+    private final SingleFlight<String, Optional<User>> emailLookups = new SingleFlight<>();
+    private final BatchLoader<ObjectId, User> idBatches;
+    private final MicroBatcher<User, CreatedUser> createBatches;
+
+    public UserServiceImpl(UserRepository userRepository, UserNameIndex userNameIndex,
+                           ApplicationEventPublisher eventPublisher, UserServiceProperties properties) {
+        this.userRepository = userRepository;
+        this.userNameIndex = userNameIndex;
+        this.eventPublisher = eventPublisher;
+        this.exactCounts = new ExpiringCache<>(properties.getCount().getExactCacheTtl(),
+                properties.getCount().getExactCacheSize());
+        this.changesSettleWindow = properties.getChanges().getSettleWindow();
+        UserServiceProperties.PointReads pointReads = properties.getPointReads();
+        this.idBatches = pointReads.isBatching()
+                ? new BatchLoader<>(this::loadUsers, pointReads.getMaxBatchSize(), pointReads.getMaxWait().toNanos(),
+                        pointReads.getMaxConcurrentBatches())
+                : null;
+        UserServiceProperties.Creates creates = properties.getCreates();
+        this.createBatches = creates.isGroupCommit()
+                ? new MicroBatcher<>(this::insertUsers, creates.getMaxBatchSize(), creates.getMaxWait().toNanos(),
+                        creates.getMaxConcurrentBatches())
+                : null;
+    }
 
     @Override
     public User getUserById(ObjectId id) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.LOOKUP, id);
+        try {
+            return findUserById(id);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private User findUserById(ObjectId id) {
         log.debug("Getting user with ID: {}", id);
-        return userRepository.findById(id)
+        return lookup(idLookups, id, () -> findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
     }
 
     @Override
     public List<User> getAllUsers() {
         log.debug("Getting all users");
-        return userRepository.findAll();
+        return userRepository.findAll(ReadOperation.LISTING);
     }
 
     @Override
     public User createUser(User user) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.CREATE, null);
+        try {
+            return create(user);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private User create(User user) {
         if (user == null) {
             throw new BadRequestException("User cannot be null");
         }
 
         log.debug("Creating new user with email: {}", user.getEmail());
         
+        if (createBatches != null) {
+            User createdUser = groupCommit(user);
+            eventPublisher.publishEvent(UserChangedEvent.created(createdUser));
+            return createdUser;
+        }
+
         // Check for email uniqueness
         if (userRepository.existsByEmailIgnoreCase(user.getEmail())) {
             throw new DuplicateResourceException("User", "email", user.getEmail());
         }
         
-        return userRepository.save(user);
+        User createdUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(createdUser));
+        return createdUser;
     }
 
     @Override
     public User updateUser(ObjectId id, User user) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.UPDATE, id);
+        try {
+            return update(id, user);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private User update(ObjectId id, User user) {
         if (user == null) {
             throw new BadRequestException("User cannot be null");
         }
@@ -71,14 +187,28 @@ public class UserServiceImpl implements UserService {
             throw new DuplicateResourceException("User", "email", user.getEmail());
         }
         
-        // Preserve the ID
+        // Preserve the ID and creation date
         user.setId(id);
+        user.setCreatedAt(existingUser.getCreatedAt());
         
-        return userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(updatedUser));
+        return updatedUser;
     }
 
     @Override
     public User patchUser(ObjectId id, Map<String, Object> fields) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.PATCH, id);
+        try {
+            return patch(id, fields);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private User patch(ObjectId id, Map<String, Object> fields) {
         if (fields == null || fields.isEmpty()) {
             throw new BadRequestException("No fields provided for update");
         }
@@ -129,11 +259,24 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("No valid fields provided for update");
         }
         
-        return userRepository.save(user);
+        User patchedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(patchedUser));
+        return patchedUser;
     }
 
     @Override
     public void deleteUser(ObjectId id) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.DELETE, id);
+        try {
+            delete(id);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private void delete(ObjectId id) {
         log.debug("Deleting user with ID: {}", id);
         
         // Check if user exists
@@ -142,10 +285,22 @@ public class UserServiceImpl implements UserService {
         }
         
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
     }
 
     @Override
     public boolean existsByEmail(String email) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.EMAIL_CHECK, null);
+        try {
+            return emailExists(email);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private boolean emailExists(String email) {
         if (!StringUtils.hasText(email)) {
             return false;
         }
@@ -155,13 +310,248 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserByEmail(String email) {
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.LOOKUP, null);
+        try {
+            return findUserByEmail(email);
+        } catch (RuntimeException e) {
+            throw event.failed(e);
+        } finally {
+            event.finish();
+        }
+    }
+
+    private User findUserByEmail(String email) {
         if (!StringUtils.hasText(email)) {
             throw new BadRequestException("Email cannot be empty");
         }
         
         log.debug("Getting user with email: {}", email);
         
-        return userRepository.findByEmailIgnoreCase(email)
+        return lookup(emailLookups, User.normalizeEmail(email), () -> userRepository.findByEmailIgnoreCase(email, ReadOperation.POINT))
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
+
+    @Override
+    public UserSearchPage searchByPrefix(UserSearchField field, String prefix, int limit, String after) {
+        if (field == null) {
+            throw new BadRequestException("Search field must be one of: name, email");
+        }
+        if (!StringUtils.hasText(prefix)) {
+            throw new BadRequestException("Prefix cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        String normalizedPrefix = UserSearchField.normalize(prefix);
+        log.debug("Searching users by {} prefix: {}", field, normalizedPrefix);
+
+        KeysetCursor cursor = StringUtils.hasText(after) ? KeysetCursor.decode(after) : null;
+        // Fetch one extra user to learn whether another page follows
+        List<User> users = userRepository.findByPrefix(field, normalizedPrefix,
+                cursor != null ? cursor.value() : null, cursor != null ? cursor.id() : null, limit + 1);
+
+        if (users.size() <= limit) {
+            return new UserSearchPage(users, null);
+        }
+        List<User> page = users.subList(0, limit);
+        User last = page.get(limit - 1);
+        return new UserSearchPage(page, new KeysetCursor(field.extract(last), last.getId()).encode());
+    }
+
+    @Override
+    public List<UserMatch> fuzzySearchByName(String query, int limit) {
+        if (!StringUtils.hasText(query)) {
+            throw new BadRequestException("Query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (!userNameIndex.isReady()) {
+            throw new ServiceUnavailableException("Name search index is still loading");
+        }
+
+        log.debug("Fuzzy searching users by name: {}", query);
+
+        List<TrigramIndex.Match> matches = userNameIndex.search(query, limit);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<ObjectId, User> users = userRepository.findAllById(
+                        matches.stream().map(TrigramIndex.Match::id).toList(), ReadOperation.POINT)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Keep the index ranking; users deleted since the index was updated simply drop out
+        return matches.stream()
+                .filter(match -> users.containsKey(match.id()))
+                .map(match -> new UserMatch(users.get(match.id()), match.score()))
+                .toList();
+    }
+
+    @Override
+    public UserCount countUsers(boolean exact, UserSearchField field, String prefix) {
+        boolean filtered = StringUtils.hasText(prefix);
+        if (filtered && field == null) {
+            throw new BadRequestException("Search field must be one of: name, email");
+        }
+
+        if (!exact && !filtered) {
+            log.debug("Estimating user count");
+            return new UserCount(userRepository.estimatedCount(), false);
+        }
+
+        String normalizedPrefix = filtered ? UserSearchField.normalize(prefix) : null;
+        String key = filtered ? field + ":" + normalizedPrefix : ALL_USERS;
+        log.debug("Counting users exactly for filter: {}", key);
+        Long cached = exactCounts.getIfPresent(key);
+        if (cached != null) {
+            return new UserCount(cached, true);
+        }
+        // Requests missing together share one count; the cache is checked again inside the flight, so a
+        // request arriving just after it finished reads the stored result instead of counting again
+        long count = exactCountLoads.execute(key,
+                () -> exactCounts.get(key, () -> userRepository.countByPrefix(field, normalizedPrefix)));
+        return new UserCount(count, true);
+    }
+
+    @Override
+    public UserChangesPage getChanges(Instant since, int limit, String after) {
+        if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_CHANGES_LIMIT);
+        }
+        Instant now = Instant.now();
+        if (since != null && since.isBefore(now.minus(UserTombstone.RETENTION))) {
+            throw new ResourceGoneException("Deletions are only retained for " + UserTombstone.RETENTION.toDays()
+                    + " days; sync again without 'since'");
+        }
+
+        KeysetCursor cursor = StringUtils.hasText(after) ? KeysetCursor.decode(after) : null;
+        Instant from = cursor != null ? cursorDate(cursor) : since != null ? since : Instant.EPOCH;
+        ObjectId fromId = cursor != null ? cursor.id() : null;
+        // Stored dates have millisecond precision; truncating keeps the watermark comparable with them
+        Instant until = now.minus(changesSettleWindow).truncatedTo(ChronoUnit.MILLIS);
+        log.debug("Getting user changes after {} up to {}", from, until);
+
+        // Fetch one extra change from each collection to learn whether another page follows
+        List<UserChange> changes = new ArrayList<>();
+        userRepository.findModified(from, fromId, until, limit + 1)
+                .forEach(user -> changes.add(UserChange.upserted(user)));
+        userRepository.findDeleted(from, fromId, until, limit + 1)
+                .forEach(tombstone -> changes.add(UserChange.deleted(tombstone)));
+        changes.sort(CHANGE_ORDER);
+
+        if (changes.size() <= limit) {
+            return new UserChangesPage(changes, null, until);
+        }
+        List<UserChange> page = List.copyOf(changes.subList(0, limit));
+        UserChange last = page.get(limit - 1);
+        return new UserChangesPage(page, new KeysetCursor(last.modifiedAt().toString(), last.id()).encode(), null);
+    }
+
+    /**
+     * Export how often lookups and creates were coalesced with other requests or batched together.
+     *
+     * @param registry The registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindLookupMetrics(registry, "id", idLookups);
+        bindLookupMetrics(registry, "email", emailLookups);
+        if (createBatches != null) {
+            FunctionCounter.builder("user.create.batches", createBatches, MicroBatcher::getBatches)
+                    .description("Bulk inserts run for grouped creates")
+                    .register(registry);
+            FunctionCounter.builder("user.create.batched", createBatches, MicroBatcher::getItems)
+                    .description("Creates committed through bulk inserts")
+                    .register(registry);
+        }
+        if (idBatches != null) {
+            FunctionCounter.builder("user.lookup.batches", idBatches, BatchLoader::getBatches)
+                    .description("Queries run for batched reads by ID")
+                    .register(registry);
+            FunctionCounter.builder("user.lookup.batched", idBatches, BatchLoader::getLoads)
+                    .description("Reads by ID served through batches")
+                    .register(registry);
+        }
+    }
+
+    private User groupCommit(User user) {
+        CreatedUser created = createBatches.submit(user);
+        // The insert may have run on another request's thread; hand its session token to this client too
+        CausalSessionContext context = CausalSessionContext.current();
+        if (context != null) {
+            context.advance(created.token());
+        }
+        return created.user();
+    }
+
+    // One unordered insert for the whole batch; each create learns whether the unique index rejected it
+    private void insertUsers(List<User> users, List<CompletableFuture<CreatedUser>> results) {
+        CausalSessionContext context = CausalSessionContext.current();
+        CausalSessionToken before = context != null ? context.getToken() : null;
+        Set<Integer> rejected = new HashSet<>(userRepository.insertUnordered(users));
+        CausalSessionToken written = context != null && context.getToken() != before ? context.getToken() : null;
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (rejected.contains(i)) {
+                results.get(i).completeExceptionally(new DuplicateResourceException("User", "email", user.getEmail()));
+            } else {
+                results.get(i).complete(new CreatedUser(user, written));
+            }
+        }
+    }
+
+    private static Instant cursorDate(KeysetCursor cursor) {
+        try {
+            return Instant.parse(cursor.value());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid continuation token");
+        }
+    }
+
+    private Optional<User> findById(ObjectId id) {
+        if (idBatches == null || CausalSessionContext.hasToken()) {
+            return userRepository.findById(id, ReadOperation.POINT);
+        }
+        return Optional.ofNullable(idBatches.load(id));
+    }
+
+    // A batch of one is a plain _id lookup; larger batches become a single $in query
+    private Map<ObjectId, User> loadUsers(Collection<ObjectId> ids) {
+        if (ids.size() == 1) {
+            ObjectId id = ids.iterator().next();
+            return userRepository.findById(id, ReadOperation.POINT)
+                    .map(user -> Map.of(id, user))
+                    .orElse(Map.of());
+        }
+        return userRepository.findAllById(ids, ReadOperation.POINT).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    // Concurrent identical lookups share one query; requests carrying a session token must observe
+    // their own writes, so they always run their own
+    private static <K> Optional<User> lookup(SingleFlight<K, Optional<User>> lookups, K key,
+                                             Supplier<Optional<User>> query) {
+        return CausalSessionContext.hasToken() ? query.get() : lookups.execute(key, query);
+    }
+
+    private static void bindLookupMetrics(MeterRegistry registry, String key, SingleFlight<?, ?> lookups) {
+        FunctionCounter.builder("user.lookup.calls", lookups, SingleFlight::getCalls)
+                .description("Point lookups requested")
+                .tag("key", key)
+                .register(registry);
+        FunctionCounter.builder("user.lookup.coalesced", lookups, SingleFlight::getCoalesced)
+                .description("Point lookups served by another request's in-flight query")
+                .tag("key", key)
+                .register(registry);
+        Gauge.builder("user.lookup.coalescing.ratio", lookups,
+                        flight -> flight.getCalls() == 0 ? 0 : (double) flight.getCoalesced() / flight.getCalls())
+                .description("Fraction of point lookups that were coalesced")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    private record CreatedUser(User user, CausalSessionToken token) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.example.userservice.user.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the user service.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-service.users")
+public class UserServiceProperties {
+
+    private Count count = new Count();
+    private PointReads pointReads = new PointReads();
+    private RawReads rawReads = new RawReads();
+    private Creates creates = new Creates();
+    private Changes changes = new Changes();
+    private Batches batches = new Batches();
+
+    @Data
+    public static class Count {
+
+        /**
+         * How long exact counts are reused before the collection is counted again.
+         */
+        private Duration exactCacheTtl = Duration.ofSeconds(5);
+
+        /**
+         * Maximum number of distinct filters whose exact counts are cached.
+         */
+        private int exactCacheSize = 256;
+    }
+
+    @Data
+    public static class PointReads {
+
+        /**
+         * Whether concurrent reads by ID are batched into one $in query.
+         */
+        private boolean batching = true;
+
+        /**
+         * Number of IDs that dispatches a pending batch at once.
+         */
+        private int maxBatchSize = 64;
+
+        /**
+         * Longest an ID waits for its batch while earlier batches are still running.
+         */
+        private Duration maxWait = Duration.ofMillis(1);
+
+        /**
+         * Number of batches that may run before IDs start to queue; below it reads are sent at once.
+         */
+        private int maxConcurrentBatches = 8;
+    }
+
+    @Data
+    public static class RawReads {
+
+        /**
+         * Whether reads by ID are rendered from raw BSON. They then skip point-read batching and coalescing.
+         */
+        private boolean point = false;
+
+        /**
+         * Whether the full listing is rendered from raw BSON instead of mapped Users.
+         */
+        private boolean listing = true;
+    }
+
+    @Data
+    public static class Creates {
+
+        /**
+         * Whether concurrent creates are inserted together in unordered bulk writes. Duplicate emails are
+         * then detected by the unique index alone, without a lookup before each insert.
+         */
+        private boolean groupCommit = false;
+
+        /**
+         * Number of users that dispatches a pending insert at once.
+         */
+        private int maxBatchSize = 128;
+
+        /**
+         * Longest a create waits for its insert while earlier inserts are still running.
+         */
+        private Duration maxWait = Duration.ofMillis(2);
+
+        /**
+         * Number of inserts that may run before creates start to queue; below it creates are sent at once.
+         */
+        private int maxConcurrentBatches = 2;
+    }
+
+    @Data
+    public static class Changes {
+
+        /**
+         * How far behind the present change pages stop. Timestamps are taken before a write commits, so a
+         * slow write can land with a date earlier than one already returned; it must commit within this window.
+         */
+        private Duration settleWindow = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Batches {
+
+        /**
+         * Number of users written per bulk operation.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Most IDs a single batch request may list; larger jobs select users by filter and run in the background.
+         */
+        private int maxIds = 1000;
+
+        /**
+         * Fraction of the time a batch may keep the database busy; after each chunk it pauses for the rest.
+         */
+        private double dutyCycle = 0.5;
+
+        /**
+         * Number of background jobs that may run at once.
+         */
+        private int maxRunningJobs = 2;
+
+        /**
+         * Number of jobs whose progress stays available.
+         */
+        private int jobHistory = 100;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.userservice;
+
+import com.example.userservice.support.EmbeddedMongo;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures time from process launch to the first successful API request and to readiness, in a fresh JVM
+ * against embedded Mongo. Run with {@code ./gradlew benchmark}; pass {@code -Dbenchmark.cds=build/cds/app.jsa}
+ * (from {@code ./gradlew cdsArchive}) and {@code -Dbenchmark.lazy=true} to compare the startup options.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    @Test
+    void measureTimeToFirstSuccessfulRequest() throws Exception {
+        try (EmbeddedMongo mongo = EmbeddedMongo.start()) {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            String cds = System.getProperty("benchmark.cds");
+            if (cds != null) {
+                command.add("-XX:SharedArchiveFile=" + new File(cds).getAbsolutePath());
+                command.add("-cp");
+                command.add(cdsClassPath(new File(cds)));
+            } else {
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+            }
+            command.add(UserServiceApplication.class.getName());
+            command.add("--server.port=" + port);
+            command.add("--spring.data.mongodb.uri=" + mongo.uri("startup"));
+            command.add("--user-service.startup.lazy-init.enabled=" + Boolean.getBoolean("benchmark.lazy"));
+
+            long launched = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            try {
+                HttpClient client = HttpClient.newHttpClient();
+                long firstRequest = awaitOk(client, "http://localhost:" + port + "/api/v1/users/count", launched);
+                long ready = awaitOk(client, "http://localhost:" + port + "/api/v1/health/readiness", launched);
+
+                System.out.printf("first successful request=%d ms readiness=%d ms (cds=%s lazy=%s)%n",
+                        firstRequest, ready, cds != null, Boolean.getBoolean("benchmark.lazy"));
+            } finally {
+                process.destroy();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    // Poll until the URL answers 200, returning the milliseconds since launch
+    private static long awaitOk(HttpClient client, String url, long launched) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+        while (System.nanoTime() - launched < TIMEOUT_NANOS) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - launched) / 1_000_000;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            } catch (IOException e) {
+                // Connection reset while starting
+            }
+            Thread.sleep(5);
+        }
+        return fail("No successful response from " + url);
+    }
+
+    // The archive only matches the class path it was trained with, recorded next to it by cdsArchive
+    private static String cdsClassPath(File archive) throws IOException {
+        List<String> lines = Files.readAllLines(new File(archive.getParentFile(), "java.args").toPath());
+        return lines.get(0).substring("-cp ".length());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
\ No newline at end of file
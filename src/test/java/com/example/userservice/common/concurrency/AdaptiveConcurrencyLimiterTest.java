@@ -0,0 +1,104 @@
+package com.example.userservice.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void tryAcquireShouldRejectOnceLimitIsReached() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        // When/Then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void limitShouldGrowWhileLatencyIsSteady() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, FAST);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 100);
+    }
+
+    @Test
+    void limitShouldShrinkWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100);
+        for (int i = 0; i < 5; i++) {
+            saturate(limiter, FAST);
+        }
+        int steadyLimit = limiter.getLimit();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, SLOW);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() < steadyLimit,
+                "limit " + limiter.getLimit() + " should be below " + steadyLimit);
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    void limitShouldNotGrowWhenMostlyIdle() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        // Then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void droppedRequestsShouldBackOffDownToMinimum() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 5, 100);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, true);
+        }
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
\ No newline at end of file
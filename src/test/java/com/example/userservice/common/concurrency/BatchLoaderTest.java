@@ -0,0 +1,167 @@
+package com.example.userservice.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    private static final long LONG_WAIT = TimeUnit.SECONDS.toNanos(10);
+
+    private final List<Set<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<Thread> batchThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void loadShouldDispatchImmediatelyWhenIdle() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(recording(false), 64, LONG_WAIT, 1);
+
+        // When
+        long started = System.nanoTime();
+        String value = loader.load("a");
+
+        // Then
+        assertEquals("A", value);
+        assertTrue(System.nanoTime() - started < LONG_WAIT / 2);
+        assertEquals(List.of(Set.of("a")), batches);
+    }
+
+    @Test
+    void loadShouldReturnNullForMissingKey() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(keys -> Map.of(), 64, LONG_WAIT, 1);
+
+        // When/Then
+        assertNull(loader.load("a"));
+    }
+
+    @Test
+    void keysShouldQueueIntoOneBatchWhileSlotsAreBusy() throws Exception {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(recording(true), 3, LONG_WAIT, 1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            Future<String> first = executor.submit(() -> loader.load("first"));
+            awaitBatches(1);
+
+            // When
+            List<Future<String>> queued = new ArrayList<>();
+            for (String key : List.of("b", "c", "d")) {
+                queued.add(executor.submit(() -> loader.load(key)));
+            }
+            awaitBatches(2);
+            release.countDown();
+
+            // Then
+            assertEquals("FIRST", first.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("B", "C", "D"), List.of(queued.get(0).get(5, TimeUnit.SECONDS),
+                    queued.get(1).get(5, TimeUnit.SECONDS), queued.get(2).get(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(Set.of("b", "c", "d"), batches.get(1));
+        assertEquals(4, loader.getLoads());
+        assertEquals(2, loader.getBatches());
+    }
+
+    @Test
+    void pendingBatchShouldDispatchAfterMaxWait() throws Exception {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(recording(true), 64,
+                TimeUnit.MILLISECONDS.toNanos(20), 1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<String> first = executor.submit(() -> loader.load("first"));
+            awaitBatches(1);
+
+            // When
+            Future<String> waiting = executor.submit(() -> loader.load("b"));
+            awaitBatches(2);
+            release.countDown();
+
+            // Then
+            assertEquals("B", waiting.get(5, TimeUnit.SECONDS));
+            assertEquals("FIRST", first.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Set.of("b"), batches.get(1));
+    }
+
+    @Test
+    void freedSlotShouldBeHandedToACallerOfThePendingBatch() throws Exception {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(recording(true), 64, LONG_WAIT, 1);
+        CompletableFuture<Thread> caller = new CompletableFuture<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<String> first = executor.submit(() -> loader.load("first"));
+            awaitBatches(1);
+            Future<String> waiting = executor.submit(() -> {
+                caller.complete(Thread.currentThread());
+                return loader.load("b");
+            });
+            Thread waitingThread = caller.get(5, TimeUnit.SECONDS);
+            while (waitingThread.getState() != Thread.State.TIMED_WAITING) {
+                Thread.onSpinWait();
+            }
+
+            // When
+            release.countDown();
+
+            // Then
+            assertEquals("FIRST", first.get(5, TimeUnit.SECONDS));
+            assertEquals("B", waiting.get(1, TimeUnit.SECONDS));
+            assertSame(waitingThread, batchThreads.get(1));
+        }
+        assertEquals(2, loader.getBatches());
+    }
+
+    @Test
+    void loaderFailureShouldReachEveryCaller() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("boom");
+        BatchLoader<String, String> loader = new BatchLoader<>(keys -> {
+            throw failure;
+        }, 64, LONG_WAIT, 1);
+
+        // When/Then
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> loader.load("a")));
+    }
+
+    // Upper-cases keys; when blocking, the first batch waits for the test to release it
+    private Function<Collection<String>, Map<String, String>> recording(boolean blockFirst) {
+        return keys -> {
+            batches.add(Set.copyOf(keys));
+            batchThreads.add(Thread.currentThread());
+            if (blockFirst && batches.size() == 1) {
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return keys.stream().collect(Collectors.toMap(Function.identity(), String::toUpperCase));
+        };
+    }
+
+    private void awaitBatches(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, batches.size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.userservice.common.concurrency;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares goodput with and without the adaptive limiter when a simulated backend is offered three times
+ * the load it can serve. The backend serves a fixed number of requests at a time and queues the rest, which
+ * is how a saturated Mongo connection pool behaves. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ConcurrencyLimitGoodputBenchmarkTest {
+
+    private static final int BACKEND_CAPACITY = 8;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void limiterShouldKeepGoodputUnderOverload() throws InterruptedException {
+        long seconds = Long.getLong("benchmark.seconds", 5);
+        double overload = Double.parseDouble(System.getProperty("benchmark.overload", "3"));
+
+        Result unlimited = run(null, seconds, overload);
+        Result limited = run(new AdaptiveConcurrencyLimiter(20, 1, 200), seconds, overload);
+
+        System.out.printf("unlimited: goodput=%d/s late=%d rejected=%d%n",
+                unlimited.goodput() / seconds, unlimited.late(), unlimited.rejected());
+        System.out.printf("limited:   goodput=%d/s late=%d rejected=%d%n",
+                limited.goodput() / seconds, limited.late(), limited.rejected());
+        assertTrue(limited.goodput() > unlimited.goodput());
+    }
+
+    private static Result run(AdaptiveConcurrencyLimiter limiter, long seconds, double overload)
+            throws InterruptedException {
+        Semaphore backend = new Semaphore(BACKEND_CAPACITY, true);
+        LongAdder goodput = new LongAdder();
+        LongAdder late = new LongAdder();
+        LongAdder rejected = new LongAdder();
+
+        double capacityPerSecond = BACKEND_CAPACITY * (double) TimeUnit.SECONDS.toNanos(1) / SERVICE_NANOS;
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / (capacityPerSecond * overload));
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        // Open-loop arrivals: clients keep coming whether or not earlier requests have finished
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = System.nanoTime(); next < end; next += intervalNanos) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                clients.execute(() -> {
+                    if (limiter != null && !limiter.tryAcquire()) {
+                        rejected.increment();
+                        return;
+                    }
+                    long started = System.nanoTime();
+                    try {
+                        backend.acquireUninterruptibly();
+                        try {
+                            LockSupport.parkNanos(SERVICE_NANOS);
+                        } finally {
+                            backend.release();
+                        }
+                    } finally {
+                        long rtt = System.nanoTime() - started;
+                        if (limiter != null) {
+                            limiter.release(rtt, false);
+                        }
+                        (rtt <= DEADLINE_NANOS ? goodput : late).increment();
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return new Result(goodput.sum(), late.sum(), rejected.sum());
+    }
+
+    private record Result(long goodput, long late, long rejected) {
+    }
+}
\ No newline at end of file
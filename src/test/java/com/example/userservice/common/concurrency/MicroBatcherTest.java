@@ -0,0 +1,47 @@
+package com.example.userservice.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicroBatcherTest {
+
+    private static final long LONG_WAIT = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void submitShouldReturnTheItemsOwnResult() {
+        // Given
+        MicroBatcher<String, Integer> batcher = new MicroBatcher<>((items, results) -> {
+            for (int i = 0; i < items.size(); i++) {
+                results.get(i).complete(items.get(i).length());
+            }
+        }, 64, LONG_WAIT, 1);
+
+        // When/Then
+        assertEquals(3, batcher.submit("abc"));
+        assertEquals(1, batcher.getBatches());
+    }
+
+    @Test
+    void submitShouldThrowTheItemsOwnFailure() {
+        // Given
+        IllegalArgumentException failure = new IllegalArgumentException("rejected");
+        MicroBatcher<String, Integer> batcher = new MicroBatcher<>(
+                (items, results) -> results.get(0).completeExceptionally(failure), 64, LONG_WAIT, 1);
+
+        // When/Then
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> batcher.submit("abc")));
+    }
+
+    @Test
+    void submitShouldFailWhenHandlerLeavesItemWithoutResult() {
+        // Given
+        MicroBatcher<String, Integer> batcher = new MicroBatcher<>((items, results) -> {
+        }, 64, LONG_WAIT, 1);
+
+        // When/Then
+        assertThrows(IllegalStateException.class, () -> batcher.submit("abc"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.example.userservice.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void concurrentCallsForSameKeyShouldShareOneExecution() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+            awaitCoalesced(singleFlight, CALLERS - 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, executions.get());
+        assertEquals(CALLERS, singleFlight.getCalls());
+        assertEquals(CALLERS - 1, singleFlight.getCoalesced());
+    }
+
+    @Test
+    void concurrentCallsShouldShareException() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    await(release);
+                    throw failure;
+                })));
+            }
+            awaitCoalesced(singleFlight, CALLERS - 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                Exception exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertSame(failure, exception.getCause());
+            }
+        }
+    }
+
+    @Test
+    void sequentialCallsShouldEachExecute() {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        // When
+        singleFlight.execute("key", executions::incrementAndGet);
+        int second = singleFlight.execute("key", executions::incrementAndGet);
+
+        // Then
+        assertEquals(2, second);
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    @Test
+    void callsForDistinctKeysShouldNotShare() {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        // When/Then
+        String outer = singleFlight.execute("a", () -> "a" + singleFlight.execute("b", () -> "b"));
+        assertEquals("ab", outer);
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> singleFlight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, singleFlight.getCoalesced());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.userservice.common.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiExceptionHandlerTest {
+
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+    @Test
+    void handleNotFoundShouldWriteProblemTemplate() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.handleNotFound(new ResourceNotFoundException("User", "id", new ObjectId()), response);
+
+        assertEquals(404, response.getStatus());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON_VALUE, response.getContentType());
+        assertEquals("{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404,"
+                + "\"detail\":\"Resource not found\"}", response.getContentAsString());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+    }
+
+    @Test
+    void handleBadRequestShouldEscapeMessage() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.handleBadRequest(new BadRequestException("Invalid \"after\" cursor\n"), response);
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().endsWith("\"detail\":\"Invalid \\\"after\\\" cursor\\n\"}"));
+    }
+
+    @Test
+    void handlersShouldCountErrorsPerType() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        handler.bindTo(registry);
+
+        handler.handleNotFound(new ResourceNotFoundException("User", "id", "x"), new MockHttpServletResponse());
+        handler.handleNotFound(new ResourceNotFoundException("User", "id", "y"), new MockHttpServletResponse());
+        handler.handleDuplicate(new DuplicateResourceException("User", "email", "a@b.c"),
+                new MockHttpServletResponse());
+
+        assertEquals(2, handler.getCount(ApiExceptionHandler.ErrorType.NOT_FOUND));
+        assertEquals(2.0, registry.get("user.errors").tag("type", "not_found").functionCounter().count());
+        assertEquals(1.0, registry.get("user.errors").tag("type", "conflict").functionCounter().count());
+    }
+
+    @Test
+    void exceptionsShouldBeStacklessWithLazyMessage() {
+        ResourceNotFoundException e = new ResourceNotFoundException("User", "id", "42");
+
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("User not found with id: '42'", e.getMessage());
+    }
+
+    @Test
+    void escapeShouldReturnPlainValueUnchanged() {
+        String value = "Limit must be between 1 and 1000";
+
+        assertSame(value, ApiExceptionHandler.escape(value));
+        assertEquals("tab\\there\\u0001", ApiExceptionHandler.escape("tab\there\u0001"));
+    }
+}
\ No newline at end of file
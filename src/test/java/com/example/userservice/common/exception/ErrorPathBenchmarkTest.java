@@ -0,0 +1,115 @@
+package com.example.userservice.common.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares throughput and allocation of a 404-only workload, as produced by bots probing user IDs, between
+ * the previous error path and {@link ApiExceptionHandler}. The previous path is reproduced in-process: a
+ * stack-capturing exception with a formatted message thrown from a servlet-deep stack, and a body built as
+ * Boot's error controller does. The second dispatch to {@code /error} is not included, so the real gap is
+ * larger. Run with {@code ./gradlew benchmark}; the request count can be set with {@code -Dbenchmark.requests}.
+ */
+@Tag("benchmark")
+class ErrorPathBenchmarkTest {
+
+    // Roughly the frames between the servlet container and a controller method
+    private static final int STACK_DEPTH = 120;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+    private final ObjectId id = new ObjectId();
+
+    @Test
+    void compareNotFoundPaths() throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 200_000);
+
+        Result previous = measure(requests, this::previousNotFound);
+        Result current = measure(requests, this::currentNotFound);
+
+        System.out.printf("previous: %,.0f req/s %,d bytes/req%n", previous.perSecond(), previous.bytesPerRequest);
+        System.out.printf("current:  %,.0f req/s %,d bytes/req%n", current.perSecond(), current.bytesPerRequest);
+        assertTrue(current.bytesPerRequest < previous.bytesPerRequest);
+    }
+
+    private Result measure(int requests, Request request) throws Exception {
+        for (int i = 0; i < requests / 4; i++) {
+            request.run();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            request.run();
+        }
+        long nanos = System.nanoTime() - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(requests, nanos, allocated / requests);
+    }
+
+    private void previousNotFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            throwAt(STACK_DEPTH, () -> new PreviousNotFoundException("User", "id", id));
+        } catch (PreviousNotFoundException e) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("timestamp", new Date());
+            body.put("status", 404);
+            body.put("error", "Not Found");
+            body.put("path", "/api/v1/users/" + id.toHexString());
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            response.setStatus(404);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(bytes);
+        }
+        assertEquals(404, response.getStatus());
+    }
+
+    private void currentNotFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            throwAt(STACK_DEPTH, () -> new ResourceNotFoundException("User", "id", id));
+        } catch (ResourceNotFoundException e) {
+            handler.handleNotFound(e, response);
+        }
+        assertEquals(404, response.getStatus());
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwAt(depth - 1, exception);
+    }
+
+    private interface Request {
+        void run() throws Exception;
+    }
+
+    private record Result(int requests, long nanos, long bytesPerRequest) {
+
+        double perSecond() {
+            return requests * 1e9 / nanos;
+        }
+    }
+
+    private static class PreviousNotFoundException extends RuntimeException {
+
+        PreviousNotFoundException(String resourceType, String fieldName, Object fieldValue) {
+            super(String.format("%s not found with %s: '%s'", resourceType, fieldName, fieldValue));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.userservice.common.health;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedHealthIndicatorTest {
+
+    private final AtomicInteger checks = new AtomicInteger();
+    private volatile Health next = Health.up().withDetail("maxWireVersion", 21).build();
+    private CachedHealthIndicator indicator;
+
+    @AfterEach
+    void tearDown() {
+        indicator.destroy();
+    }
+
+    @Test
+    void healthShouldServeCachedResultWithoutChecking() throws InterruptedException {
+        indicator = create(Duration.ofMinutes(1));
+        awaitFirstCheck();
+        int before = checks.get();
+
+        Health health = null;
+        for (int i = 0; i < 100; i++) {
+            health = indicator.health();
+        }
+
+        assertEquals(before, checks.get());
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(21, health.getDetails().get("maxWireVersion"));
+        assertTrue(health.getDetails().containsKey("checkedAt"));
+    }
+
+    @Test
+    void refreshShouldReplaceCachedResult() throws InterruptedException {
+        indicator = create(Duration.ofMinutes(1));
+        awaitFirstCheck();
+
+        next = Health.down().build();
+        indicator.refresh();
+
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void refreshShouldReportDownWhenCheckThrows() throws InterruptedException {
+        indicator = new CachedHealthIndicator("test", () -> {
+            checks.incrementAndGet();
+            throw new IllegalStateException("timed out");
+        }, Duration.ofHours(1), Duration.ofMinutes(1));
+        awaitFirstCheck();
+
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void healthShouldReportDownWhenResultIsStale() throws InterruptedException {
+        indicator = create(Duration.ofMillis(1));
+        awaitFirstCheck();
+        Thread.sleep(20);
+
+        Health health = indicator.health();
+
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("stale", health.getDetails().get("status"));
+    }
+
+    private CachedHealthIndicator create(Duration maxAge) {
+        return new CachedHealthIndicator("test", () -> {
+            checks.incrementAndGet();
+            return next;
+        }, Duration.ofHours(1), maxAge);
+    }
+
+    private void awaitFirstCheck() throws InterruptedException {
+        for (int i = 0; i < 500 && Status.UNKNOWN.equals(indicator.health().getStatus()); i++) {
+            Thread.sleep(10);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.userservice.common.idempotency;
+
+import com.example.userservice.support.InMemoryMongo;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Claims, completions and releases against an in-memory server, including an attempt that outlives its lock.
+ */
+class IdempotencyStoreTest {
+
+    private static final String KEY = "/api/v1/users key-1";
+    private static final byte[] BODY = {'{', '}'};
+
+    private static InMemoryMongo mongo;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    private IdempotencyProperties properties;
+
+    @BeforeAll
+    static void start() {
+        mongo = InMemoryMongo.start();
+        client = MongoClients.create(mongo.uri("idempotency"));
+        mongoTemplate = new MongoTemplate(client, "idempotency");
+    }
+
+    @AfterAll
+    static void stop() {
+        client.close();
+        mongo.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(IdempotencyRecord.class);
+        properties = new IdempotencyProperties();
+    }
+
+    @Test
+    void ownerShouldCompleteItsClaim() {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(mongoTemplate, properties);
+        IdempotencyStore.Acquisition acquisition = store.acquire(KEY, "fingerprint");
+
+        // When
+        IdempotencyRecord record = store.complete(KEY, acquisition.attemptId(), 201, Map.of(), BODY);
+
+        // Then
+        assertTrue(acquisition.acquired());
+        assertTrue(record.isCompleted());
+        assertEquals(201, store.find(KEY).getStatus());
+        assertFalse(store.acquire(KEY, "fingerprint").acquired());
+    }
+
+    @Test
+    void attemptThatLostItsClaimShouldNeitherCompleteNorReleaseIt() throws Exception {
+        // Given
+        properties.setLockTimeout(Duration.ZERO);
+        IdempotencyStore store = new IdempotencyStore(mongoTemplate, properties);
+        IdempotencyStore.Acquisition first = store.acquire(KEY, "fingerprint");
+        Thread.sleep(5);
+        IdempotencyStore.Acquisition retry = store.acquire(KEY, "fingerprint");
+
+        // When
+        IdempotencyRecord lost = store.complete(KEY, first.attemptId(), 500, Map.of(), BODY);
+        store.release(KEY, first.attemptId());
+
+        // Then
+        assertTrue(retry.acquired());
+        assertNull(lost);
+        IdempotencyRecord current = store.find(KEY);
+        assertFalse(current.isCompleted());
+        assertEquals(retry.attemptId(), current.getAttemptId());
+
+        // When
+        IdempotencyRecord stored = store.complete(KEY, retry.attemptId(), 201, Map.of(), BODY);
+
+        // Then
+        assertEquals(201, stored.getStatus());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.userservice.common.jfr;
+
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingsTest {
+
+    private final FlightRecordings recordings = new FlightRecordings(new FlightRecordingProperties());
+
+    @AfterEach
+    void tearDown() {
+        recordings.destroy();
+    }
+
+    @Test
+    void statusShouldBeNoneBeforeTheFirstRecording() {
+        assertEquals("NONE", recordings.status().state());
+        assertNull(recordings.dump());
+    }
+
+    @Test
+    void startShouldRunOneRecordingAtATime() {
+        // When
+        FlightRecordings.Status status = recordings.start(Duration.ofMinutes(1));
+
+        // Then
+        assertEquals("RUNNING", status.state());
+        assertEquals(Duration.ofMinutes(1), status.duration());
+        assertNotNull(status.startedAt());
+        assertThrows(IllegalStateException.class, () -> recordings.start(null));
+    }
+
+    @Test
+    void startShouldRejectDurationsOverTheMaximum() {
+        assertThrows(IllegalArgumentException.class, () -> recordings.start(Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> recordings.start(Duration.ZERO));
+        assertEquals("NONE", recordings.status().state());
+    }
+
+    @Test
+    void dumpShouldWriteTheRecordedEventsWhileRunningAndAfterStopping() throws Exception {
+        // Given
+        recordings.start(null);
+
+        // When
+        Path running = recordings.dump();
+        FlightRecordings.Status stopped = recordings.stop();
+        Path finished = recordings.dump();
+
+        // Then
+        try {
+            assertEquals("STOPPED", stopped.state());
+            assertFalse(RecordingFile.readAllEvents(running).isEmpty());
+            assertFalse(RecordingFile.readAllEvents(finished).isEmpty());
+        } finally {
+            Files.delete(running);
+            Files.delete(finished);
+        }
+    }
+
+    @Test
+    void startShouldReplaceAStoppedRecording() {
+        // Given
+        recordings.start(null);
+        recordings.stop();
+
+        // When
+        FlightRecordings.Status status = recordings.start(null);
+
+        // Then
+        assertEquals("RUNNING", status.state());
+        assertEquals(Duration.ofMinutes(5), status.duration());
+    }
+}
\ No newline at end of file
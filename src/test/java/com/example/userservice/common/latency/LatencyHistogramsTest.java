@@ -0,0 +1,140 @@
+package com.example.userservice.common.latency;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramsTest {
+
+    private static final String USER = "/api/v1/users/{id}";
+
+    private LatencyHistograms histograms;
+
+    @BeforeEach
+    void setUp() {
+        LatencyHistogramProperties properties = new LatencyHistogramProperties();
+        // Tests rotate by hand
+        properties.setInterval(Duration.ofHours(1));
+        histograms = new LatencyHistograms(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        histograms.destroy();
+    }
+
+    @Test
+    void summariesShouldReportPercentilesPerRouteAndStatusClass() {
+        // Given
+        for (int millis = 1; millis <= 100; millis++) {
+            histograms.record("GET", USER, 200, Duration.ofMillis(millis).toNanos());
+        }
+        histograms.record("GET", USER, 404, Duration.ofMillis(3).toNanos());
+        histograms.record("DELETE", USER, 204, Duration.ofMillis(7).toNanos());
+
+        // When
+        histograms.rotate();
+        Map<String, Map<String, Map<String, LatencyHistograms.Summary>>> summaries = histograms.summaries();
+
+        // Then
+        LatencyHistograms.Summary ok = summaries.get("GET " + USER).get("2xx").get("1m");
+        assertEquals(100, ok.count());
+        assertEquals(50, ok.p50(), 1);
+        assertEquals(90, ok.p90(), 1);
+        assertEquals(99, ok.p99(), 1);
+        assertEquals(100, ok.max(), 1);
+        assertEquals(ok, summaries.get("GET " + USER).get("2xx").get("15m"));
+        assertEquals(1, summaries.get("GET " + USER).get("4xx").get("5m").count());
+        assertEquals(7, summaries.get("DELETE " + USER).get("2xx").get("1m").p50(), 0.1);
+    }
+
+    @Test
+    void nonStandardMethodsShouldShareOneHistogram() {
+        // Given
+        histograms.record("FOO", "unmatched", 405, Duration.ofMillis(1).toNanos());
+        histograms.record("BAR", "unmatched", 405, Duration.ofMillis(1).toNanos());
+        histograms.record("PATCH", "unmatched", 405, Duration.ofMillis(1).toNanos());
+
+        // When
+        histograms.rotate();
+
+        // Then
+        Map<String, Map<String, Map<String, LatencyHistograms.Summary>>> summaries = histograms.summaries();
+        assertEquals(Set.of("OTHER unmatched", "PATCH unmatched"), summaries.keySet());
+        assertEquals(2, summaries.get("OTHER unmatched").get("4xx").get("1m").count());
+    }
+
+    @Test
+    void summariesShouldOnlyIncludeClosedIntervals() {
+        // Given
+        histograms.record("GET", USER, 200, Duration.ofMillis(5).toNanos());
+        histograms.rotate();
+        histograms.record("GET", USER, 200, Duration.ofMillis(5).toNanos());
+
+        // When
+        LatencyHistograms.Summary summary = histograms.summaries().get("GET " + USER).get("2xx").get("1m");
+
+        // Then
+        assertEquals(1, summary.count());
+    }
+
+    @Test
+    void latenciesOverTheHighestTrackableShouldBeClamped() {
+        // Given
+        histograms.record("GET", USER, 200, Duration.ofHours(1).toNanos());
+
+        // When
+        histograms.rotate();
+
+        // Then
+        assertEquals(60_000, histograms.summaries().get("GET " + USER).get("2xx").get("1m").max(), 600);
+    }
+
+    @Test
+    void writeLogShouldExportTaggedIntervalsThatCanBeReadBack() {
+        // Given
+        histograms.record("GET", USER, 200, Duration.ofMillis(5).toNanos());
+        histograms.record("GET", USER, 200, Duration.ofMillis(8).toNanos());
+        histograms.record("POST", "/api/v1/users", 503, Duration.ofMillis(1).toNanos());
+        histograms.rotate();
+        histograms.record("GET", USER, 200, Duration.ofMillis(6).toNanos());
+        histograms.rotate();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        histograms.writeLog(out);
+
+        // Then
+        HistogramLogReader reader = new HistogramLogReader(new ByteArrayInputStream(out.toByteArray()));
+        Map<String, Long> counts = new HashMap<>();
+        EncodableHistogram histogram;
+        while ((histogram = reader.nextIntervalHistogram()) != null) {
+            assertTrue(histogram.getStartTimeStamp() > 0);
+            counts.merge(histogram.getTag(), ((Histogram) histogram).getTotalCount(), Long::sum);
+        }
+        assertEquals(Map.of("GET:/api/v1/users/{id}:2xx", 3L, "POST:/api/v1/users:5xx", 1L), counts);
+    }
+
+    @Test
+    void writeLogShouldWriteAHeaderWithoutIntervals() {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        histograms.writeLog(out);
+
+        // Then
+        assertNull(new HistogramLogReader(new ByteArrayInputStream(out.toByteArray())).nextIntervalHistogram());
+        assertTrue(out.toString().contains("#[StartTime: "));
+    }
+}
\ No newline at end of file
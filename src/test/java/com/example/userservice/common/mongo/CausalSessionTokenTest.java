@@ -0,0 +1,60 @@
+package com.example.userservice.common.mongo;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CausalSessionTokenTest {
+
+    @Test
+    void encodeAndDecodeShouldRoundTrip() {
+        // Given
+        BsonTimestamp operationTime = new BsonTimestamp(1_700_000_000, 7);
+        BsonDocument clusterTime = new BsonDocument("clusterTime", operationTime)
+                .append("signature", new BsonDocument("keyId", new BsonInt64(42)));
+        CausalSessionToken token = new CausalSessionToken(operationTime, clusterTime);
+
+        // When
+        CausalSessionToken result = CausalSessionToken.decode(token.encode());
+
+        // Then
+        assertNotNull(result);
+        assertEquals(operationTime, result.operationTime());
+        assertEquals(clusterTime, result.clusterTime());
+    }
+
+    @Test
+    void decodeShouldReturnNullForMissingToken() {
+        assertNull(CausalSessionToken.decode(null));
+        assertNull(CausalSessionToken.decode(" "));
+    }
+
+    @Test
+    void decodeShouldReturnNullForMalformedToken() {
+        assertNull(CausalSessionToken.decode("not-a-token"));
+    }
+
+    @Test
+    void contextShouldPublishAdvancedToken() {
+        // Given
+        StringBuilder published = new StringBuilder();
+        CausalSessionContext.open(null, published::append);
+        CausalSessionToken token = new CausalSessionToken(new BsonTimestamp(1, 1), null);
+
+        try {
+            // When
+            assertFalse(CausalSessionContext.hasToken());
+            CausalSessionContext.current().advance(token);
+
+            // Then
+            assertTrue(CausalSessionContext.hasToken());
+            assertEquals(token.encode(), published.toString());
+        } finally {
+            CausalSessionContext.close();
+        }
+        assertNull(CausalSessionContext.current());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.userservice.common.mongo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexesHealthIndicatorTest {
+
+    @Mock
+    private MongoIndexBootstrapper bootstrapper;
+
+    @InjectMocks
+    private MongoIndexesHealthIndicator healthIndicator;
+
+    @Test
+    void healthShouldBeOutOfServiceWhileIndexesAreCreated() {
+        // Given
+        when(bootstrapper.isReady()).thenReturn(false);
+        when(bootstrapper.getLastError()).thenReturn("connection refused");
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals("connection refused", health.getDetails().get("lastError"));
+    }
+
+    @Test
+    void healthShouldBeUpOnceIndexesAreConfirmed() {
+        // Given
+        when(bootstrapper.isReady()).thenReturn(true);
+        when(bootstrapper.getIndexes()).thenReturn(3);
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(3, health.getDetails().get("indexes"));
+    }
+}
\ No newline at end of file
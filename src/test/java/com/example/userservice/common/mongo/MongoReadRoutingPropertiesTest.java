@@ -0,0 +1,43 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoReadRoutingPropertiesTest {
+
+    @Test
+    void routesShouldDefaultToPrimary() {
+        MongoReadRoutingProperties properties = new MongoReadRoutingProperties();
+
+        for (ReadOperation operation : ReadOperation.values()) {
+            assertEquals(ReadPreference.primary(), properties.route(operation).toReadPreference());
+        }
+    }
+
+    @Test
+    void routeShouldApplyModeAndMaxStaleness() {
+        // Given
+        MongoReadRoutingProperties properties = new MongoReadRoutingProperties();
+        properties.getListing().setMode("secondaryPreferred");
+        properties.getListing().setMaxStalenessSeconds(120L);
+
+        // When
+        ReadPreference readPreference = properties.route(ReadOperation.LISTING).toReadPreference();
+
+        // Then
+        assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), readPreference);
+        assertEquals(ReadPreference.primary(), properties.route(ReadOperation.POINT).toReadPreference());
+    }
+
+    @Test
+    void routeShouldAllowModeWithoutMaxStaleness() {
+        MongoReadRoutingProperties.Route route = new MongoReadRoutingProperties.Route();
+        route.setMode("nearest");
+
+        assertEquals(ReadPreference.nearest(), route.toReadPreference());
+    }
+}
\ No newline at end of file
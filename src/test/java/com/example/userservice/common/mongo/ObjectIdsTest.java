@@ -0,0 +1,28 @@
+package com.example.userservice.common.mongo;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectIdsTest {
+
+    @Test
+    void parseShouldMatchObjectIdConstructor() {
+        ObjectId id = new ObjectId();
+
+        assertEquals(id, ObjectIds.parse(id.toHexString()));
+        assertEquals(id, ObjectIds.parse(id.toHexString().toUpperCase()));
+    }
+
+    @Test
+    void parseShouldReturnNullForMalformedValues() {
+        assertNull(ObjectIds.parse(null));
+        assertNull(ObjectIds.parse(""));
+        assertNull(ObjectIds.parse("507f1f77bcf86cd79943901"));
+        assertNull(ObjectIds.parse("507f1f77bcf86cd7994390111"));
+        assertNull(ObjectIds.parse("507f1f77bcf86cd79943901g"));
+        assertNull(ObjectIds.parse("507f1f77bcf86cd79943901١"));
+        assertNull(ObjectIds.parse("../../../../etc/passwd00"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteConcernProfileResolverTest {
+
+    private WriteConcernProfileResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        MongoWriteConcernProperties properties = new MongoWriteConcernProperties();
+
+        MongoWriteConcernProperties.Profile interactive = new MongoWriteConcernProperties.Profile();
+        interactive.setW("majority");
+        interactive.setJournal(true);
+        interactive.setWtimeout(Duration.ofSeconds(5));
+        properties.getProfiles().put("interactive", interactive);
+
+        MongoWriteConcernProperties.Profile bulk = new MongoWriteConcernProperties.Profile();
+        bulk.setW("1");
+        bulk.setJournal(false);
+        properties.getProfiles().put("bulk", bulk);
+
+        properties.getOperations().put(MongoActionOperation.SAVE, "interactive");
+        properties.getOperations().put(MongoActionOperation.INSERT_LIST, "bulk");
+
+        resolver = new WriteConcernProfileResolver(properties);
+    }
+
+    @Test
+    void resolveShouldUseProfileBoundToOperation() {
+        assertEquals(WriteConcern.MAJORITY.withJournal(true).withWTimeout(5, TimeUnit.SECONDS),
+                resolver.resolve(action(MongoActionOperation.SAVE)));
+        assertEquals(WriteConcern.W1.withJournal(false),
+                resolver.resolve(action(MongoActionOperation.INSERT_LIST)));
+    }
+
+    @Test
+    void resolveShouldFallBackToDefaultForUnboundOperation() {
+        assertEquals(WriteConcern.ACKNOWLEDGED, resolver.resolve(action(MongoActionOperation.REMOVE)));
+    }
+
+    @Test
+    void resolveShouldPreferScopedProfile() {
+        WriteConcern result = WriteConcernScope.with("bulk", () -> resolver.resolve(action(MongoActionOperation.SAVE)));
+
+        assertEquals(WriteConcern.W1.withJournal(false), result);
+        assertNull(WriteConcernScope.current());
+    }
+
+    @Test
+    void resolveShouldRejectUnknownScopedProfile() {
+        assertThrows(IllegalArgumentException.class,
+                () -> WriteConcernScope.with("missing", () -> resolver.resolve(action(MongoActionOperation.SAVE))));
+    }
+
+    @Test
+    void resolveScopedShouldReturnNullOutsideAScope() {
+        assertNull(resolver.resolveScoped());
+        assertEquals(WriteConcern.W1.withJournal(false), WriteConcernScope.with("bulk", resolver::resolveScoped));
+    }
+
+    @Test
+    void constructorShouldRejectBlankW() {
+        MongoWriteConcernProperties properties = new MongoWriteConcernProperties();
+        MongoWriteConcernProperties.Profile blank = new MongoWriteConcernProperties.Profile();
+        blank.setW("");
+        properties.getProfiles().put("blank", blank);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new WriteConcernProfileResolver(properties));
+        assertTrue(e.getMessage().contains("blank"));
+    }
+
+    @Test
+    void constructorShouldRejectBulkBinding() {
+        MongoWriteConcernProperties properties = new MongoWriteConcernProperties();
+        properties.getProfiles().put("bulk", new MongoWriteConcernProperties.Profile());
+        properties.getOperations().put(MongoActionOperation.BULK, "bulk");
+
+        assertThrows(IllegalArgumentException.class, () -> new WriteConcernProfileResolver(properties));
+    }
+
+    private MongoAction action(MongoActionOperation operation) {
+        return new MongoAction(WriteConcern.ACKNOWLEDGED, operation, "users", Object.class, null, null);
+    }
+}
\ No newline at end of file
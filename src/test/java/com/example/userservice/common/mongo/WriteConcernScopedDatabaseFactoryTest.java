@@ -0,0 +1,82 @@
+package com.example.userservice.common.mongo;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteConcernScopedDatabaseFactoryTest {
+
+    @Mock
+    private MongoDatabaseFactory delegate;
+
+    @Mock
+    private MongoDatabase database;
+
+    @Mock
+    private MongoDatabase bulkDatabase;
+
+    private WriteConcernScopedDatabaseFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        MongoWriteConcernProperties properties = new MongoWriteConcernProperties();
+        MongoWriteConcernProperties.Profile bulk = new MongoWriteConcernProperties.Profile();
+        bulk.setW("1");
+        bulk.setJournal(false);
+        properties.getProfiles().put("bulk", bulk);
+        factory = new WriteConcernScopedDatabaseFactory(delegate, new WriteConcernProfileResolver(properties));
+    }
+
+    @Test
+    void getMongoDatabaseShouldPassDatabaseThroughOutsideAScope() {
+        // Given
+        when(delegate.getMongoDatabase()).thenReturn(database);
+
+        // When
+        MongoDatabase result = factory.getMongoDatabase();
+
+        // Then
+        assertSame(database, result);
+        verify(database, never()).withWriteConcern(any());
+    }
+
+    @Test
+    void getMongoDatabaseShouldApplyScopedProfile() {
+        // Given
+        when(delegate.getMongoDatabase()).thenReturn(database);
+        when(database.withWriteConcern(WriteConcern.W1.withJournal(false))).thenReturn(bulkDatabase);
+
+        // When
+        MongoDatabase result = WriteConcernScope.with("bulk", factory::getMongoDatabase);
+
+        // Then
+        assertSame(bulkDatabase, result);
+    }
+
+    @Test
+    void withSessionShouldKeepApplyingScopedProfile() {
+        // Given
+        ClientSession session = mock(ClientSession.class);
+        MongoDatabaseFactory sessionFactory = mock(MongoDatabaseFactory.class);
+        when(delegate.withSession(session)).thenReturn(sessionFactory);
+        when(sessionFactory.getMongoDatabase()).thenReturn(database);
+        when(database.withWriteConcern(WriteConcern.W1.withJournal(false))).thenReturn(bulkDatabase);
+
+        // When
+        MongoDatabaseFactory bound = factory.withSession(session);
+        MongoDatabase result = WriteConcernScope.with("bulk", bound::getMongoDatabase);
+
+        // Then
+        assertSame(bulkDatabase, result);
+    }
+}
\ No newline at end of file
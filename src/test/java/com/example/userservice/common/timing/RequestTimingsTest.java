@@ -0,0 +1,77 @@
+package com.example.userservice.common.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.close();
+    }
+
+    @Test
+    void recordersShouldAddToTheOpenTimings() {
+        // Given
+        RequestTimings timings = RequestTimings.open();
+
+        // When
+        RequestTimings.recordCommand(1_500_000);
+        RequestTimings.recordCommand(250_000);
+        RequestTimings.recordValidation(40_000);
+        RequestTimings.recordSerialization(310_000);
+        RequestTimings.close();
+
+        // Then
+        assertNull(RequestTimings.current());
+        assertEquals(2, timings.getCommands());
+        assertEquals(1_750_000, timings.getDatabaseNanos());
+        assertEquals(40_000, timings.getValidationNanos());
+        assertEquals(310_000, timings.getSerializationNanos());
+    }
+
+    @Test
+    void recordersShouldIgnoreWorkOutsideARequest() {
+        // When
+        RequestTimings.recordCommand(1_000_000);
+        RequestTimings.recordValidation(1_000_000);
+        RequestTimings.recordSerialization(1_000_000);
+
+        // Then
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void totalShouldStopWhenClosed() throws InterruptedException {
+        // Given
+        RequestTimings timings = RequestTimings.open();
+        RequestTimings.close();
+        long total = timings.getTotalNanos();
+
+        // When
+        Thread.sleep(5);
+
+        // Then
+        assertEquals(total, timings.getTotalNanos());
+    }
+
+    @Test
+    void serverTimingShouldReportMillisecondsWithMicrosecondPrecision() {
+        // Given
+        RequestTimings timings = RequestTimings.open();
+        RequestTimings.recordCommand(1_250_400);
+        RequestTimings.recordValidation(40_000);
+        RequestTimings.recordSerialization(2_005_000);
+        RequestTimings.close();
+
+        // When
+        String header = timings.toServerTiming();
+
+        // Then
+        assertTrue(header.startsWith("db;desc=\"1 command\";dur=1.250, validation;dur=0.040, "
+                + "serialization;dur=2.005, total;dur="), header);
+        assertTrue(header.matches(".*total;dur=\\d+\\.\\d{3}"), header);
+    }
+}
\ No newline at end of file
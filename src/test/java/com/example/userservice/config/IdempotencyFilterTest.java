@@ -0,0 +1,180 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.idempotency.IdempotencyProperties;
+import com.example.userservice.common.idempotency.IdempotencyRecord;
+import com.example.userservice.common.idempotency.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"}";
+    private static final String CREATED = "{\"id\":\"1\"}";
+    private static final String ATTEMPT = "attempt-1";
+
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+    private String fingerprint;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = mock(IdempotencyStore.class);
+        filter = new IdempotencyFilter(store, new IdempotencyProperties());
+        when(store.acquire(anyString(), anyString())).thenAnswer(invocation -> {
+            fingerprint = invocation.getArgument(1);
+            return new IdempotencyStore.Acquisition(ATTEMPT, null);
+        });
+        when(store.complete(anyString(), eq(ATTEMPT), anyInt(), any(), any())).thenAnswer(invocation ->
+                new IdempotencyRecord(invocation.getArgument(0), fingerprint, null, true,
+                        invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4),
+                        Instant.now(), Instant.now()));
+    }
+
+    @Test
+    void firstRequestShouldRunAndStoreItsResponse() throws Exception {
+        MockHttpServletResponse response = post("key-1", BODY, created());
+
+        assertEquals(201, response.getStatus());
+        assertEquals(CREATED, response.getContentAsString());
+        assertNull(response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+        verify(store).complete(eq("/api/v1/users key-1"), eq(ATTEMPT), eq(201),
+                eq(Map.of("Content-Type", "application/json", "X-Session-Token", "token")), any());
+    }
+
+    @Test
+    void retryShouldReplayStoredResponseWithoutRunningAgain() throws Exception {
+        post("key-1", BODY, created());
+
+        MockHttpServletResponse replay = post("key-1", BODY, created());
+
+        assertEquals(201, replay.getStatus());
+        assertEquals(CREATED, replay.getContentAsString());
+        assertEquals("true", replay.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("token", replay.getHeader(CausalConsistencyFilter.SESSION_TOKEN_HEADER));
+        assertEquals(1, executions.get());
+        verify(store, times(1)).acquire(anyString(), anyString());
+    }
+
+    @Test
+    void serverErrorShouldReleaseTheKey() throws Exception {
+        MockHttpServletResponse response = post("key-1", BODY, (request, servletResponse) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) servletResponse).setStatus(503);
+        });
+
+        assertEquals(503, response.getStatus());
+        verify(store).release("/api/v1/users key-1", ATTEMPT);
+        verify(store, never()).complete(anyString(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void responseShouldNotBeReplayedWhenTheKeyWasTakenOver() throws Exception {
+        when(store.complete(anyString(), eq(ATTEMPT), anyInt(), any(), any())).thenReturn(null);
+
+        MockHttpServletResponse response = post("key-1", BODY, created());
+        post("key-1", BODY, created());
+
+        assertEquals(201, response.getStatus());
+        assertEquals(CREATED, response.getContentAsString());
+        assertEquals(2, executions.get());
+        verify(store, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestShouldBeRejected() throws Exception {
+        IdempotencyRecord other = new IdempotencyRecord("/api/v1/users key-1", "other-fingerprint", null, true, 201,
+                Map.of(), CREATED.getBytes(StandardCharsets.UTF_8), Instant.now(), Instant.now());
+        when(store.acquire(anyString(), anyString())).thenReturn(new IdempotencyStore.Acquisition(null, other));
+
+        MockHttpServletResponse response = post("key-1", BODY, created());
+
+        assertEquals(422, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicateShouldWaitForTheFirstAttempt() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowCreate = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+
+        MockHttpServletResponse[] responses = new MockHttpServletResponse[2];
+        Thread first = Thread.ofVirtual().start(() -> responses[0] = postUnchecked(slowCreate));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Thread duplicate = Thread.ofVirtual().start(() -> responses[1] = postUnchecked(created()));
+        Thread.sleep(50);
+        release.countDown();
+        first.join();
+        duplicate.join();
+
+        assertEquals(1, executions.get());
+        assertEquals(201, responses[0].getStatus());
+        assertEquals(201, responses[1].getStatus());
+        assertEquals("true", responses[1].getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(store, times(1)).acquire(anyString(), anyString());
+    }
+
+    @Test
+    void requestsWithoutKeyShouldPassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(request, new MockHttpServletResponse(), created());
+
+        assertEquals(1, executions.get());
+        verifyNoInteractions(store);
+    }
+
+    private FilterChain created() {
+        return (request, servletResponse) -> {
+            executions.incrementAndGet();
+            HttpServletResponse response = (HttpServletResponse) servletResponse;
+            response.setStatus(201);
+            response.setContentType("application/json");
+            response.setHeader(CausalConsistencyFilter.SESSION_TOKEN_HEADER, "token");
+            response.getOutputStream().write(CREATED.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletResponse post(String key, String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse postUnchecked(FilterChain chain) {
+        try {
+            return post("key-1", BODY, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.support.InMemoryTracing;
+import com.example.userservice.user.controller.UserController;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.repository.UserRepository;
+import com.example.userservice.user.search.UserNameIndex;
+import com.example.userservice.user.service.RawUserReads;
+import com.example.userservice.user.service.UserService;
+import com.example.userservice.user.service.UserServiceImpl;
+import com.example.userservice.user.service.UserServiceProperties;
+import io.micrometer.observation.Observation;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObservationConfigTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserNameIndex userNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final InMemoryTracing tracing = new InMemoryTracing();
+
+    @Test
+    void requestShouldNestServiceAndMongoSpansUnderControllerSpan() throws Exception {
+        // Stands in for the span MongoObservationCommandListener opens for each command
+        when(userRepository.findAll(ReadOperation.LISTING)).thenAnswer(invocation ->
+                Observation.createNotStarted("mongodb.command", tracing.registry())
+                        .contextualName("find users")
+                        .observe(() -> List.of(new User("John Doe", "john.doe@example.com"))));
+        UserService userService = observed(
+                new UserServiceImpl(userRepository, userNameIndex, eventPublisher, new UserServiceProperties()));
+        UserController userController = observed(new UserController(userService, Optional.empty()));
+
+        userController.getUsers(null, new MockHttpServletResponse());
+
+        SimpleSpan controllerSpan = single(tracing.roots());
+        assertTrue(controllerSpan.getName().startsWith("user-controller#"), controllerSpan.getName());
+        SimpleSpan serviceSpan = single(tracing.children(controllerSpan));
+        assertTrue(serviceSpan.getName().startsWith("user-service-impl#"), serviceSpan.getName());
+        SimpleSpan mongoSpan = single(tracing.children(serviceSpan));
+        assertEquals("find users", mongoSpan.getName());
+        assertEquals(controllerSpan.context().traceId(), mongoSpan.context().traceId());
+    }
+
+    @Test
+    void rawListingShouldKeepTheServiceSpan() throws Exception {
+        when(userRepository.findAllRaw(ReadOperation.LISTING)).thenAnswer(invocation ->
+                Observation.createNotStarted("mongodb.command", tracing.registry())
+                        .contextualName("find users")
+                        .observe(() -> List.<RawBsonDocument>of()));
+        UserServiceProperties properties = new UserServiceProperties();
+        properties.getRawReads().setListing(true);
+        RawUserReads rawReads = observed(new RawUserReads(userRepository, properties));
+        UserController userController = observed(new UserController(mock(UserService.class), Optional.of(rawReads)));
+
+        userController.getUsers(null, new MockHttpServletResponse());
+
+        SimpleSpan controllerSpan = single(tracing.roots());
+        SimpleSpan serviceSpan = single(tracing.children(controllerSpan));
+        assertEquals("raw-user-reads#get-all-users", serviceSpan.getName());
+        assertEquals("find users", single(tracing.children(serviceSpan)).getName());
+    }
+
+    private <T> T observed(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ObservationConfig().observedAspect(tracing.registry()));
+        return factory.getProxy();
+    }
+
+    private static SimpleSpan single(List<SimpleSpan> spans) {
+        assertEquals(1, spans.size(), () -> "Expected one span: " + spans);
+        return spans.get(0);
+    }
+}
\ No newline at end of file
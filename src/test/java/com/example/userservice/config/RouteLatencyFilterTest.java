@@ -0,0 +1,63 @@
+package com.example.userservice.config;
+
+import com.example.userservice.common.latency.LatencyHistograms;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RouteLatencyFilterTest {
+
+    private final LatencyHistograms histograms = mock(LatencyHistograms.class);
+    private final RouteLatencyFilter filter = new RouteLatencyFilter(histograms);
+
+    @Test
+    void requestsShouldBeRecordedUnderTheirRoutePattern() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/65f0c0ffee");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+            ((HttpServletResponse) servletResponse).setStatus(404);
+        });
+
+        // Then
+        verify(histograms).record(eq("GET"), eq("/api/v1/users/{id}"), eq(404), anyLong());
+    }
+
+    @Test
+    void unmatchedAndFailedRequestsShouldBeRecordedAsServerErrors() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users");
+
+        // When
+        assertThrows(ServletException.class, () -> filter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> {
+                    throw new ServletException("boom");
+                }));
+
+        // Then
+        verify(histograms).record(eq("POST"), eq(RouteLatencyFilter.UNMATCHED), eq(500), anyLong());
+    }
+
+    @Test
+    void asyncResponsesShouldNotBeRecorded() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/stream");
+        request.setAsyncSupported(true);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> servletRequest.startAsync());
+
+        // Then
+        verifyNoInteractions(histograms);
+    }
+}
\ No newline at end of file
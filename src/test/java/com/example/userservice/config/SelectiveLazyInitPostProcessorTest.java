@@ -0,0 +1,48 @@
+package com.example.userservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectiveLazyInitPostProcessorTest {
+
+    @Test
+    void shouldMarkOnlyBeansFromConfiguredPackagesLazy() {
+        // Given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("docs", definition("org.springdoc.webmvc.api.OpenApiWebMvcResource"));
+        beanFactory.registerBeanDefinition("lookalike", definition("org.springdocs.Other"));
+        beanFactory.registerBeanDefinition("service", definition("com.example.userservice.user.service.UserServiceImpl"));
+
+        // When
+        new SelectiveLazyInitPostProcessor(List.of("org.springdoc")).postProcessBeanFactory(beanFactory);
+
+        // Then
+        assertTrue(beanFactory.getBeanDefinition("docs").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("lookalike").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("service").isLazyInit());
+    }
+
+    @Test
+    void shouldLeaveBeansEagerWithoutPackages() {
+        // Given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("docs", definition("org.springdoc.webmvc.api.OpenApiWebMvcResource"));
+
+        // When
+        new SelectiveLazyInitPostProcessor(List.of()).postProcessBeanFactory(beanFactory);
+
+        // Then
+        assertFalse(beanFactory.getBeanDefinition("docs").isLazyInit());
+    }
+
+    private static GenericBeanDefinition definition(String className) {
+        GenericBeanDefinition definition = new GenericBeanDefinition();
+        definition.setBeanClassName(className);
+        return definition;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.example.userservice.support;
+
+import com.sun.management.ThreadMXBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes a MockMvc request allocates on the calling thread, which runs the whole filter chain,
+ * the controller, the service, Jackson and the Mongo driver. Work handed to other threads isn't counted, and
+ * MockMvc's own request and response objects are.
+ */
+public final class Allocations {
+
+    private static final int WARMUP_REQUESTS = 200;
+    private static final int MEASURED_REQUESTS = 25;
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    /**
+     * Get the median bytes allocated per request once the JIT has warmed up.
+     *
+     * @param mockMvc The MockMvc to perform requests with
+     * @param requests Builds the request of each iteration, outside the measurement, e.g. after creating the
+     *                 user a {@code DELETE} removes
+     * @param expected What every response must match
+     * @return The median bytes allocated
+     * @throws Exception If a request fails or doesn't match
+     */
+    public static long perRequest(MockMvc mockMvc, IntFunction<RequestBuilder> requests, ResultMatcher expected)
+            throws Exception {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled(),
+                "Thread allocation accounting is not available on this JVM");
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            expected.match(mockMvc.perform(requests.apply(i)).andReturn());
+        }
+        long[] bytes = new long[MEASURED_REQUESTS];
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            RequestBuilder request = requests.apply(WARMUP_REQUESTS + i);
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            MvcResult result = mockMvc.perform(request).andReturn();
+            bytes[i] = THREADS.getCurrentThreadAllocatedBytes() - before;
+            expected.match(result);
+        }
+        Arrays.sort(bytes);
+        return bytes[MEASURED_REQUESTS / 2];
+    }
+
+    /**
+     * Fail when a request allocated more than its budget.
+     *
+     * @param request The method and route, for the failure message
+     * @param bytes The bytes allocated per request
+     * @param budgetBytes The allocation budget of the endpoint
+     */
+    public static void assertWithinBudget(String request, long bytes, long budgetBytes) {
+        assertTrue(bytes <= budgetBytes, () -> request + " allocated " + bytes
+                + " bytes per request, over its budget of " + budgetBytes);
+    }
+}
\ No newline at end of file
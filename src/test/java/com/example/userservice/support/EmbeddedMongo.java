@@ -0,0 +1,60 @@
+package com.example.userservice.support;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * A throwaway mongod for benchmarks and query plan tests. The first start downloads the server binaries.
+ */
+public final class EmbeddedMongo implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> process;
+    private final String address;
+    private final MongoClient client;
+
+    private EmbeddedMongo(TransitionWalker.ReachedState<RunningMongodProcess> process) {
+        this.process = process;
+        this.address = "mongodb://" + process.current().getServerAddress();
+        this.client = MongoClients.create(address);
+    }
+
+    /**
+     * Start a standalone mongod.
+     *
+     * @return The running server
+     */
+    public static EmbeddedMongo start() {
+        return new EmbeddedMongo(Mongod.instance().start(Version.Main.V6_0));
+    }
+
+    /**
+     * Get the connection string of a database on the running server.
+     *
+     * @param database The database name
+     * @return The connection string
+     */
+    public String uri(String database) {
+        return address + "/" + database;
+    }
+
+    /**
+     * Create a template on a database of the running server.
+     *
+     * @param database The database name
+     * @return The template
+     */
+    public MongoTemplate template(String database) {
+        return new MongoTemplate(client, database);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        process.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.userservice.support;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import de.flapdoodle.embed.mongo.commands.MongodArguments;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A throwaway replica set of local mongods for read routing tests. The first member is given the highest
+ * priority, so it is the primary once {@link #start(int)} returns. The first start downloads the server binaries.
+ */
+public final class EmbeddedReplicaSet implements AutoCloseable {
+
+    private static final String NAME = "rs0";
+    private static final long ELECTION_TIMEOUT_MILLIS = 60_000;
+
+    private final List<TransitionWalker.ReachedState<RunningMongodProcess>> members;
+    private final List<String> hosts = new ArrayList<>();
+
+    private EmbeddedReplicaSet(List<TransitionWalker.ReachedState<RunningMongodProcess>> members) {
+        this.members = members;
+        members.forEach(member -> hosts.add(member.current().getServerAddress().toString()));
+    }
+
+    /**
+     * Start the members, initiate the set and wait until every member is a primary or secondary.
+     *
+     * @param size The number of members
+     * @return The running replica set
+     */
+    public static EmbeddedReplicaSet start(int size) {
+        List<TransitionWalker.ReachedState<RunningMongodProcess>> members = new ArrayList<>();
+        try {
+            for (int i = 0; i < size; i++) {
+                members.add(Mongod.instance()
+                        .withMongodArguments(Start.to(MongodArguments.class)
+                                .initializedWith(MongodArguments.defaults().withReplication(Storage.of(NAME, 0))))
+                        .start(Version.Main.V6_0));
+            }
+            EmbeddedReplicaSet replicaSet = new EmbeddedReplicaSet(members);
+            replicaSet.initiate();
+            return replicaSet;
+        } catch (RuntimeException e) {
+            members.forEach(TransitionWalker.ReachedState::close);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the connection string of a database on the replica set.
+     *
+     * @param database The database name
+     * @return The connection string
+     */
+    public String uri(String database) {
+        return "mongodb://" + String.join(",", hosts) + "/" + database + "?replicaSet=" + NAME;
+    }
+
+    /**
+     * Get the address of the primary.
+     *
+     * @return The host and port
+     */
+    public String primary() {
+        return hosts.get(0);
+    }
+
+    @Override
+    public void close() {
+        members.forEach(TransitionWalker.ReachedState::close);
+    }
+
+    private void initiate() {
+        List<Document> config = new ArrayList<>();
+        for (int i = 0; i < hosts.size(); i++) {
+            config.add(new Document("_id", i).append("host", hosts.get(i)).append("priority", i == 0 ? 2 : 1));
+        }
+        try (MongoClient client = MongoClients.create("mongodb://" + primary() + "/?directConnection=true")) {
+            MongoDatabase admin = client.getDatabase("admin");
+            admin.runCommand(new Document("replSetInitiate",
+                    new Document("_id", NAME).append("members", config)));
+            long deadline = System.currentTimeMillis() + ELECTION_TIMEOUT_MILLIS;
+            while (!settled(admin.runCommand(new Document("replSetGetStatus", 1)))) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Replica set " + NAME + " did not elect " + primary());
+                }
+                sleep();
+            }
+        }
+    }
+
+    // Settled once the first member is primary and every other member is a secondary
+    private boolean settled(Document status) {
+        List<Document> statuses = status.getList("members", Document.class);
+        for (Document member : statuses) {
+            String state = member.getString("stateStr");
+            boolean first = primary().equals(member.getString("name"));
+            if (!(first ? "PRIMARY" : "SECONDARY").equals(state)) {
+                return false;
+            }
+        }
+        return statuses.size() == hosts.size();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the replica set", e);
+        }
+    }
+}
\ No newline at end of file
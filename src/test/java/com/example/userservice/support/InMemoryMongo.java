@@ -0,0 +1,46 @@
+package com.example.userservice.support;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+import java.net.InetSocketAddress;
+
+/**
+ * An in-process, in-memory server speaking the Mongo wire protocol, for tests that exercise the driver but not
+ * the query planner or replication. Nothing is downloaded, and the server runs on its own threads.
+ */
+public final class InMemoryMongo implements AutoCloseable {
+
+    private final MongoServer server;
+    private final String address;
+
+    private InMemoryMongo(MongoServer server, InetSocketAddress socketAddress) {
+        this.server = server;
+        this.address = "mongodb://" + socketAddress.getHostString() + ":" + socketAddress.getPort();
+    }
+
+    /**
+     * Start a server on a free local port.
+     *
+     * @return The running server
+     */
+    public static InMemoryMongo start() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        return new InMemoryMongo(server, server.bind());
+    }
+
+    /**
+     * Get the connection string of a database on the running server.
+     *
+     * @param database The database name
+     * @return The connection string
+     */
+    public String uri(String database) {
+        return address + "/" + database;
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.userservice.support;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+
+import java.util.List;
+
+/**
+ * An observation registry whose spans are kept in memory, so tests can assert span trees without a collector.
+ */
+public final class InMemoryTracing {
+
+    private final SimpleTracer tracer = new SimpleTracer();
+    private final ObservationRegistry registry = ObservationRegistry.create();
+
+    public InMemoryTracing() {
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+    }
+
+    /**
+     * Get the registry to observe with.
+     *
+     * @return The registry
+     */
+    public ObservationRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Get the finished and unfinished spans, in creation order.
+     *
+     * @return The spans
+     */
+    public List<SimpleSpan> spans() {
+        return List.copyOf(tracer.getSpans());
+    }
+
+    /**
+     * Get the spans that started a trace.
+     *
+     * @return The spans without a parent
+     */
+    public List<SimpleSpan> roots() {
+        return spans().stream()
+                .filter(span -> span.context().parentId() == null || span.context().parentId().isEmpty())
+                .toList();
+    }
+
+    /**
+     * Get the direct children of a span.
+     *
+     * @param parent The parent span
+     * @return The spans whose parent it is
+     */
+    public List<SimpleSpan> children(SimpleSpan parent) {
+        return spans().stream()
+                .filter(span -> parent.context().spanId().equals(span.context().parentId()))
+                .toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.userservice.support;
+
+import com.example.userservice.common.timing.RequestTimings;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers on the Mongo round trips of a request, read from the {@link RequestTimings} the logging
+ * filter leaves on the request. The filter must be part of the MockMvc setup.
+ */
+public final class RoundTrips {
+
+    private RoundTrips() {
+    }
+
+    /**
+     * Expect the request to have sent at most the given number of Mongo commands.
+     *
+     * @param max The round trip budget of the endpoint
+     * @return The matcher
+     */
+    public static ResultMatcher atMost(int max) {
+        return result -> {
+            int commands = timings(result).getCommands();
+            MockHttpServletRequest request = result.getRequest();
+            assertTrue(commands <= max, () -> request.getMethod() + " " + request.getRequestURI() + " made "
+                    + commands + " Mongo round trips, over its budget of " + max);
+        };
+    }
+
+    /**
+     * Get the timings recorded for a request.
+     *
+     * @param result The result of the request
+     * @return The timings
+     */
+    public static RequestTimings timings(MvcResult result) {
+        RequestTimings timings = (RequestTimings) result.getRequest().getAttribute(RequestTimings.ATTRIBUTE);
+        assertNotNull(timings, "No request timings; is RequestResponseLoggingFilter part of the MockMvc setup?");
+        return timings;
+    }
+}
\ No newline at end of file
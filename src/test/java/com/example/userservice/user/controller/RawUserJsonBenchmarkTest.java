@@ -0,0 +1,108 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.common.mongo.CausalSessionExecutor;
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.config.JacksonConfig;
+import com.example.userservice.support.EmbeddedMongo;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.repository.RoutedUserRepositoryImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares CPU time and allocation per request of reads mapped to Users and serialized by Jackson against
+ * raw BSON written straight to JSON, for the full listing and for reads by ID, on embedded Mongo. Both are
+ * measured on the calling thread, which decodes the driver's replies. Run with {@code ./gradlew benchmark};
+ * tune with {@code -Dbenchmark.users} and {@code -Dbenchmark.requests}.
+ */
+@Tag("benchmark")
+class RawUserJsonBenchmarkTest {
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void rawReadsShouldUseLessCpuAndAllocateLess() throws Exception {
+        int users = Integer.getInteger("benchmark.users", 1_000);
+        int requests = Integer.getInteger("benchmark.requests", 2_000);
+
+        try (EmbeddedMongo mongo = EmbeddedMongo.start()) {
+            MongoTemplate template = mongo.template("raw");
+            List<ObjectId> ids = seed(template, users);
+            MongoReadRoutingProperties properties = new MongoReadRoutingProperties();
+            RoutedUserRepositoryImpl repository =
+                    new RoutedUserRepositoryImpl(new CausalSessionExecutor(template, properties), properties);
+
+            int listings = Math.max(requests / 20, 10);
+            // Jackson closes the stream it writes to, so each request gets its own
+            Result mappedListing = measure(listings, i -> objectMapper.writeValue(
+                    OutputStream.nullOutputStream(), repository.findAll(ReadOperation.LISTING)));
+            Result rawListing = measure(listings, i ->
+                    RawUserJson.write(OutputStream.nullOutputStream(), repository.findAllRaw(ReadOperation.LISTING)));
+            Result mappedPoint = measure(requests, i -> objectMapper.writeValue(
+                    new MockHttpServletResponse().getOutputStream(),
+                    repository.findById(ids.get(i % users), ReadOperation.POINT).orElseThrow()));
+            Result rawPoint = measure(requests, i -> RawUserJson.write(new MockHttpServletResponse(),
+                    repository.findRawById(ids.get(i % users), ReadOperation.POINT).orElseThrow()));
+
+            print("listing (" + users + " users), mapped", mappedListing);
+            print("listing (" + users + " users), raw   ", rawListing);
+            print("by ID, mapped", mappedPoint);
+            print("by ID, raw   ", rawPoint);
+            assertTrue(rawListing.bytes < mappedListing.bytes);
+            assertTrue(rawPoint.bytes < mappedPoint.bytes);
+        }
+    }
+
+    private static List<ObjectId> seed(MongoTemplate template, int users) {
+        List<User> batch = new ArrayList<>(users);
+        Instant now = Instant.now();
+        for (int i = 0; i < users; i++) {
+            User user = new User("Benchmark User " + i, "user" + i + "@example.com");
+            user.setId(new ObjectId());
+            user.setCreatedAt(now);
+            user.setLastModified(now);
+            batch.add(user);
+        }
+        template.insertAll(batch);
+        return batch.stream().map(User::getId).toList();
+    }
+
+    private Result measure(int requests, Request request) throws Exception {
+        for (int i = 0; i < requests / 4; i++) {
+            request.run(i);
+        }
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < requests; i++) {
+            request.run(i);
+        }
+        return new Result((threads.getCurrentThreadCpuTime() - cpuBefore) / requests,
+                (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / requests);
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%s: %,d µs CPU %,d bytes per request%n", label, result.cpuNanos / 1_000, result.bytes);
+    }
+
+    private interface Request {
+        void run(int i) throws Exception;
+    }
+
+    private record Result(long cpuNanos, long bytes) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.config.JacksonConfig;
+import com.example.userservice.user.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawUserJsonTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void writeShouldMatchJacksonOutputForUser() throws Exception {
+        User user = new User("Björk \"Guðmundsdóttir\"", "bjork@example.com");
+        user.setId(new ObjectId());
+        user.setCreatedAt(Instant.parse("2024-03-01T10:15:30.123Z"));
+        user.setLastModified(Instant.parse("2024-03-02T08:00:00Z"));
+        BsonDocument document = new BsonDocument("_id", new BsonObjectId(user.getId()))
+                .append("name", new BsonString(user.getName()))
+                .append("email", new BsonString(user.getEmail()))
+                .append("searchName", new BsonString(user.getSearchName()))
+                .append("createdAt", new BsonDateTime(user.getCreatedAt().toEpochMilli()))
+                .append("lastModified", new BsonDateTime(user.getLastModified().toEpochMilli()))
+                .append("_class", new BsonString(User.class.getName()));
+
+        String json = write(List.of(raw(document)));
+
+        assertEquals(jackson(user), objectMapper.readTree(json));
+    }
+
+    @Test
+    void writeShouldWriteMissingFieldsAsNull() throws Exception {
+        User user = new User("Legacy User", "legacy@example.com");
+        user.setId(new ObjectId());
+        BsonDocument document = new BsonDocument("_id", new BsonObjectId(user.getId()))
+                .append("name", new BsonString(user.getName()))
+                .append("email", new BsonString(user.getEmail()))
+                .append("version", new BsonInt32(3));
+
+        String json = write(List.of(raw(document)));
+
+        assertEquals(jackson(user), objectMapper.readTree(json));
+    }
+
+    @Test
+    void writeShouldWriteEmptyArrayForNoUsers() throws Exception {
+        assertEquals("[]", write(List.of()));
+    }
+
+    private JsonNode jackson(User user) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(List.of(user)));
+    }
+
+    private static RawBsonDocument raw(BsonDocument document) {
+        return new RawBsonDocument(document, new BsonDocumentCodec());
+    }
+
+    private static String write(List<RawBsonDocument> documents) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RawUserJson.write(out, documents);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.support.InMemoryMongo;
+import com.example.userservice.user.model.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.userservice.support.Allocations.assertWithinBudget;
+import static com.example.userservice.support.Allocations.perRequest;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bytes allocated per request by the hot user endpoints. Each test sends 200 warmup requests, then reads the
+ * thread allocation counter around 25 more and compares their median with the endpoint's budget. MockMvc runs
+ * the whole stack on the test thread, so the count covers request logging, Jackson and the Mongo driver, here
+ * talking to an in-memory server. Point read batching and causal sessions are switched off: a batched read can
+ * run on another request's thread, and the in-memory server has no sessions. Budgets are the median measured
+ * in this setup plus 20%; lower one when a change frees up headroom.
+ * Run with {@code ./gradlew allocationTest}, part of {@code check}.
+ */
+@Tag("allocations")
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserAllocationBudgetTest {
+
+    private static final String USERS = "/api/v1/users";
+    private static final long KIB = 1024;
+
+    private static InMemoryMongo mongo;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        mongo = InMemoryMongo.start();
+        registry.add("spring.data.mongodb.uri", () -> mongo.uri("allocations"));
+        registry.add("spring.data.mongodb.database", () -> "allocations");
+        // Batched point reads may run on another request's thread, out of sight of the allocation counter
+        registry.add("user-service.users.point-reads.batching", () -> "false");
+        // The in-memory server has no sessions, so writes run outside the causal session they get in production
+        registry.add("user-service.mongodb.read-routing.causal-consistency", () -> "false");
+    }
+
+    @AfterAll
+    static void stop() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), User.class);
+        user = mongoTemplate.save(new User("Alice Example", "alice@example.com"));
+    }
+
+    @Test
+    void getByIdShouldStayWithinItsBudget() throws Exception {
+        long bytes = perRequest(mockMvc, i -> get(USERS + "/{id}", user.getId().toHexString()), status().isOk());
+
+        // Measured 124.7 KiB
+        assertWithinBudget("GET /users/{id}", bytes, 150 * KIB);
+    }
+
+    @Test
+    void getByEmailShouldStayWithinItsBudget() throws Exception {
+        long bytes = perRequest(mockMvc, i -> get(USERS).param("email", "alice@example.com"), status().isOk());
+
+        // Measured 123.1 KiB
+        assertWithinBudget("GET /users?email=", bytes, 148 * KIB);
+    }
+
+    @Test
+    void createShouldStayWithinItsBudget() throws Exception {
+        long bytes = perRequest(mockMvc, i -> post(USERS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"User " + i + "\",\"email\":\"user" + i + "@example.com\"}"),
+                status().isCreated());
+
+        // Measured 172.0 KiB
+        assertWithinBudget("POST /users", bytes, 207 * KIB);
+    }
+
+    @Test
+    void patchShouldStayWithinItsBudget() throws Exception {
+        long bytes = perRequest(mockMvc, i -> patch(USERS + "/{id}", user.getId().toHexString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Alice " + i + "\"}"),
+                status().isOk());
+
+        // Measured 179.1 KiB
+        assertWithinBudget("PATCH /users/{id}", bytes, 215 * KIB);
+    }
+
+    @Test
+    void deleteShouldStayWithinItsBudget() throws Exception {
+        long bytes = perRequest(mockMvc, i -> {
+            User doomed = mongoTemplate.save(new User("Doomed " + i, "doomed" + i + "@example.com"));
+            return delete(USERS + "/{id}", doomed.getId().toHexString());
+        }, status().isNoContent());
+
+        // Measured 180.3 KiB
+        assertWithinBudget("DELETE /users/{id}", bytes, 217 * KIB);
+    }
+}
\ No newline at end of file
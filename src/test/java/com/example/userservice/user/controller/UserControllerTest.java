@@ -3,13 +3,28 @@ package com.example.userservice.user.controller;
 import com.example.userservice.common.exception.BadRequestException;
 import com.example.userservice.common.exception.DuplicateResourceException;
 import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.exception.ResourceGoneException;
+import com.example.userservice.common.timing.RequestTimings;
+import com.example.userservice.support.RoundTrips;
 import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserChange;
+import com.example.userservice.user.model.UserChangesPage;
+import com.example.userservice.user.model.UserCount;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserSearchPage;
+import com.example.userservice.user.service.RawUserReads;
 import com.example.userservice.user.service.UserService;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,15 +39,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -72,6 +90,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private RawUserReads rawUserReads;
+
     private User user1;
     private User user2;
     private ObjectId userId1;
@@ -103,6 +124,55 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email", is("john.doe@example.com")));
     }
 
+    @Test
+    void getUserByIdShouldWriteRawDocumentWhenPointReadsAreRaw() throws Exception {
+        // Given
+        when(rawUserReads.isPoint()).thenReturn(true);
+        when(rawUserReads.getUserById(userId1)).thenReturn(rawDocument(user1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/{id}", userId1.toHexString())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id", is(userId1.toHexString())))
+                .andExpect(jsonPath("$.name", is("John Doe")))
+                .andExpect(jsonPath("$.createdAt", is("2024-03-01T10:15:30.123Z")))
+                .andExpect(jsonPath("$.searchName").doesNotExist());
+
+        verify(userService, never()).getUserById(any(ObjectId.class));
+    }
+
+    @Test
+    void getUsersShouldWriteRawDocumentsWhenListingIsRaw() throws Exception {
+        // Given
+        when(rawUserReads.isListing()).thenReturn(true);
+        when(rawUserReads.getAllUsers()).thenReturn(List.of(rawDocument(user1), rawDocument(user2)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(userId2.toHexString())))
+                .andExpect(jsonPath("$[1].email", is("jane.smith@example.com")))
+                .andExpect(jsonPath("$[1].lastModified", nullValue()));
+
+        verify(userService, never()).getAllUsers();
+    }
+
+    @Test
+    void getUserByIdShouldReturn400WhenIdIsMalformed() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/{id}", "not-an-object-id")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail", is("Invalid ID: expected 24 hexadecimal characters")));
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void getUserByIdShouldReturn404WhenUserNotFound() throws Exception {
         // Given
@@ -113,7 +183,10 @@ class UserControllerTest {
         // When & Then
         mockMvc.perform(get("/api/v1/users/{id}", nonExistentId.toHexString())
                 .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status", is(404)))
+                .andExpect(jsonPath("$.title", is("Not Found")));
     }
 
     @Test
@@ -200,6 +273,28 @@ class UserControllerTest {
         verify(userService).createUser(any(User.class));
     }
     
+    @Test
+    void createUserShouldReturnServerTiming() throws Exception {
+        // Given
+        User savedUser = new User("New User", "new.user@example.com");
+        savedUser.setId(new ObjectId());
+        when(userService.createUser(any(User.class))).thenReturn(savedUser);
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new User("New User", "new.user@example.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Server-Timing", containsString("db;desc=\"0 commands\";dur=0.000, ")))
+                .andExpect(RoundTrips.atMost(0))
+                .andReturn();
+
+        // Then
+        RequestTimings timings = RoundTrips.timings(result);
+        assertTrue(timings.getValidationNanos() > 0);
+        assertTrue(timings.getSerializationNanos() > 0);
+    }
+
     @Test
     void createUserShouldReturn400WithInvalidUser() throws Exception {
         // Given
@@ -334,4 +429,95 @@ class UserControllerTest {
         mockMvc.perform(delete("/api/v1/users/{id}", nonExistentId.toHexString()))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void searchUsersShouldReturnPage() throws Exception {
+        // Given
+        when(userService.searchByPrefix(UserSearchField.EMAIL, "jo", 5, null))
+                .thenReturn(new UserSearchPage(List.of(user1), "next-token"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/search")
+                .param("prefix", "jo")
+                .param("field", "email")
+                .param("limit", "5")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].email", is("john.doe@example.com")))
+                .andExpect(jsonPath("$.users[0].searchName").doesNotExist())
+                .andExpect(jsonPath("$.next", is("next-token")));
+    }
+
+    @Test
+    void searchUsersShouldReturn400WhenServiceRejectsParameters() throws Exception {
+        // Given
+        when(userService.searchByPrefix(isNull(), eq("jo"), eq(10), isNull()))
+                .thenThrow(new BadRequestException("Search field must be one of: name, email"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/search")
+                .param("prefix", "jo")
+                .param("field", "phone")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void countUsersShouldReturnEstimateByDefault() throws Exception {
+        // Given
+        when(userService.countUsers(false, UserSearchField.NAME, null)).thenReturn(new UserCount(1000L, false));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/count")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(1000)))
+                .andExpect(jsonPath("$.exact", is(false)));
+
+        verify(userService, never()).getAllUsers();
+    }
+
+    @Test
+    void getChangesShouldReturnPage() throws Exception {
+        // Given
+        Instant since = Instant.parse("2024-01-01T00:00:00Z");
+        Instant watermark = Instant.parse("2024-01-01T00:05:00Z");
+        user1.setLastModified(Instant.parse("2024-01-01T00:01:00Z"));
+        when(userService.getChanges(since, 100, null))
+                .thenReturn(new UserChangesPage(List.of(UserChange.upserted(user1)), null, watermark));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/changes")
+                .param("since", "2024-01-01T00:00:00Z")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].type", is("upserted")))
+                .andExpect(jsonPath("$.changes[0].user.email", is("john.doe@example.com")))
+                .andExpect(jsonPath("$.watermark", is("2024-01-01T00:05:00Z")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void getChangesShouldReturn410WhenWatermarkExpired() throws Exception {
+        // Given
+        when(userService.getChanges(any(Instant.class), eq(100), isNull()))
+                .thenThrow(new ResourceGoneException("Deletions are only retained for 30 days"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/changes")
+                .param("since", "2020-01-01T00:00:00Z")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGone());
+    }
+
+    private static RawBsonDocument rawDocument(User user) {
+        BsonDocument document = new BsonDocument("_id", new BsonObjectId(user.getId()))
+                .append("name", new BsonString(user.getName()))
+                .append("email", new BsonString(user.getEmail()))
+                .append("searchName", new BsonString(user.getSearchName()))
+                .append("createdAt", new BsonDateTime(Instant.parse("2024-03-01T10:15:30.123Z").toEpochMilli()));
+        return new RawBsonDocument(document, new BsonDocumentCodec());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.support.EmbeddedReplicaSet;
+import com.example.userservice.user.model.User;
+import com.jayway.jsonpath.JsonPath;
+import com.mongodb.WriteConcern;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.example.userservice.config.CausalConsistencyFilter.SESSION_TOKEN_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Checks where reads land on a three-member replica set: point reads on a secondary, reads that carry a
+ * session token on a secondary but after the client's write, and write-path lookups on the primary.
+ * Run with {@code ./gradlew replicaSetTest}, part of {@code check}.
+ */
+@Tag("replicaset")
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserReadRoutingTest {
+
+    private static final String USERS = "/api/v1/users";
+    private static final List<CommandStartedEvent> FINDS = new CopyOnWriteArrayList<>();
+
+    private static EmbeddedReplicaSet replicaSet;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private User user;
+
+    @TestConfiguration
+    static class CommandCapture {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer recordFinds() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if ("find".equals(event.getCommandName())) {
+                        FINDS.add(event);
+                    }
+                }
+            });
+        }
+    }
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        replicaSet = EmbeddedReplicaSet.start(3);
+        registry.add("spring.data.mongodb.uri", () -> replicaSet.uri("routing"));
+        registry.add("spring.data.mongodb.database", () -> "routing");
+    }
+
+    @AfterAll
+    static void stop() {
+        replicaSet.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Written to every member, so a secondary read without a token finds it
+        user = new User("Alice Example", "alice" + System.nanoTime() + "@example.com");
+        Document document = new Document();
+        mongoTemplate.getConverter().write(user, document);
+        mongoTemplate.getCollection("users").withWriteConcern(new WriteConcern(3)).insertOne(document);
+        user.setId(document.getObjectId("_id"));
+        FINDS.clear();
+    }
+
+    @Test
+    void pointReadShouldBeServedByASecondary() throws Exception {
+        mockMvc.perform(get(USERS + "/{id}", user.getId().toHexString()))
+                .andExpect(status().isOk());
+
+        assertNotEquals(replicaSet.primary(), address(lastFind()));
+    }
+
+    @Test
+    void readWithSessionTokenShouldWaitForTheClientsWrite() throws Exception {
+        MvcResult created = mockMvc.perform(post(USERS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Bob Example\",\"email\":\"bob" + System.nanoTime() + "@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(SESSION_TOKEN_HEADER))
+                .andReturn();
+        String token = created.getResponse().getHeader(SESSION_TOKEN_HEADER);
+        String id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+        FINDS.clear();
+
+        mockMvc.perform(get(USERS + "/{id}", id).header(SESSION_TOKEN_HEADER, token))
+                .andExpect(status().isOk());
+
+        CommandStartedEvent find = lastFind();
+        assertNotEquals(replicaSet.primary(), address(find));
+        assertTrue(find.getCommand().getDocument("readConcern").containsKey("afterClusterTime"));
+    }
+
+    @Test
+    void writePathLookupsShouldStayOnThePrimary() throws Exception {
+        mockMvc.perform(patch(USERS + "/{id}", user.getId().toHexString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Alice Renamed\"}"))
+                .andExpect(status().isOk());
+
+        assertFalse(FINDS.isEmpty());
+        FINDS.forEach(find -> assertEquals(replicaSet.primary(), address(find)));
+    }
+
+    private static CommandStartedEvent lastFind() {
+        assertFalse(FINDS.isEmpty(), "No find was sent");
+        return FINDS.get(FINDS.size() - 1);
+    }
+
+    private static String address(CommandStartedEvent event) {
+        return event.getConnectionDescription().getServerAddress().toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.example.userservice.user.controller;
+
+import com.example.userservice.support.EmbeddedMongo;
+import com.example.userservice.user.event.UserChangedEvent;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.search.UserNameIndex;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.example.userservice.support.RoundTrips.atMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Holds every user endpoint to a budget of Mongo round trips, counted through the full stack against embedded
+ * Mongo. A change that adds a round trip to an endpoint fails here until its budget is raised on purpose.
+ * Run with {@code ./gradlew roundTripTest}, part of {@code check}.
+ */
+@Tag("roundtrips")
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserRoundTripsTest {
+
+    private static final String USERS = "/api/v1/users";
+    private static final long INDEX_TIMEOUT_NANOS = Duration.ofSeconds(30).toNanos();
+
+    private static EmbeddedMongo mongo;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserNameIndex userNameIndex;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        mongo = EmbeddedMongo.start();
+        registry.add("spring.data.mongodb.uri", () -> mongo.uri("roundtrips"));
+        registry.add("spring.data.mongodb.database", () -> "roundtrips");
+    }
+
+    @AfterAll
+    static void stop() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), User.class);
+        user = mongoTemplate.save(new User("Alice Example", "alice@example.com"));
+        userNameIndex.onUserChanged(UserChangedEvent.created(user));
+    }
+
+    @Test
+    void readsShouldStayWithinTheirBudgets() throws Exception {
+        mockMvc.perform(get(USERS + "/{id}", user.getId().toHexString()))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+        mockMvc.perform(get(USERS).param("email", "alice@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+        mockMvc.perform(get(USERS))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+        mockMvc.perform(get(USERS + "/count"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+        mockMvc.perform(get(USERS + "/count").param("exact", "true").param("prefix", "al"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+        mockMvc.perform(get(USERS + "/search").param("prefix", "al"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+        mockMvc.perform(get(USERS + "/changes").param("since", Instant.now().minusSeconds(60).toString()))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    void fuzzySearchShouldStayWithinItsBudget() throws Exception {
+        awaitNameIndex();
+        mockMvc.perform(get(USERS + "/search/fuzzy").param("q", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    void missingUserShouldStayWithinItsBudget() throws Exception {
+        mockMvc.perform(get(USERS + "/{id}", "65f000000000000000000000"))
+                .andExpect(status().isNotFound())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    void writesShouldStayWithinTheirBudgets() throws Exception {
+        // Email uniqueness check, insert
+        mockMvc.perform(post(USERS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Bob Example\",\"email\":\"bob@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(2));
+        // Read, email uniqueness check, replace
+        mockMvc.perform(put(USERS + "/{id}", user.getId().toHexString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Alice Renamed\",\"email\":\"alice.renamed@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+        // Read, email uniqueness check, replace
+        mockMvc.perform(patch(USERS + "/{id}", user.getId().toHexString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"alice@example.org\"}"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+        // Existence check, delete, tombstone
+        mockMvc.perform(delete(USERS + "/{id}", user.getId().toHexString()))
+                .andExpect(status().isNoContent())
+                .andExpect(atMost(3));
+    }
+
+    private void awaitNameIndex() throws InterruptedException {
+        long deadline = System.nanoTime() + INDEX_TIMEOUT_NANOS;
+        while (!userNameIndex.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Name index did not load");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
\ No newline at end of file
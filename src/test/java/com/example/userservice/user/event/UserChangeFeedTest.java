@@ -0,0 +1,194 @@
+package com.example.userservice.user.event;
+
+import com.example.userservice.common.exception.ServiceUnavailableException;
+import com.example.userservice.user.model.User;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserChangeFeedTest {
+
+    private UserChangeFeedProperties properties;
+    private UserChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserChangeFeedProperties();
+        properties.setHistory(8);
+        properties.setSubscriberBuffer(4);
+        feed = new UserChangeFeed(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void subscriberShouldReceiveChangesInOrder() {
+        // Given
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(sink, null);
+        User user = new User("John Doe", "john.doe@example.com");
+        user.setId(new ObjectId());
+
+        // When
+        feed.onUserChanged(UserChangedEvent.created(user));
+        feed.onUserChanged(UserChangedEvent.deleted(user.getId()));
+
+        // Then
+        await(() -> sink.messages.size() == 2);
+        List<UserChangeFeed.Change> changes = sink.changes();
+        assertEquals(UserChangedEvent.Type.CREATED, changes.get(0).event().type());
+        assertEquals(UserChangedEvent.Type.DELETED, changes.get(1).event().type());
+        assertEquals(changes.get(0).sequence() + 1, changes.get(1).sequence());
+    }
+
+    @Test
+    void resumingSubscriberShouldReceiveMissedChanges() {
+        // Given
+        RecordingSink first = new RecordingSink();
+        feed.subscribe(first, null);
+        for (int i = 0; i < 3; i++) {
+            feed.onUserChanged(UserChangedEvent.deleted(new ObjectId()));
+        }
+        await(() -> first.messages.size() == 3);
+        String lastSeen = first.changes().get(0).id();
+
+        // When
+        RecordingSink resumed = new RecordingSink();
+        feed.subscribe(resumed, lastSeen);
+
+        // Then
+        await(() -> resumed.messages.size() == 2);
+        assertEquals(first.changes().subList(1, 3), resumed.changes());
+    }
+
+    @Test
+    void subscriberResumingFromUnknownChangeShouldBeReset() {
+        // Given
+        RecordingSink sink = new RecordingSink();
+
+        // When
+        feed.subscribe(sink, "42");
+
+        // Then
+        await(() -> sink.messages.size() == 1);
+        assertInstanceOf(UserChangeFeed.Reset.class, sink.messages.get(0));
+    }
+
+    @Test
+    void subscriberResumingFromAnotherInstancesChangeShouldBeReset() {
+        // Given
+        UserChangeFeed otherInstance = new UserChangeFeed(properties);
+        RecordingSink elsewhere = new RecordingSink();
+        otherInstance.subscribe(elsewhere, null);
+        RecordingSink here = new RecordingSink();
+        feed.subscribe(here, null);
+        // Both instances have numbered changes from the same point
+        otherInstance.onUserChanged(UserChangedEvent.deleted(new ObjectId()));
+        feed.onUserChanged(UserChangedEvent.deleted(new ObjectId()));
+        feed.onUserChanged(UserChangedEvent.deleted(new ObjectId()));
+        await(() -> elsewhere.messages.size() == 1 && here.messages.size() == 2);
+        assertEquals(elsewhere.changes().get(0).sequence(), here.changes().get(0).sequence());
+        String lastSeen = elsewhere.changes().get(0).id();
+
+        // When
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(sink, lastSeen);
+
+        // Then
+        await(() -> sink.messages.size() == 1);
+        assertInstanceOf(UserChangeFeed.Reset.class, sink.messages.get(0));
+        otherInstance.destroy();
+    }
+
+    @Test
+    void slowSubscriberShouldBeDisconnectedWithoutAffectingOthers() {
+        // Given
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(stuck);
+        RecordingSink fast = new RecordingSink();
+        feed.subscribe(slow, null);
+        feed.subscribe(fast, null);
+
+        // When: paced so the fast subscriber's buffer never fills, while the slow one's does
+        for (int i = 1; i <= 10; i++) {
+            feed.onUserChanged(UserChangedEvent.deleted(new ObjectId()));
+            int delivered = i;
+            await(() -> fast.messages.size() == delivered);
+        }
+
+        // Then
+        await(() -> slow.closed);
+        assertEquals(1, feed.getSubscribers());
+        stuck.countDown();
+    }
+
+    @Test
+    void subscribeShouldRejectBeyondMaxSubscribers() {
+        // Given
+        properties.setMaxSubscribers(1);
+        feed.subscribe(new RecordingSink(), null);
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> feed.subscribe(new RecordingSink(), null));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class RecordingSink implements UserChangeFeed.Sink {
+
+        private final List<UserChangeFeed.Message> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blockUntil;
+        private volatile boolean closed;
+
+        RecordingSink() {
+            this(null);
+        }
+
+        // A sink that blocks on its first message until released, like a client that stopped reading
+        RecordingSink(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(UserChangeFeed.Message message) {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            messages.add(message);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<UserChangeFeed.Change> changes() {
+            return messages.stream()
+                    .filter(UserChangeFeed.Change.class::isInstance)
+                    .map(UserChangeFeed.Change.class::cast)
+                    .toList();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.example.userservice.user.model;
+
+import com.example.userservice.support.EmbeddedMongo;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares reflective mapping of users against {@link UserConverters}: encode and decode rates through
+ * {@code MappingMongoConverter}, then insert and read throughput on embedded Mongo.
+ * Run with {@code ./gradlew benchmark}; tune with {@code -Dbenchmark.conversions} and {@code -Dbenchmark.users}.
+ */
+@Tag("benchmark")
+class UserConvertersBenchmarkTest {
+
+    private static final int INSERT_BATCH = 1_000;
+
+    @Test
+    void handWrittenConvertersShouldMapFaster() {
+        int conversions = Integer.getInteger("benchmark.conversions", 2_000_000);
+        MappingMongoConverter reflective = converter(new MongoCustomConversions(List.of()));
+        MappingMongoConverter handWritten = converter(new MongoCustomConversions(UserConverters.all()));
+        User user = user(0);
+
+        double reflectiveEncode = encodeRate(reflective, user, conversions);
+        double handWrittenEncode = encodeRate(handWritten, user, conversions);
+        Document document = new Document();
+        reflective.write(user, document);
+        double reflectiveDecode = decodeRate(reflective, document, conversions);
+        double handWrittenDecode = decodeRate(handWritten, document, conversions);
+
+        System.out.printf("encode: reflective %,.0f/s, hand-written %,.0f/s%n", reflectiveEncode, handWrittenEncode);
+        System.out.printf("decode: reflective %,.0f/s, hand-written %,.0f/s%n", reflectiveDecode, handWrittenDecode);
+        assertTrue(handWrittenEncode > reflectiveEncode);
+        assertTrue(handWrittenDecode > reflectiveDecode);
+    }
+
+    @Test
+    void compareEndToEndThroughput() {
+        int users = Integer.getInteger("benchmark.users", 100_000);
+
+        try (EmbeddedMongo mongo = EmbeddedMongo.start();
+             MongoClient client = MongoClients.create(mongo.uri("admin"))) {
+            double[] reflective = run(template(client, "reflective", new MongoCustomConversions(List.of())), users);
+            double[] handWritten = run(template(client, "converters", new MongoCustomConversions(UserConverters.all())),
+                    users);
+
+            System.out.printf("insert: reflective %,.0f users/s, hand-written %,.0f users/s%n",
+                    reflective[0], handWritten[0]);
+            System.out.printf("read:   reflective %,.0f users/s, hand-written %,.0f users/s%n",
+                    reflective[1], handWritten[1]);
+        }
+    }
+
+    private static double[] run(MongoTemplate template, int users) {
+        long started = System.nanoTime();
+        for (int offset = 0; offset < users; offset += INSERT_BATCH) {
+            List<User> batch = new ArrayList<>(INSERT_BATCH);
+            for (int i = offset; i < Math.min(offset + INSERT_BATCH, users); i++) {
+                batch.add(user(i));
+            }
+            template.insertAll(batch);
+        }
+        double insertRate = users / ((System.nanoTime() - started) / 1e9);
+
+        int reads = 5;
+        started = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            assertEquals(users, template.find(new Query(), User.class).size());
+        }
+        double readRate = (double) users * reads / ((System.nanoTime() - started) / 1e9);
+        return new double[] {insertRate, readRate};
+    }
+
+    private static double encodeRate(MappingMongoConverter converter, User user, int conversions) {
+        for (int i = 0; i < conversions / 4; i++) {
+            converter.write(user, new Document());
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < conversions; i++) {
+            converter.write(user, new Document());
+        }
+        return conversions / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static double decodeRate(MappingMongoConverter converter, Document document, int conversions) {
+        for (int i = 0; i < conversions / 4; i++) {
+            converter.read(User.class, document);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < conversions; i++) {
+            converter.read(User.class, document);
+        }
+        return conversions / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static MongoTemplate template(MongoClient client, String database, MongoCustomConversions conversions) {
+        return new MongoTemplate(new SimpleMongoClientDatabaseFactory(client, database), converter(conversions));
+    }
+
+    private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(User.class));
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static User user(int i) {
+        User user = new User("Benchmark User " + i, "user" + i + "@example.com");
+        user.setId(new ObjectId());
+        user.setCreatedAt(Instant.now());
+        user.setLastModified(user.getCreatedAt());
+        return user;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.userservice.user.model;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserConvertersTest {
+
+    @Test
+    void writingShouldStoreSetFieldsWithoutTypeHint() {
+        User user = new User("John Doe", "john.doe@example.com");
+        user.setId(new ObjectId());
+        user.setCreatedAt(Instant.parse("2024-03-01T10:15:30.123Z"));
+
+        Document document = UserConverters.Writing.INSTANCE.convert(user);
+
+        assertEquals(new Document("_id", user.getId())
+                .append("name", "John Doe")
+                .append("email", "john.doe@example.com")
+                .append("searchName", "john doe")
+                .append("createdAt", Date.from(user.getCreatedAt())), document);
+    }
+
+    @Test
+    void readingShouldNormalizeThroughSetters() {
+        ObjectId id = new ObjectId();
+        Document document = new Document("_id", id)
+                .append("name", " John Doe ")
+                .append("email", "John.Doe@Example.com")
+                .append("searchName", "stale")
+                .append("lastModified", new Date(1_000))
+                .append("_class", User.class.getName());
+
+        User user = UserConverters.Reading.INSTANCE.convert(document);
+
+        assertEquals(id, user.getId());
+        assertEquals("John Doe", user.getName());
+        assertEquals("john doe", user.getSearchName());
+        assertEquals("john.doe@example.com", user.getEmail());
+        assertNull(user.getCreatedAt());
+        assertEquals(Instant.ofEpochSecond(1), user.getLastModified());
+    }
+
+    @Test
+    void readingShouldKeepSearchNameOfKeyProjection() {
+        User user = UserConverters.Reading.INSTANCE.convert(
+                new Document("_id", new ObjectId()).append("searchName", "john doe"));
+
+        assertNull(user.getName());
+        assertEquals("john doe", user.getSearchName());
+    }
+
+    @Test
+    void mappingConverterShouldUseConvertersAndKeepUserAnEntity() {
+        MongoCustomConversions conversions = new MongoCustomConversions(UserConverters.all());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(User.class));
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        User user = new User("Jane Smith", "jane.smith@example.com");
+        user.setId(new ObjectId());
+
+        Document document = new Document();
+        converter.write(user, document);
+
+        assertFalse(document.containsKey("_class"));
+        assertEquals(user, converter.read(User.class, document));
+        assertNotNull(mappingContext.getRequiredPersistentEntity(User.class).getIdProperty());
+    }
+}
\ No newline at end of file
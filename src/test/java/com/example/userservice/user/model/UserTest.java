@@ -130,4 +130,16 @@ class UserTest {
         assertEquals(1, violations.size());
         assertEquals("Email is required", violations.iterator().next().getMessage());
     }
+
+    @Test
+    void shouldKeepLowercasedSearchNameInStepWithName() {
+        // Given
+        User user = new User("  John Doe ", "john.doe@example.com");
+
+        // When
+        user.setName("Jane SMITH");
+
+        // Then
+        assertEquals("jane smith", user.getSearchName());
+    }
 }
\ No newline at end of file
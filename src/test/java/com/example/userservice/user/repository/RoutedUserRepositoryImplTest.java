@@ -0,0 +1,138 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.common.mongo.CausalSessionExecutor;
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.common.mongo.MongoWriteConcernProperties;
+import com.example.userservice.config.MongoConfig;
+import com.example.userservice.support.InMemoryMongo;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserConverters;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the write concern each repository write sends, against an in-memory server with the production
+ * template configuration.
+ */
+class RoutedUserRepositoryImplTest {
+
+    private static final List<CommandStartedEvent> WRITES = new CopyOnWriteArrayList<>();
+
+    private static InMemoryMongo mongo;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    private RoutedUserRepositoryImpl repository;
+
+    @BeforeAll
+    static void start() {
+        mongo = InMemoryMongo.start();
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(mongo.uri("writes")))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if (List.of("insert", "update", "delete").contains(event.getCommandName())) {
+                            WRITES.add(event);
+                        }
+                    }
+                })
+                .build());
+        mongoTemplate = new MongoConfig().mongoTemplate(new SimpleMongoClientDatabaseFactory(client, "writes"),
+                converter(), writeConcerns());
+    }
+
+    @AfterAll
+    static void stop() {
+        client.close();
+        mongo.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        MongoReadRoutingProperties routing = new MongoReadRoutingProperties();
+        repository = new RoutedUserRepositoryImpl(new CausalSessionExecutor(mongoTemplate, routing), routing);
+        mongoTemplate.dropCollection(User.class);
+        WRITES.clear();
+    }
+
+    @Test
+    void insertUnorderedShouldSendTheInteractiveWriteConcern() {
+        // When
+        repository.insertUnordered(List.of(new User("Alice Example", "alice@example.com"),
+                new User("Bob Example", "bob@example.com")));
+
+        // Then
+        assertEquals(1, WRITES.size());
+        assertEquals(BsonDocument.parse("{w: 'majority', j: true, wtimeout: 5000}"), writeConcern(WRITES.get(0)));
+    }
+
+    @Test
+    void updateNamesShouldSendTheBulkWriteConcern() {
+        // Given
+        User user = new User("Alice Example", "alice@example.com");
+        repository.insertUnordered(List.of(user));
+        WRITES.clear();
+
+        // When
+        repository.updateNames(List.of(user.getId()), "Alice Renamed");
+
+        // Then
+        assertEquals(1, WRITES.size());
+        assertEquals(BsonDocument.parse("{w: 1, j: false}"), writeConcern(WRITES.get(0)));
+    }
+
+    private static BsonDocument writeConcern(CommandStartedEvent event) {
+        return event.getCommand().getDocument("writeConcern");
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(UserConverters.all());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // The profiles and bindings of application.yml
+    private static MongoWriteConcernProperties writeConcerns() {
+        MongoWriteConcernProperties properties = new MongoWriteConcernProperties();
+        MongoWriteConcernProperties.Profile interactive = new MongoWriteConcernProperties.Profile();
+        interactive.setJournal(true);
+        interactive.setWtimeout(Duration.ofSeconds(5));
+        properties.getProfiles().put("interactive", interactive);
+        MongoWriteConcernProperties.Profile bulk = new MongoWriteConcernProperties.Profile();
+        bulk.setW("1");
+        bulk.setJournal(false);
+        properties.getProfiles().put("bulk", bulk);
+        properties.getOperations().put(MongoActionOperation.INSERT, "interactive");
+        properties.getOperations().put(MongoActionOperation.SAVE, "interactive");
+        properties.getOperations().put(MongoActionOperation.INSERT_LIST, "bulk");
+        return properties;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.common.concurrency.MicroBatcher;
+import com.example.userservice.common.mongo.CausalSessionExecutor;
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.support.EmbeddedMongo;
+import com.example.userservice.user.model.User;
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares create throughput of one insert per user against group commit through unordered bulk inserts,
+ * on embedded Mongo with the journaled majority write concern used for interactive writes.
+ * Run with {@code ./gradlew benchmark}; tune with {@code -Dbenchmark.users} and {@code -Dbenchmark.clients}.
+ */
+@Tag("benchmark")
+class UserInsertBenchmarkTest {
+
+    @Test
+    void groupCommitShouldOutperformSingleInserts() throws InterruptedException {
+        int users = Integer.getInteger("benchmark.users", 20_000);
+        int clients = Integer.getInteger("benchmark.clients", 64);
+
+        try (EmbeddedMongo mongo = EmbeddedMongo.start()) {
+            RoutedUserRepositoryImpl single = repository(mongo.template("single"));
+            double singleRate = run(users, clients, single::save);
+
+            RoutedUserRepositoryImpl grouped = repository(mongo.template("grouped"));
+            MicroBatcher<User, Boolean> batcher = new MicroBatcher<>((batch, results) -> {
+                Set<Integer> rejected = new HashSet<>(grouped.insertUnordered(batch));
+                for (int i = 0; i < batch.size(); i++) {
+                    results.get(i).complete(!rejected.contains(i));
+                }
+            }, 128, TimeUnit.MILLISECONDS.toNanos(2), 2);
+            double groupedRate = run(users, clients, batcher::submit);
+
+            System.out.printf("single inserts: %.0f users/s%n", singleRate);
+            System.out.printf("group commit:   %.0f users/s (%d batches, %.1f users/batch)%n",
+                    groupedRate, batcher.getBatches(), (double) batcher.getItems() / batcher.getBatches());
+            assertTrue(groupedRate > singleRate);
+        }
+    }
+
+    private static RoutedUserRepositoryImpl repository(MongoTemplate template) {
+        template.setWriteConcern(WriteConcern.MAJORITY.withJournal(true));
+        template.indexOps(User.class).ensureIndex(new Index("email", Sort.Direction.ASC).unique());
+        MongoReadRoutingProperties properties = new MongoReadRoutingProperties();
+        return new RoutedUserRepositoryImpl(new CausalSessionExecutor(template, properties), properties);
+    }
+
+    private static double run(int users, int clients, Consumer<User> create) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            for (int c = 0; c < clients; c++) {
+                executor.execute(() -> {
+                    for (int i = next.getAndIncrement(); i < users; i = next.getAndIncrement()) {
+                        create.accept(new User("Benchmark User " + i, "user" + i + "@example.com"));
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+        }
+        return users / ((System.nanoTime() - started) / 1e9);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.example.userservice.user.repository;
+
+import com.example.userservice.common.mongo.MongoIndexBootstrapper;
+import com.example.userservice.common.mongo.QueryPlan;
+import com.example.userservice.common.mongo.QueryPlanExplainer;
+import com.example.userservice.support.EmbeddedMongo;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserTombstone;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains every repository query over a seeded collection on embedded Mongo and fails on collection scans
+ * or plans that examine far more than they return. Run with {@code ./gradlew queryPlanTest}, part of {@code check}.
+ */
+@Tag("queryplans")
+class UserQueryPlansTest {
+
+    private static final int USERS = 2_000;
+    private static final int TOMBSTONES = 200;
+    private static final int MAX_EXAMINED_PER_RETURNED = 2;
+    private static final Set<String> MATCHING_LOOKUPS = Set.of("findById", "findAllById", "findRawById",
+            "findByEmailIgnoreCase", "existsByEmailIgnoreCase", "findByExactEmail");
+    private static final String[] NAMES = {"Alice", "Bob", "Carol", "Dave", "Erin", "Frank", "Grace", "Heidi"};
+
+    private static EmbeddedMongo mongo;
+    private static MongoTemplate mongoTemplate;
+    private static UserQueryPlans userQueryPlans;
+    private static ObjectId sampleId;
+
+    @BeforeAll
+    static void seed() {
+        mongo = EmbeddedMongo.start();
+        mongoTemplate = mongo.template("queryplans");
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        mappingContext.getRequiredPersistentEntity(User.class);
+        mappingContext.getRequiredPersistentEntity(UserTombstone.class);
+        new MongoIndexBootstrapper(mongoTemplate, mappingContext).createIndexes();
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User(NAMES[i % NAMES.length] + " " + i, "user" + i + "@example.com");
+            user.setLastModified(Instant.ofEpochSecond(i));
+            users.add(user);
+        }
+        mongoTemplate.insert(users, User.class);
+        sampleId = users.get(7).getId();
+        List<UserTombstone> tombstones = new ArrayList<>(TOMBSTONES);
+        for (int i = 0; i < TOMBSTONES; i++) {
+            tombstones.add(new UserTombstone(new ObjectId(), Instant.now().minusSeconds(i)));
+        }
+        mongoTemplate.insert(tombstones, UserTombstone.class);
+        userQueryPlans = new UserQueryPlans(mongoTemplate, new QueryPlanExplainer(mongoTemplate));
+    }
+
+    @AfterAll
+    static void stop() {
+        mongo.close();
+    }
+
+    @Test
+    void noRepositoryQueryShouldScanTheCollection() {
+        for (QueryPlan plan : explain("User7@Example.com")) {
+            assertFalse(plan.isCollectionScan(), () -> plan.name() + " scans the collection: " + plan);
+        }
+    }
+
+    @Test
+    void noRepositoryQueryShouldSortInMemory() {
+        for (QueryPlan plan : explain("user7@example.com")) {
+            assertFalse(plan.isBlockingSort(), () -> plan.name() + " sorts in memory: " + plan);
+        }
+    }
+
+    @Test
+    void repositoryQueriesShouldExamineLittleMoreThanTheyReturn() {
+        for (QueryPlan plan : explain("user7@example.com")) {
+            assertTrue(plan.isSelective(MAX_EXAMINED_PER_RETURNED),
+                    () -> plan.name() + " examines too much: " + plan);
+        }
+    }
+
+    @Test
+    void sampleArgumentsShouldMatchSeededUsers() {
+        // A plan that returns nothing passes the checks above without showing how the query scales
+        for (QueryPlan plan : explain("user7@example.com")) {
+            if (MATCHING_LOOKUPS.contains(plan.name()) || plan.name().contains("Prefix")) {
+                assertTrue(plan.returned() > 0, () -> plan.name() + " matches no seeded user: " + plan);
+            }
+        }
+    }
+
+    @Test
+    void liveSamplesShouldMatchStoredUsers() {
+        for (QueryPlan plan : userQueryPlans.explain()) {
+            if (plan.name().contains("Prefix")) {
+                assertTrue(plan.returned() > 0, () -> plan.name() + " matches no stored user: " + plan);
+            }
+        }
+    }
+
+    @Test
+    void caseInsensitiveRegexShouldFailTheSelectivityCheck() {
+        // The query shape the email lookups used before; it can't seek the index and walks all of it
+        Query regex = new Query(Criteria.where("email").regex("^user7@example.com$", "i"));
+
+        QueryPlan plan = new QueryPlanExplainer(mongoTemplate).explain("regex", User.class, regex);
+
+        assertEquals(1, plan.returned());
+        assertFalse(plan.isSelective(MAX_EXAMINED_PER_RETURNED), plan::toString);
+    }
+
+    @Test
+    void unindexedSortShouldFailTheSelectivityCheck() {
+        // Ordering email matches by name can't come from the email index, so they are sorted in memory
+        Query sorted = new Query(Criteria.where("email").is("user7@example.com")).with(Sort.by("name"));
+
+        QueryPlan plan = new QueryPlanExplainer(mongoTemplate).explain("sorted", User.class, sorted);
+
+        assertTrue(plan.isBlockingSort(), plan::toString);
+        assertFalse(plan.isSelective(MAX_EXAMINED_PER_RETURNED), plan::toString);
+    }
+
+    // Names are seeded as "Alice 0", "Bob 1", ... and emails as user0@example.com, ...
+    private static List<QueryPlan> explain(String email) {
+        return userQueryPlans.explain(sampleId, email, "al", "user1");
+    }
+}
\ No newline at end of file
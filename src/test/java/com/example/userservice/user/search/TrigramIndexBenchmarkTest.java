@@ -0,0 +1,70 @@
+package com.example.userservice.user.search;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures heap per indexed user and query latency. Run with {@code ./gradlew benchmark};
+ * the index size defaults to one million names and can be raised with {@code -Dbenchmark.users=10000000}.
+ */
+@Tag("benchmark")
+class TrigramIndexBenchmarkTest {
+
+    private static final String[] FIRST_NAMES = {
+            "Björk", "José", "Zoë", "Łukasz", "Maria", "John", "Aoife", "Søren", "Ana", "Mohammed",
+            "Wei", "Olga", "Siobhán", "François", "Jürgen", "Priya", "Kenji", "Amélie", "Núria", "Ivan"
+    };
+    private static final String[] LAST_NAMES = {
+            "Guðmundsdóttir", "García", "Nowak", "Müller", "Smith", "O'Brien", "Jensen", "Rossi", "Kowalski",
+            "Yamamoto", "Dubois", "Fernández", "Petrov", "Nakamura", "Andersson", "Silva", "Chen", "Kim"
+    };
+
+    @Test
+    void measureMemoryAndQueryLatency() {
+        int users = Integer.getInteger("benchmark.users", 1_000_000);
+        int queries = Integer.getInteger("benchmark.queries", 2_000);
+        Random random = new Random(42);
+
+        long heapBefore = usedHeap();
+        TrigramIndex index = new TrigramIndex();
+        long loadStarted = System.nanoTime();
+        for (int i = 0; i < users; i++) {
+            index.put(new ObjectId(), randomName(random) + " " + Integer.toString(i, 36));
+        }
+        long loadMillis = (System.nanoTime() - loadStarted) / 1_000_000;
+        long heapAfter = usedHeap();
+
+        long[] latencies = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            String query = NameNormalizer.normalize(randomName(random)).substring(1);
+            long started = System.nanoTime();
+            index.search(query, 10, 0.5);
+            latencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("users=%d load=%d ms heap=%d bytes/user%n",
+                users, loadMillis, (heapAfter - heapBefore) / users);
+        System.out.printf("query p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                latencies[queries / 2] / 1e6, latencies[queries * 99 / 100] / 1e6, latencies[queries - 1] / 1e6);
+        assertEquals(users, index.size());
+    }
+
+    private static String randomName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
\ No newline at end of file
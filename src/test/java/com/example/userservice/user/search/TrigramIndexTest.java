@@ -0,0 +1,118 @@
+package com.example.userservice.user.search;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+    }
+
+    @Test
+    void normalizeShouldFoldCaseAccentsAndSpecialLetters() {
+        assertEquals("bjork gudmundsdottir", NameNormalizer.normalize("  Björk   Guðmundsdóttir "));
+        assertEquals("strasse oeuvre", NameNormalizer.normalize("Straße-Œuvre"));
+        assertEquals("", NameNormalizer.normalize("--"));
+    }
+
+    @Test
+    void searchShouldMatchAccentedNameWithPlainQuery() {
+        // Given
+        ObjectId bjork = new ObjectId();
+        index.put(bjork, "Björk Guðmundsdóttir");
+        index.put(new ObjectId(), "Bruce Wayne");
+
+        // When
+        List<TrigramIndex.Match> result = index.search("Bjork", 10, 0.5);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(bjork, result.get(0).id());
+        assertEquals(1.0, result.get(0).score());
+    }
+
+    @Test
+    void searchShouldTolerateTyposAndRankCloserNamesFirst() {
+        // Given
+        ObjectId jonathan = new ObjectId();
+        ObjectId johnathan = new ObjectId();
+        index.put(jonathan, "Jonathan Smith");
+        index.put(johnathan, "Johnathan Smyth");
+
+        // When
+        List<TrigramIndex.Match> result = index.search("Jonathan Smyth", 10, 0.3);
+
+        // Then
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).score() >= result.get(1).score());
+    }
+
+    @Test
+    void putShouldReplacePreviousNameOfSameUser() {
+        // Given
+        ObjectId id = new ObjectId();
+        index.put(id, "Alice Cooper");
+
+        // When
+        index.put(id, "Bob Dylan");
+
+        // Then
+        assertEquals(1, index.size());
+        assertTrue(index.search("Alice Cooper", 10, 0.5).isEmpty());
+        assertEquals(id, index.search("Bob Dylan", 10, 0.5).get(0).id());
+    }
+
+    @Test
+    void removeShouldDropUserFromResults() {
+        // Given
+        ObjectId id = new ObjectId();
+        index.put(id, "Alice Cooper");
+
+        // When
+        index.remove(id);
+
+        // Then
+        assertEquals(0, index.size());
+        assertTrue(index.search("Alice", 10, 0.5).isEmpty());
+    }
+
+    @Test
+    void searchShouldSurviveCompactionAndGrowth() {
+        // Given
+        int users = 5_000;
+        ObjectId[] ids = new ObjectId[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = new ObjectId();
+            index.put(ids[i], "User Number " + i);
+        }
+
+        // When: remove enough users to trigger compaction
+        for (int i = 0; i < users; i += 2) {
+            index.remove(ids[i]);
+        }
+
+        // Then
+        assertEquals(users / 2, index.size());
+        List<TrigramIndex.Match> result = index.search("User Number 4999", 1, 0.5);
+        assertEquals(ids[4999], result.get(0).id());
+        assertTrue(index.search("User Number 4998", 5, 1.0).stream().noneMatch(m -> m.id().equals(ids[4998])));
+    }
+
+    @Test
+    void searchShouldRespectLimit() {
+        for (int i = 0; i < 20; i++) {
+            index.put(new ObjectId(), "Maria Garcia " + i);
+        }
+
+        assertEquals(5, index.search("Maria Garcia", 5, 0.5).size());
+    }
+}
\ No newline at end of file
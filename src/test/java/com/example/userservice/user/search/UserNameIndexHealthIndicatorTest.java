@@ -0,0 +1,50 @@
+package com.example.userservice.user.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserNameIndexHealthIndicatorTest {
+
+    @Mock
+    private UserNameIndex nameIndex;
+
+    @InjectMocks
+    private UserNameIndexHealthIndicator healthIndicator;
+
+    @Test
+    void healthShouldReportTheLastFailedLoad() {
+        // Given
+        when(nameIndex.isReady()).thenReturn(false);
+        when(nameIndex.getLastError()).thenReturn("connection refused");
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals("connection refused", health.getDetails().get("lastError"));
+    }
+
+    @Test
+    void healthShouldBeUpOnceLoaded() {
+        // Given
+        when(nameIndex.isReady()).thenReturn(true);
+        when(nameIndex.size()).thenReturn(42);
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(42, health.getDetails().get("names"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.userservice.user.search;
+
+import com.example.userservice.common.mongo.MongoReadRoutingProperties;
+import com.example.userservice.user.event.UserChangedEvent;
+import com.example.userservice.user.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserNameIndexTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final UserNameIndex nameIndex = new UserNameIndex(mongoTemplate, new MongoReadRoutingProperties(), 0.5);
+
+    @Test
+    void changesDuringLoadShouldWinOverTheSnapshot() {
+        // Given
+        User renamed = new User("Robert Renamed", "bob@example.com");
+        renamed.setId(new ObjectId());
+        ObjectId deleted = new ObjectId();
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        // The snapshot still has the old names; both changes land while the load is streaming
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.of(
+                        new Document("_id", new ObjectId()).append("name", "Alice Example"),
+                        new Document("_id", renamed.getId()).append("name", "Bob Example"),
+                        new Document("_id", deleted).append("name", "Carol Example"))
+                .peek(document -> {
+                    if (document.getString("name").startsWith("Alice")) {
+                        nameIndex.onUserChanged(UserChangedEvent.updated(renamed));
+                        nameIndex.onUserChanged(UserChangedEvent.deleted(deleted));
+                    }
+                }));
+
+        // When
+        nameIndex.load();
+
+        // Then
+        assertTrue(nameIndex.isReady());
+        assertEquals(List.of(renamed.getId()), ids(nameIndex.search("Robert Renamed", 10)));
+        assertFalse(ids(nameIndex.search("Bob Example", 10)).contains(renamed.getId()));
+        assertFalse(ids(nameIndex.search("Carol Example", 10)).contains(deleted));
+    }
+
+    @Test
+    void failedLoadShouldLeaveTheIndexNotReadyUntilALoadSucceeds() {
+        // Given
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(Stream.of(new Document("_id", new ObjectId()).append("name", "Alice Example")));
+
+        // When
+        assertThrows(IllegalStateException.class, nameIndex::load);
+
+        // Then
+        assertFalse(nameIndex.isReady());
+
+        // When
+        nameIndex.load();
+
+        // Then
+        assertTrue(nameIndex.isReady());
+        assertEquals(1, nameIndex.size());
+    }
+
+    private static List<ObjectId> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(TrigramIndex.Match::id).toList();
+    }
+}
\ No newline at end of file
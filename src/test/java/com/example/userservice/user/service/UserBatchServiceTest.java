@@ -0,0 +1,223 @@
+package com.example.userservice.user.service;
+
+import com.example.userservice.common.exception.BadRequestException;
+import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.user.event.UserChangedEvent;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserBatchJob;
+import com.example.userservice.user.model.UserBatchResult;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.repository.UserRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBatchServiceTest {
+
+    private static final Map<String, Object> RENAME = Map.of("name", "Renamed User");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UserBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        UserServiceProperties properties = new UserServiceProperties();
+        properties.getBatches().setChunkSize(2);
+        properties.getBatches().setMaxIds(5);
+        // No pauses between chunks in tests
+        properties.getBatches().setDutyCycle(1.0);
+        batchService = new UserBatchService(userRepository, eventPublisher, properties);
+    }
+
+    @Test
+    void patchShouldReportEachUserAndPublishUpdates() {
+        // Given
+        ObjectId found = new ObjectId();
+        ObjectId missing = new ObjectId();
+        User renamed = user(found);
+        when(userRepository.findExistingIds(List.of(found, missing))).thenReturn(List.of(found));
+        when(userRepository.updateNames(List.of(found), "Renamed User")).thenReturn(List.of(renamed));
+
+        // When
+        UserBatchResult result = batchService.patch(List.of(found, missing), RENAME);
+
+        // Then
+        assertEquals(List.of(new UserBatchResult.Item(found, UserBatchResult.Status.UPDATED),
+                new UserBatchResult.Item(missing, UserBatchResult.Status.NOT_FOUND)), result.items());
+        assertEquals(1, result.succeeded());
+        assertEquals(1, result.notFound());
+        verify(eventPublisher).publishEvent(UserChangedEvent.updated(renamed));
+    }
+
+    @Test
+    void deleteShouldWriteInChunksAndSkipDuplicates() {
+        // Given
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+        ObjectId third = new ObjectId();
+        when(userRepository.findExistingIds(List.of(first, second))).thenReturn(List.of(first, second));
+        when(userRepository.findExistingIds(List.of(third))).thenReturn(List.of());
+
+        // When
+        UserBatchResult result = batchService.delete(List.of(first, second, first, third));
+
+        // Then
+        assertEquals(3, result.items().size());
+        assertEquals(2, result.succeeded());
+        assertEquals(UserBatchResult.Status.NOT_FOUND, result.items().get(2).status());
+        verify(userRepository).deleteAllByIds(argThat(ids -> ids.size() == 2
+                && ids.containsAll(List.of(first, second))));
+        verify(userRepository, times(1)).deleteAllByIds(any());
+        verify(eventPublisher).publishEvent(UserChangedEvent.deleted(first));
+        verify(eventPublisher).publishEvent(UserChangedEvent.deleted(second));
+    }
+
+    @Test
+    void patchShouldRejectFieldsOtherThanName() {
+        List<ObjectId> ids = List.of(new ObjectId());
+
+        assertThrows(BadRequestException.class, () -> batchService.patch(ids, Map.of("email", "a@example.com")));
+        assertThrows(BadRequestException.class, () -> batchService.patch(ids, Map.of()));
+        assertThrows(BadRequestException.class, () -> batchService.patch(ids, Map.of("name", " ")));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void batchShouldRejectTooManyIds() {
+        List<ObjectId> ids = List.of(new ObjectId(), new ObjectId(), new ObjectId(), new ObjectId(), new ObjectId(),
+                new ObjectId());
+
+        assertThrows(BadRequestException.class, () -> batchService.delete(ids));
+        assertThrows(BadRequestException.class, () -> batchService.delete(List.of()));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void jobShouldWalkEveryMatchAndReportProgress() throws InterruptedException {
+        // Given
+        User first = user(new ObjectId());
+        User second = user(new ObjectId());
+        User third = user(new ObjectId());
+        when(userRepository.findKeysByPrefix(UserSearchField.NAME, "jo", null, null, 2))
+                .thenReturn(List.of(first, second));
+        when(userRepository.findKeysByPrefix(UserSearchField.NAME, "jo", second.getSearchName(), second.getId(), 2))
+                .thenReturn(List.of(third));
+        when(userRepository.deleteAllByIds(any()))
+                .thenAnswer(invocation -> (long) invocation.<List<?>>getArgument(0).size());
+
+        // When
+        UserBatchJob started = batchService.start(UserBatchJob.Operation.DELETE, UserSearchField.NAME, " Jo", null);
+        UserBatchJob job = awaitCompletion(started.id());
+
+        // Then
+        assertEquals(UserBatchJob.Status.COMPLETED, job.status());
+        assertEquals(3, job.examined());
+        assertEquals(3, job.succeeded());
+        assertNotNull(job.finishedAt());
+        verify(userRepository).deleteAllByIds(List.of(first.getId(), second.getId()));
+        verify(userRepository).deleteAllByIds(List.of(third.getId()));
+    }
+
+    @Test
+    void jobShouldCountRenamedUsersVisitedAgainOnce() throws InterruptedException {
+        // Given
+        User first = user(new ObjectId());
+        User second = user(new ObjectId());
+        User third = user(new ObjectId());
+        User renamedFirst = renamed(first, "Joe Renamed");
+        User renamedSecond = renamed(second, "Joe Renamed");
+        User renamedThird = renamed(third, "Joe Renamed");
+        when(userRepository.findKeysByPrefix(UserSearchField.NAME, "jo", null, null, 2))
+                .thenReturn(List.of(first, second));
+        // The renamed users now sort after the cursor and come round again
+        when(userRepository.findKeysByPrefix(UserSearchField.NAME, "jo", second.getSearchName(), second.getId(), 2))
+                .thenReturn(List.of(third, renamedFirst));
+        when(userRepository.findKeysByPrefix(UserSearchField.NAME, "jo", renamedFirst.getSearchName(),
+                renamedFirst.getId(), 2))
+                .thenReturn(List.of(renamedSecond));
+        when(userRepository.updateNames(List.of(first.getId(), second.getId()), "Joe Renamed"))
+                .thenReturn(List.of(renamedFirst, renamedSecond));
+        when(userRepository.updateNames(List.of(third.getId(), first.getId()), "Joe Renamed"))
+                .thenReturn(List.of(renamedThird));
+        when(userRepository.updateNames(List.of(second.getId()), "Joe Renamed")).thenReturn(List.of());
+
+        // When
+        UserBatchJob started = batchService.start(UserBatchJob.Operation.PATCH, UserSearchField.NAME, "jo",
+                Map.of("name", "Joe Renamed"));
+        UserBatchJob job = awaitCompletion(started.id());
+
+        // Then
+        assertEquals(UserBatchJob.Status.COMPLETED, job.status());
+        assertEquals(5, job.examined());
+        assertEquals(3, job.succeeded());
+        verify(eventPublisher, times(3)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void jobShouldReportFailure() throws InterruptedException {
+        // Given
+        when(userRepository.findKeysByPrefix(any(), any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalStateException("Connection lost"));
+
+        // When
+        UserBatchJob started = batchService.start(UserBatchJob.Operation.PATCH, UserSearchField.EMAIL, "jo", RENAME);
+        UserBatchJob job = awaitCompletion(started.id());
+
+        // Then
+        assertEquals(UserBatchJob.Status.FAILED, job.status());
+        assertEquals("Connection lost", job.error());
+    }
+
+    @Test
+    void jobShouldRequireAPrefix() {
+        assertThrows(BadRequestException.class,
+                () -> batchService.start(UserBatchJob.Operation.DELETE, UserSearchField.NAME, " ", null));
+        assertThrows(BadRequestException.class,
+                () -> batchService.start(UserBatchJob.Operation.DELETE, null, "jo", null));
+    }
+
+    @Test
+    void getJobShouldThrowForUnknownJob() {
+        assertThrows(ResourceNotFoundException.class, () -> batchService.getJob("unknown"));
+    }
+
+    private UserBatchJob awaitCompletion(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        UserBatchJob job = batchService.getJob(id);
+        while (job.status() == UserBatchJob.Status.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = batchService.getJob(id);
+        }
+        return job;
+    }
+
+    private static User renamed(User user, String name) {
+        User renamed = new User(name, user.getEmail());
+        renamed.setId(user.getId());
+        return renamed;
+    }
+
+    private static User user(ObjectId id) {
+        User user = new User("John " + id, id + "@example.com");
+        user.setId(id);
+        return user;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.example.userservice.user.service;
+
+import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.common.timing.RequestTimings;
+import com.example.userservice.user.model.User;
+import com.example.userservice.user.repository.UserRepository;
+import com.example.userservice.user.search.UserNameIndex;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserOperationEventTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserNameIndex userNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserServiceProperties properties = new UserServiceProperties();
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    @Test
+    void lookupsShouldBeRecordedWithOutcomeAndMongoTime() throws Exception {
+        // Given
+        ObjectId existingId = new ObjectId();
+        ObjectId missingId = new ObjectId();
+        User user = new User("John Doe", "john.doe@example.com");
+        user.setId(existingId);
+        when(userRepository.findById(existingId, ReadOperation.POINT)).thenAnswer(invocation -> {
+            RequestTimings.recordCommand(Duration.ofMillis(2).toNanos());
+            return Optional.of(user);
+        });
+        when(userRepository.findById(missingId, ReadOperation.POINT)).thenReturn(Optional.empty());
+
+        // When
+        List<RecordedEvent> events = record(() -> {
+            userService.getUserById(existingId);
+            assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(missingId));
+        });
+
+        // Then
+        assertEquals(2, events.size());
+        RecordedEvent found = event(events, existingId);
+        assertEquals(UserOperationEvent.LOOKUP, found.getString("operation"));
+        assertEquals("ok", found.getString("outcome"));
+        assertEquals(1, found.getInt("mongoCommands"));
+        assertEquals(Duration.ofMillis(2), found.getDuration("mongoTime"));
+        RecordedEvent missing = event(events, missingId);
+        assertEquals("not found", missing.getString("outcome"));
+        assertEquals(0, missing.getInt("mongoCommands"));
+    }
+
+    @Test
+    void eventsShouldStayEmptyWithoutARecording() {
+        // When
+        UserOperationEvent event = UserOperationEvent.start(UserOperationEvent.DELETE, new ObjectId());
+        event.finish();
+
+        // Then
+        assertFalse(event.isEnabled());
+        assertNull(event.operation);
+        assertNull(event.userId);
+    }
+
+    private static List<RecordedEvent> record(Runnable requests) throws Exception {
+        Path file = Files.createTempFile("user-operation-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(UserOperationEvent.NAME);
+            recording.start();
+            RequestTimings.open();
+            try {
+                requests.run();
+            } finally {
+                RequestTimings.close();
+            }
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, ObjectId id) {
+        return events.stream()
+                .filter(event -> id.toHexString().equals(event.getString("userId")))
+                .findFirst()
+                .orElseThrow();
+    }
+}
\ No newline at end of file
@@ -2,18 +2,38 @@ package com.example.userservice.user.service;
 
 import com.example.userservice.common.exception.BadRequestException;
 import com.example.userservice.common.exception.DuplicateResourceException;
+import com.example.userservice.common.exception.ResourceGoneException;
 import com.example.userservice.common.exception.ResourceNotFoundException;
+import com.example.userservice.common.exception.ServiceUnavailableException;
+import com.example.userservice.common.mongo.ReadOperation;
+import com.example.userservice.common.paging.KeysetCursor;
+import com.example.userservice.user.event.UserChangedEvent;
 import com.example.userservice.user.model.User;
+import com.example.userservice.user.model.UserChange;
+import com.example.userservice.user.model.UserChangesPage;
+import com.example.userservice.user.model.UserCount;
+import com.example.userservice.user.model.UserMatch;
+import com.example.userservice.user.model.UserSearchField;
+import com.example.userservice.user.model.UserSearchPage;
+import com.example.userservice.user.model.UserTombstone;
 import com.example.userservice.user.repository.UserRepository;
+import com.example.userservice.user.search.TrigramIndex;
+import com.example.userservice.user.search.UserNameIndex;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +45,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserNameIndex userNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserServiceProperties properties = new UserServiceProperties();
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -41,7 +70,7 @@ class UserServiceImplTest {
     @Test
     void getUserByIdShouldReturnUserWhenExists() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findById(userId, ReadOperation.POINT)).thenReturn(Optional.of(user));
 
         // When
         User result = userService.getUserById(userId);
@@ -56,7 +85,7 @@ class UserServiceImplTest {
     @Test
     void getUserByIdShouldThrowExceptionWhenNotFound() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findById(userId, ReadOperation.POINT)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(userId));
@@ -68,7 +97,7 @@ class UserServiceImplTest {
         User user2 = new User("Jane Smith", "jane.smith@example.com");
         user2.setId(new ObjectId());
         List<User> users = Arrays.asList(user, user2);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAll(ReadOperation.LISTING)).thenReturn(users);
 
         // When
         List<User> result = userService.getAllUsers();
@@ -132,6 +161,22 @@ class UserServiceImplTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void updateUserShouldPreserveCreationDate() {
+        // Given
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+        user.setCreatedAt(createdAt);
+        User updatedUser = new User("Updated Name", "john.doe@example.com");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        User result = userService.updateUser(userId, updatedUser);
+
+        // Then
+        assertEquals(createdAt, result.getCreatedAt());
+    }
+
     @Test
     void updateUserShouldThrowExceptionWhenUserNotFound() {
         // Given
@@ -310,7 +355,7 @@ class UserServiceImplTest {
     void getUserByEmailShouldReturnUserWhenExists() {
         // Given
         String email = "john.doe@example.com";
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.of(user));
+        when(userRepository.findByEmailIgnoreCase(email, ReadOperation.POINT)).thenReturn(Optional.of(user));
 
         // When
         User result = userService.getUserByEmail(email);
@@ -326,7 +371,7 @@ class UserServiceImplTest {
     void getUserByEmailShouldThrowExceptionWhenNotFound() {
         // Given
         String email = "nonexistent@example.com";
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.empty());
+        when(userRepository.findByEmailIgnoreCase(email, ReadOperation.POINT)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserByEmail(email));
@@ -336,6 +381,304 @@ class UserServiceImplTest {
     void getUserByEmailShouldThrowExceptionWhenEmailEmpty() {
         // When & Then
         assertThrows(BadRequestException.class, () -> userService.getUserByEmail(""));
-        verify(userRepository, never()).findByEmailIgnoreCase(anyString());
+        verify(userRepository, never()).findByEmailIgnoreCase(anyString(), any());
+    }
+
+    @Test
+    void searchByPrefixShouldReturnLastPageWithoutContinuation() {
+        // Given
+        when(userRepository.findByPrefix(UserSearchField.NAME, "jo", null, null, 11)).thenReturn(List.of(user));
+
+        // When
+        UserSearchPage result = userService.searchByPrefix(UserSearchField.NAME, " Jo", 10, null);
+
+        // Then
+        assertEquals(1, result.users().size());
+        assertNull(result.next());
+    }
+
+    @Test
+    void searchByPrefixShouldContinueAfterLastUserOfPage() {
+        // Given
+        User user2 = new User("Johnny Cash", "johnny@example.com");
+        user2.setId(new ObjectId());
+        when(userRepository.findByPrefix(eq(UserSearchField.NAME), eq("john"), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(user, user2));
+        when(userRepository.findByPrefix(UserSearchField.NAME, "john", "john doe", userId, 2))
+                .thenReturn(List.of(user2));
+
+        // When
+        UserSearchPage first = userService.searchByPrefix(UserSearchField.NAME, "john", 1, null);
+        UserSearchPage second = userService.searchByPrefix(UserSearchField.NAME, "john", 1, first.next());
+
+        // Then
+        assertEquals(List.of(user), first.users());
+        assertNotNull(first.next());
+        assertEquals(List.of(user2), second.users());
+        assertNull(second.next());
+    }
+
+    @Test
+    void searchByPrefixShouldRejectInvalidParameters() {
+        assertThrows(BadRequestException.class, () -> userService.searchByPrefix(null, "jo", 10, null));
+        assertThrows(BadRequestException.class, () -> userService.searchByPrefix(UserSearchField.NAME, " ", 10, null));
+        assertThrows(BadRequestException.class, () -> userService.searchByPrefix(UserSearchField.NAME, "jo", 0, null));
+        assertThrows(BadRequestException.class, () -> userService.searchByPrefix(UserSearchField.NAME, "jo", 51, null));
+        assertThrows(BadRequestException.class, () -> userService.searchByPrefix(UserSearchField.NAME, "jo", 10, "garbage"));
+        verify(userRepository, never()).findByPrefix(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void createUserShouldPublishCreatedEvent() {
+        // Given
+        when(userRepository.existsByEmailIgnoreCase(any())).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        // When
+        userService.createUser(user);
+
+        // Then
+        verify(eventPublisher).publishEvent(UserChangedEvent.created(user));
+    }
+
+    @Test
+    void createUserShouldInsertThroughGroupCommitWhenEnabled() {
+        // Given
+        UserServiceImpl groupCommitService = groupCommitService();
+        User newUser = new User("New User", "new.user@example.com");
+        when(userRepository.insertUnordered(anyList())).thenReturn(List.of());
+
+        // When
+        User result = groupCommitService.createUser(newUser);
+
+        // Then
+        assertSame(newUser, result);
+        verify(userRepository).insertUnordered(List.of(newUser));
+        verify(userRepository, never()).existsByEmailIgnoreCase(any());
+        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher).publishEvent(UserChangedEvent.created(newUser));
+    }
+
+    @Test
+    void createUserShouldThrowExceptionWhenGroupCommitRejectsDuplicate() {
+        // Given
+        UserServiceImpl groupCommitService = groupCommitService();
+        User newUser = new User("New User", "existing@example.com");
+        when(userRepository.insertUnordered(anyList())).thenReturn(List.of(0));
+
+        // When & Then
+        assertThrows(DuplicateResourceException.class, () -> groupCommitService.createUser(newUser));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deleteUserShouldPublishDeletedEvent() {
+        // Given
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        // When
+        userService.deleteUser(userId);
+
+        // Then
+        verify(eventPublisher).publishEvent(UserChangedEvent.deleted(userId));
+    }
+
+    @Test
+    void fuzzySearchByNameShouldReturnUsersInIndexOrder() {
+        // Given
+        User user2 = new User("Johan Dover", "johan@example.com");
+        user2.setId(new ObjectId());
+        when(userNameIndex.isReady()).thenReturn(true);
+        when(userNameIndex.search("jon doe", 10)).thenReturn(List.of(
+                new TrigramIndex.Match(user2.getId(), 0.9),
+                new TrigramIndex.Match(userId, 0.6),
+                new TrigramIndex.Match(new ObjectId(), 0.5)));
+        when(userRepository.findAllById(anyList(), eq(ReadOperation.POINT))).thenReturn(List.of(user, user2));
+
+        // When
+        List<UserMatch> result = userService.fuzzySearchByName("jon doe", 10);
+
+        // Then
+        assertEquals(List.of(new UserMatch(user2, 0.9), new UserMatch(user, 0.6)), result);
+    }
+
+    @Test
+    void fuzzySearchByNameShouldThrowWhenIndexNotReady() {
+        // Given
+        when(userNameIndex.isReady()).thenReturn(false);
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> userService.fuzzySearchByName("jon", 10));
+    }
+
+    @Test
+    void countUsersShouldUseEstimateByDefault() {
+        // Given
+        when(userRepository.estimatedCount()).thenReturn(42L);
+
+        // When
+        UserCount result = userService.countUsers(false, UserSearchField.NAME, null);
+
+        // Then
+        assertEquals(new UserCount(42L, false), result);
+        verify(userRepository, never()).countByPrefix(any(), any());
+    }
+
+    @Test
+    void countUsersShouldCountExactlyAndReuseResult() {
+        // Given
+        when(userRepository.countByPrefix(null, null)).thenReturn(41L);
+
+        // When
+        UserCount first = userService.countUsers(true, null, null);
+        UserCount second = userService.countUsers(true, null, null);
+
+        // Then
+        assertEquals(new UserCount(41L, true), first);
+        assertEquals(first, second);
+        verify(userRepository, times(1)).countByPrefix(null, null);
+        verify(userRepository, never()).estimatedCount();
+    }
+
+    @Test
+    void concurrentExactCountMissesShouldShareOneCount() throws Exception {
+        // Given
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.countByPrefix(null, null)).thenAnswer(invocation -> {
+            counting.countDown();
+            release.await();
+            return 41L;
+        });
+
+        // When
+        List<Thread> callers = new ArrayList<>();
+        List<UserCount> results = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 4; i++) {
+            Thread caller = new Thread(() -> results.add(userService.countUsers(true, null, null)));
+            callers.add(caller);
+            caller.start();
+            if (i == 0) {
+                assertTrue(counting.await(5, TimeUnit.SECONDS));
+            }
+        }
+        // The other callers park on the count in flight
+        for (Thread caller : callers.subList(1, callers.size())) {
+            while (caller.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join(5_000);
+        }
+
+        // Then
+        assertEquals(Collections.nCopies(4, new UserCount(41L, true)), results);
+        verify(userRepository, times(1)).countByPrefix(null, null);
+    }
+
+    @Test
+    void countUsersShouldCountExactlyWhenFiltered() {
+        // Given
+        when(userRepository.countByPrefix(UserSearchField.EMAIL, "jo")).thenReturn(3L);
+
+        // When
+        UserCount result = userService.countUsers(false, UserSearchField.EMAIL, " JO");
+
+        // Then
+        assertEquals(new UserCount(3L, true), result);
+    }
+
+    @Test
+    void countUsersShouldRejectFilterOnUnknownField() {
+        assertThrows(BadRequestException.class, () -> userService.countUsers(false, null, "jo"));
+    }
+
+    @Test
+    void getChangesShouldMergeUpdatesAndDeletionsOldestFirst() {
+        // Given
+        Instant since = Instant.now().minus(Duration.ofHours(1));
+        User older = modifiedUser(since.plusSeconds(1));
+        User newer = modifiedUser(since.plusSeconds(3));
+        UserTombstone tombstone = new UserTombstone(new ObjectId(), since.plusSeconds(2));
+        when(userRepository.findModified(eq(since), isNull(), any(Instant.class), eq(11)))
+                .thenReturn(List.of(older, newer));
+        when(userRepository.findDeleted(eq(since), isNull(), any(Instant.class), eq(11)))
+                .thenReturn(List.of(tombstone));
+
+        // When
+        UserChangesPage page = userService.getChanges(since, 10, null);
+
+        // Then
+        assertEquals(List.of(UserChange.upserted(older), UserChange.deleted(tombstone), UserChange.upserted(newer)),
+                page.changes());
+        assertNull(page.next());
+        assertNotNull(page.watermark());
+        assertTrue(page.watermark().isBefore(Instant.now()));
+    }
+
+    @Test
+    void getChangesShouldReturnContinuationWhenMoreChangesFollow() {
+        // Given
+        User first = modifiedUser(Instant.parse("2024-01-01T00:00:01Z"));
+        User second = modifiedUser(Instant.parse("2024-01-01T00:00:02Z"));
+        UserTombstone third = new UserTombstone(new ObjectId(), Instant.parse("2024-01-01T00:00:03Z"));
+        when(userRepository.findModified(eq(Instant.EPOCH), isNull(), any(Instant.class), eq(3)))
+                .thenReturn(List.of(first, second));
+        when(userRepository.findDeleted(eq(Instant.EPOCH), isNull(), any(Instant.class), eq(3)))
+                .thenReturn(List.of(third));
+
+        // When
+        UserChangesPage page = userService.getChanges(null, 2, null);
+
+        // Then
+        assertEquals(2, page.changes().size());
+        assertNull(page.watermark());
+        assertEquals(new KeysetCursor(second.getLastModified().toString(), second.getId()),
+                KeysetCursor.decode(page.next()));
+    }
+
+    @Test
+    void getChangesShouldContinueAfterCursor() {
+        // Given
+        ObjectId afterId = new ObjectId();
+        Instant afterDate = Instant.parse("2024-01-01T00:00:02Z");
+        String after = new KeysetCursor(afterDate.toString(), afterId).encode();
+
+        // When
+        userService.getChanges(null, 5, after);
+
+        // Then
+        verify(userRepository).findModified(eq(afterDate), eq(afterId), any(Instant.class), eq(6));
+        verify(userRepository).findDeleted(eq(afterDate), eq(afterId), any(Instant.class), eq(6));
+    }
+
+    @Test
+    void getChangesShouldRejectWatermarkOlderThanTombstoneRetention() {
+        Instant since = Instant.now().minus(UserTombstone.RETENTION).minus(Duration.ofDays(1));
+
+        assertThrows(ResourceGoneException.class, () -> userService.getChanges(since, 10, null));
+        verify(userRepository, never()).findModified(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getChangesShouldRejectInvalidLimit() {
+        assertThrows(BadRequestException.class, () -> userService.getChanges(null, 0, null));
+        assertThrows(BadRequestException.class,
+                () -> userService.getChanges(null, UserServiceImpl.MAX_CHANGES_LIMIT + 1, null));
+    }
+
+    private static User modifiedUser(Instant lastModified) {
+        User user = new User("Changed User", new ObjectId() + "@example.com");
+        user.setId(new ObjectId());
+        user.setLastModified(lastModified);
+        return user;
+    }
+
+    private UserServiceImpl groupCommitService() {
+        UserServiceProperties groupCommit = new UserServiceProperties();
+        groupCommit.getCreates().setGroupCommit(true);
+        return new UserServiceImpl(userRepository, userNameIndex, eventPublisher, groupCommit);
     }
 }
\ No newline at end of file